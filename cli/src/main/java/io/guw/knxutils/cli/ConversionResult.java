@@ -0,0 +1,70 @@
+package io.guw.knxutils.cli;
+
+import static java.lang.String.format;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The result of converting a single project.
+ */
+final class ConversionResult {
+
+	static ConversionResult failed(Path project, Exception failure, long durationMillis) {
+		return new ConversionResult(project, 0, 0, 0, durationMillis, null, failure);
+	}
+
+	static ConversionResult succeeded(Path project, int lightCount, int changedFileCount, int unchangedFileCount,
+			long durationMillis, String timings) {
+		return new ConversionResult(project, lightCount, changedFileCount, unchangedFileCount, durationMillis, timings,
+				null);
+	}
+
+	private final Path project;
+	private final int lightCount;
+	private final int changedFileCount;
+	private final int unchangedFileCount;
+	private final long durationMillis;
+	private final String timings;
+	private final Exception failure;
+
+	private ConversionResult(Path project, int lightCount, int changedFileCount, int unchangedFileCount,
+			long durationMillis, String timings, Exception failure) {
+		this.project = project;
+		this.lightCount = lightCount;
+		this.changedFileCount = changedFileCount;
+		this.unchangedFileCount = unchangedFileCount;
+		this.durationMillis = durationMillis;
+		this.timings = timings;
+		this.failure = failure;
+	}
+
+	Exception getFailure() {
+		return failure;
+	}
+
+	Path getProject() {
+		return project;
+	}
+
+	/**
+	 * @return the timing breakdown (<code>null</code> if not recorded)
+	 */
+	String getTimings() {
+		return timings;
+	}
+
+	boolean isSucceeded() {
+		return failure == null;
+	}
+
+	@Override
+	public String toString() {
+		if (failure != null) {
+			String message = (failure.getMessage() != null) ? failure.getMessage() : failure.getClass().getName();
+			return format(Locale.ROOT, "FAILED  %s: %s (%d ms)", project, message, durationMillis);
+		}
+		return format(Locale.ROOT, "OK      %s: %d lights, %d files changed, %d unchanged (%d ms)", project, lightCount,
+				changedFileCount, unchangedFileCount, durationMillis);
+	}
+}
@@ -0,0 +1,98 @@
+package io.guw.knxutils.cli;
+
+import static java.lang.String.format;
+
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.guw.knxutils.diff.ProjectDiff;
+import io.guw.knxutils.knxprojectparser.KnxProjectFile;
+import io.guw.knxutils.knxprojectparser.PhaseTimer;
+import io.guw.knxutils.semanticanalyzer.KnxProjectAnalyzer;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+
+/**
+ * Compares two exports of a project.
+ * <p>
+ * Both projects are read and analyzed concurrently. GAs, devices and COs are
+ * compared before analyzing since the analysis fills in missing names and
+ * DPTs; the analyzers are only used to compare lights. Analysis options (eg.,
+ * <code>--characteristics</code>) are taken from the parent command. The exit
+ * code is <code>0</code> if the projects are equal and <code>1</code> if
+ * differences were found.
+ * </p>
+ */
+@Command(name = "diff", description = "show added, removed and modified GAs, devices, COs and lights")
+public class DiffCommand implements Callable<Integer> {
+
+	@ParentCommand
+	private KnxConvertCommand parent;
+
+	@Parameters(index = "0", description = "the old .knxproj file", paramLabel = "OLD")
+	private Path oldFile;
+
+	@Parameters(index = "1", description = "the new .knxproj file", paramLabel = "NEW")
+	private Path newFile;
+
+	@Override
+	public Integer call() throws Exception {
+		long start = System.nanoTime();
+
+		// distinct names keep learned state and search index of both versions apart
+		String oldFileName = KnxConvertCommand.getProjectName(oldFile);
+		String newFileName = KnxConvertCommand.getProjectName(newFile);
+		boolean sameName = oldFileName.equals(newFileName);
+		String oldName = sameName ? oldFileName + "-old" : oldFileName;
+		String newName = sameName ? newFileName + "-new" : newFileName;
+
+		ProjectDiff diff = new ProjectDiff();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<KnxProjectFile> oldOpenFuture = executor.submit(() -> open(oldFile));
+			Future<KnxProjectFile> newOpenFuture = executor.submit(() -> open(newFile));
+			KnxProjectFile oldProjectFile = get(oldOpenFuture);
+			KnxProjectFile newProjectFile = get(newOpenFuture);
+
+			// compare as exported, the analysis modifies GAs (eg., DPTs derived from COs)
+			diff.compareGroupAddresses(oldProjectFile.getGroupAddresses(), newProjectFile.getGroupAddresses());
+			diff.compareDevices(oldProjectFile.getDevices(), newProjectFile.getDevices());
+			diff.compareCommunicationObjects(oldProjectFile.getDevices(), newProjectFile.getDevices());
+
+			Future<KnxProjectAnalyzer> oldFuture = executor
+					.submit(() -> parent.analyze(oldProjectFile, oldName, PhaseTimer.EVENTS_ONLY));
+			Future<KnxProjectAnalyzer> newFuture = executor
+					.submit(() -> parent.analyze(newProjectFile, newName, PhaseTimer.EVENTS_ONLY));
+			diff.compareLights(get(oldFuture).getLights(), get(newFuture).getLights());
+		} finally {
+			executor.shutdownNow();
+		}
+		diff.print(System.out);
+		System.out.println(format("Compared in %d ms", (System.nanoTime() - start) / 1_000_000L));
+		return diff.isEmpty() ? 0 : 1;
+	}
+
+	private <T> T get(Future<T> future) throws Exception {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			// report the failure of reading or analyzing instead of the wrapper
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private KnxProjectFile open(Path project) throws Exception {
+		KnxProjectFile knxProjectFile = new KnxProjectFile(project.toFile());
+		knxProjectFile.open();
+		return knxProjectFile;
+	}
+}
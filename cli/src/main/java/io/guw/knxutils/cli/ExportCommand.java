@@ -0,0 +1,65 @@
+package io.guw.knxutils.cli;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.guw.knxutils.knxprojectparser.KnxProjectFile;
+import io.guw.knxutils.ndjson.NdjsonExporter;
+import io.guw.knxutils.output.JsonWriter;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+/**
+ * Dumps the parsed model of a project as newline-delimited JSON.
+ * <p>
+ * The output goes to standard output by default so that it can be piped into
+ * other tools (eg., <code>jq</code>). Log messages are written to standard
+ * error and do not mix with the records.
+ * </p>
+ */
+@Command(name = "export", description = "export areas, lines, devices, COs, GA ranges, GAs and links as NDJSON")
+public class ExportCommand implements Callable<Integer> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ExportCommand.class);
+
+	@Parameters(description = "the .knxproj file to export", paramLabel = "FILE")
+	private Path knxProjFile;
+
+	@Option(names = { "-o", "--output" }, description = "file to write to (default: standard output)",
+			paramLabel = "FILE")
+	private Path outputFile;
+
+	@Override
+	public Integer call() throws Exception {
+		KnxProjectFile knxProjectFile = new KnxProjectFile(knxProjFile.toFile());
+		knxProjectFile.open();
+
+		// standard output is flushed but never closed
+		OutputStream out = (outputFile != null) ? new FileOutputStream(outputFile.toFile()) : System.out;
+		JsonWriter json = new JsonWriter(new BufferedWriter(new OutputStreamWriter(out, UTF_8), 64 * 1024));
+		NdjsonExporter exporter = new NdjsonExporter(json);
+		try {
+			exporter.export(knxProjectFile);
+		} finally {
+			if (outputFile != null) {
+				exporter.close();
+			} else {
+				json.flush();
+			}
+		}
+
+		LOG.info("Exported {} records of project '{}'", exporter.getRecordCount(), knxProjectFile.getProjectName());
+		return 0;
+	}
+}
@@ -1,22 +1,157 @@
 package io.guw.knxutils.cli;
 
-import java.io.File;
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import io.guw.knxutils.homeassistant.HomeAssistantKnxExporter;
+import io.guw.knxutils.homeassistant.YamlBuilder;
+import io.guw.knxutils.knxprojectparser.GroupAddress;
 import io.guw.knxutils.knxprojectparser.KnxProjectFile;
+import io.guw.knxutils.knxprojectparser.PhaseTimer;
+import io.guw.knxutils.knxprojectparser.PhaseTimer.Phase;
+import io.guw.knxutils.openhab.OpenHabExporter;
+import io.guw.knxutils.output.OutputFiles;
+import io.guw.knxutils.semanticanalyzer.AnalysisBudget;
 import io.guw.knxutils.semanticanalyzer.GenericGermanyKnxProjectCharacteristics;
 import io.guw.knxutils.semanticanalyzer.KnxProjectAnalyzer;
 import io.guw.knxutils.semanticanalyzer.KnxProjectCharacteristics;
+import io.guw.knxutils.semanticanalyzer.ProjectSnapshot;
 
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
 import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
 
 /**
- * Converts a knxproj file to a set of configuration files.
+ * Converts knxproj files to a set of configuration files.
+ * <p>
+ * Multiple projects (or directories containing projects) are converted in one
+ * process using a bounded pool of workers. Static data of the analyzer (eg.,
+ * dictionaries and hyphenation data for German decompounding) is loaded once
+ * and shared by all projects. In this case a summary of the results and
+ * failures is printed instead of per-project output.
+ * </p>
+ * <p>
+ * In watch mode the process keeps running and converts projects again when
+ * they change. The JVM, the analyzer's static data and the learned state of
+ * every project stay warm so that unchanged projects skip learning and
+ * unchanged output files are not touched. Changed projects are compared with
+ * their previous version and only added or modified GAs are re-analyzed.
+ * </p>
  */
-@Command(name = "knxconvert")
-public class KnxConvertCommand implements Callable<Void> {
+@Command(name = "knxconvert", subcommands = { DiffCommand.class, ExportCommand.class, ServeCommand.class })
+public class KnxConvertCommand implements Callable<Integer> {
+
+	/**
+	 * Analysis of a watched project kept for re-analyzing its next version.
+	 */
+	private static final class WatchedAnalysis {
+		final KnxProjectAnalyzer analyzer;
+		/** GA descriptions by address (taken before analysis) */
+		final Map<Integer, String> descriptions;
+
+		WatchedAnalysis(KnxProjectAnalyzer analyzer, Map<Integer, String> descriptions) {
+			this.analyzer = analyzer;
+			this.descriptions = descriptions;
+		}
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(KnxConvertCommand.class);
+
+	private static final String PROJECT_EXTENSION = ".knxproj";
+
+	private static final PrintStream QUIET = new PrintStream(OutputStream.nullOutputStream());
+
+	/** time without further changes before a changed project is converted */
+	private static final Duration WATCH_DEBOUNCE = Duration.ofMillis(250);
+
+	/**
+	 * Verifies that the names of projects processed together are unique (their
+	 * output paths, state files and search indexes are resolved by name).
+	 *
+	 * @param projects the project files
+	 * @throws IllegalArgumentException if two projects have the same name
+	 */
+	static void checkProjectNames(List<Path> projects) {
+		Set<String> projectNames = new HashSet<>();
+		for (Path project : projects) {
+			if (!projectNames.add(getProjectName(project))) {
+				throw new IllegalArgumentException("Duplicate project name: " + project);
+			}
+		}
+	}
+
+	private static void close(KnxProjectCharacteristics characteristics) throws IOException {
+		if (characteristics instanceof Closeable) {
+			((Closeable) characteristics).close();
+		}
+	}
+
+	/**
+	 * Expands directories to the <code>.knxproj</code> files they contain
+	 * (recursively).
+	 * <p>
+	 * The returned paths are absolute and normalized, i.e. they are equal to
+	 * the paths reported by {@link ProjectWatcher}.
+	 * </p>
+	 *
+	 * @param files the files and directories
+	 * @return the project files
+	 * @throws IOException in case of errors listing a directory
+	 */
+	static List<Path> findProjects(List<Path> files) throws IOException {
+		List<Path> projects = new ArrayList<>();
+		for (Path path : files) {
+			Path file = path.toAbsolutePath().normalize();
+			if (Files.isDirectory(file)) {
+				try (Stream<Path> children = Files.walk(file)) {
+					children.filter((f) -> Files.isRegularFile(f) && f.getFileName().toString().endsWith(PROJECT_EXTENSION))
+							.sorted().forEach(projects::add);
+				}
+			} else {
+				projects.add(file);
+			}
+		}
+		if (projects.isEmpty()) {
+			throw new IllegalArgumentException("No " + PROJECT_EXTENSION + " files found in " + files);
+		}
+		return projects;
+	}
+
+	static String getProjectName(Path project) {
+		String fileName = project.getFileName().toString();
+		return fileName.endsWith(PROJECT_EXTENSION)
+				? fileName.substring(0, fileName.length() - PROJECT_EXTENSION.length())
+				: fileName;
+	}
 
 	public static void main(String[] args) {
 		CommandLine cmd = new CommandLine(new KnxConvertCommand());
@@ -24,23 +159,390 @@ public class KnxConvertCommand implements Callable<Void> {
 		System.exit(exitCode);
 	}
 
-	@Parameters(index = "0", description = "the .knxproj file to convert", paramLabel = "FILE")
-	private File knxProjFile;
+	@Spec
+	private CommandSpec spec;
+
+	@Parameters(arity = "0..*",
+			description = "the .knxproj files or directories containing .knxproj files to convert", paramLabel = "FILE")
+	private List<Path> knxProjFiles;
+
+	@Option(names = "--homeassistant",
+			description = "file to write the Home Assistant KNX configuration to (eg., knx.yaml)", paramLabel = "FILE")
+	private Path homeAssistantFile;
+
+	@Option(names = "--index", description = "directory for a persistent search index (re-used on later runs)",
+			paramLabel = "DIR")
+	private Path searchIndexDirectory;
+
+	@Option(names = "--jobs", description = "number of projects converted concurrently (default: ${DEFAULT-VALUE})",
+			paramLabel = "N")
+	private int jobs = Runtime.getRuntime().availableProcessors();
+
+	@Option(names = "--openhab", description = "directory to write openHAB .things and .items files to",
+			paramLabel = "DIR")
+	private Path openHabDirectory;
+
+	@Option(names = "--openhab-bridge", description = "UID of the openHAB KNX bridge (default: ${DEFAULT-VALUE})",
+			paramLabel = "UID", defaultValue = "knx:ip:bridge")
+	private String openHabBridgeUid;
+
+	@Option(names = "--state", description = "file for the learned state (skips learning on later runs if unchanged)",
+			paramLabel = "FILE")
+	private Path stateFile;
+
+	@Option(names = "--characteristics",
+			description = "simple class name of the characteristics to use (default: best fit of all available)",
+			paramLabel = "NAME")
+	private String characteristicsName;
+
+	@Option(names = "--time-budget",
+			description = "maximum duration of the analysis (ISO-8601, eg. PT10S); results may be partial",
+			paramLabel = "DURATION")
+	private Duration timeBudget;
+
+	@Option(names = "--watch",
+			description = "keep running and convert projects again when they change or generated files are deleted")
+	private boolean watch;
+
+	@Option(names = "--timings", description = "print a breakdown of time spent in reading and analyzing the project")
+	private boolean printTimings;
+
+	/** state files are temporary (watch mode without <code>--state</code>) */
+	private boolean deleteStateOnExit;
+
+	/** analyses of watched projects by project file */
+	private final Map<Path, WatchedAnalysis> watchedAnalyses = new ConcurrentHashMap<>();
+
+	/**
+	 * Analyzes an opened project using the characteristics and analysis options
+	 * of this command.
+	 *
+	 * @param knxProjectFile the opened project
+	 * @param projectName    the name of the project if it's part of a batch
+	 *                       (<code>null</code> otherwise)
+	 * @param timer          the timer
+	 * @return the analyzer with the analysis results
+	 * @throws IOException in case of errors closing the characteristics
+	 */
+	KnxProjectAnalyzer analyze(KnxProjectFile knxProjectFile, String projectName, PhaseTimer timer)
+			throws IOException {
+		return analyze(knxProjectFile, projectName, timer, false);
+	}
+
+	/**
+	 * @param keepOpen <code>true</code> to keep the characteristics of the
+	 *                 returned analyzer open (eg., for analyzing incrementally
+	 *                 later)
+	 */
+	private KnxProjectAnalyzer analyze(KnxProjectFile knxProjectFile, String projectName, PhaseTimer timer,
+			boolean keepOpen) throws IOException {
+		List<KnxProjectCharacteristics> characteristics = loadCharacteristics(
+				resolve(searchIndexDirectory, projectName, true));
+		KnxProjectAnalyzer analyzer = null;
+		try {
+			if (characteristics.size() > 1) {
+				analyzer = KnxProjectAnalyzer.analyzeBestFit(knxProjectFile, characteristics,
+						(candidate) -> configure(candidate, projectName, true), timer);
+			} else {
+				analyzer = new KnxProjectAnalyzer(knxProjectFile, characteristics.get(0));
+				configure(analyzer, projectName, false);
+				analyzer.setTimer(timer);
+				analyzer.analyze();
+			}
+			return analyzer;
+		} finally {
+			for (KnxProjectCharacteristics c : characteristics) {
+				if (!keepOpen || (analyzer == null) || (c != analyzer.getCharacteristics())) {
+					close(c);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Analyzes a watched project incrementally if possible.
+	 * <p>
+	 * The GAs are compared with the previous version of the project and only
+	 * added or modified GAs are re-analyzed by the analyzer of the previous
+	 * conversion (which keeps referring to the first version of the project
+	 * file). A full analysis is performed for the first conversion, when GAs
+	 * were removed or when the previous results are partial.
+	 * </p>
+	 */
+	private KnxProjectAnalyzer analyzeWatched(Path project, KnxProjectFile knxProjectFile, String projectName,
+			PhaseTimer timer) throws IOException {
+		// taken before the analysis fills in missing information
+		Map<Integer, String> descriptions = ProjectSnapshot.describe(knxProjectFile.getGroupAddresses());
+
+		// removed while analyzing so that a failure leads to a full analysis next time
+		WatchedAnalysis previous = watchedAnalyses.remove(project);
+		if ((previous != null) && previous.analyzer.getUnresolvedGroupAddresses().isEmpty()
+				&& descriptions.keySet().containsAll(previous.descriptions.keySet())) {
+			List<GroupAddress> changed = knxProjectFile.getGroupAddresses().stream()
+					.filter((ga) -> !descriptions.get(ga.getAddressInt())
+							.equals(previous.descriptions.get(ga.getAddressInt())))
+					.collect(toList());
+			KnxProjectAnalyzer analyzer = previous.analyzer;
+			analyzer.setTimer(timer);
+			if (timeBudget != null) {
+				analyzer.setBudget(AnalysisBudget.ofTime(timeBudget));
+			}
+			analyzer.analyzeIncrementally(changed, List.of());
+			watchedAnalyses.put(project, new WatchedAnalysis(analyzer, descriptions));
+			return analyzer;
+		}
+
+		if (previous != null) {
+			close(previous.analyzer.getCharacteristics());
+		}
+		KnxProjectAnalyzer analyzer = analyze(knxProjectFile, projectName, timer, true);
+		watchedAnalyses.put(project, new WatchedAnalysis(analyzer, descriptions));
+		return analyzer;
+	}
+
+	/**
+	 * @param project the absolute and normalized project file
+	 * @return the analyzer kept for re-analyzing a watched project
+	 *         (<code>null</code> if none)
+	 */
+	KnxProjectAnalyzer getWatchedAnalyzer(Path project) {
+		WatchedAnalysis analysis = watchedAnalyses.get(project);
+		return (analysis != null) ? analysis.analyzer : null;
+	}
 
 	@Override
-	public Void call() throws Exception {
+	public Integer call() throws Exception {
+		if ((knxProjFiles == null) || knxProjFiles.isEmpty()) {
+			throw new ParameterException(spec.commandLine(), "Missing required parameter: 'FILE'");
+		}
+		List<Path> projects = findProjects(knxProjFiles);
+		if (watch && (stateFile == null)) {
+			// keep learned state of unchanged projects between conversions
+			Path stateDirectory = Files.createTempDirectory("knxconvert");
+			stateDirectory.toFile().deleteOnExit();
+			stateFile = stateDirectory.resolve("state.bin");
+			deleteStateOnExit = true;
+		}
+
+		int exitCode;
+		if (projects.size() == 1) {
+			// failures are fatal unless watching
+			ConversionResult result = watch ? convertSafely(projects.get(0), false, System.out)
+					: convert(projects.get(0), false, System.out);
+			if (!result.isSucceeded()) {
+				System.out.println(result);
+			}
+			if (printTimings && (result.getTimings() != null)) {
+				System.out.println();
+				System.out.print(result.getTimings());
+			}
+			exitCode = result.isSucceeded() ? 0 : 1;
+		} else {
+			exitCode = convertAll(projects);
+		}
 
-		KnxProjectFile knxProjectFile = new KnxProjectFile(knxProjFile);
+		if (watch) {
+			watch(projects);
+		}
+		return exitCode;
+	}
+
+	/**
+	 * Applies the state file and budget options to an analyzer.
+	 *
+	 * @param candidate <code>true</code> if the analyzer is one of several
+	 *                  candidates evaluated for the best fit (each gets its own
+	 *                  state file)
+	 */
+	private void configure(KnxProjectAnalyzer analyzer, String projectName, boolean candidate) {
+		Path file = resolve(stateFile, projectName, false);
+		if (candidate) {
+			file = resolve(file, analyzer.getCharacteristics().getClass().getSimpleName(), false);
+		}
+		if ((file != null) && deleteStateOnExit) {
+			file.toFile().deleteOnExit();
+		}
+		analyzer.setStateFile(file);
+		if (timeBudget != null) {
+			analyzer.setBudget(AnalysisBudget.ofTime(timeBudget));
+		}
+	}
+
+	/**
+	 * Reads, analyzes and exports a single project.
+	 *
+	 * @param project the project file
+	 * @param batch   <code>true</code> if the project is converted as part of a
+	 *                batch (output paths are resolved per project)
+	 * @param out     the stream for progress messages
+	 * @return the result
+	 * @throws Exception in case of errors
+	 */
+	private ConversionResult convert(Path project, boolean batch, PrintStream out) throws Exception {
+		long start = System.nanoTime();
+		PhaseTimer timer = printTimings ? new PhaseTimer() : PhaseTimer.EVENTS_ONLY;
+		String projectName = batch ? getProjectName(project) : null;
+
+		KnxProjectFile knxProjectFile = new KnxProjectFile(project.toFile());
+		knxProjectFile.setTimer(timer);
 		knxProjectFile.open();
 
-		KnxProjectCharacteristics characteristics = new GenericGermanyKnxProjectCharacteristics();
+		KnxProjectAnalyzer analyzer = watch ? analyzeWatched(project, knxProjectFile, projectName, timer)
+				: analyze(knxProjectFile, projectName, timer);
+
+		OutputFiles outputFiles = new OutputFiles();
+		if (homeAssistantFile != null) {
+			exportHomeAssistant(analyzer, outputFiles, resolve(homeAssistantFile, projectName, false), out);
+		}
+		if (openHabDirectory != null) {
+			exportOpenHab(analyzer, outputFiles, resolve(openHabDirectory, projectName, true), timer, out);
+		}
+		if ((homeAssistantFile == null) && (openHabDirectory == null)) {
+			analyzer.getLights().forEach(out::println);
+		} else {
+			out.println(outputFiles.getSummary());
+		}
+
+		long durationMillis = (System.nanoTime() - start) / 1_000_000L;
+		return ConversionResult.succeeded(project, analyzer.getLights().size(), outputFiles.getChangedCount(),
+				outputFiles.getUnchangedCount(), durationMillis, printTimings ? timer.getSummary() : null);
+	}
+
+	private int convertAll(List<Path> projects) throws InterruptedException {
+		checkProjectNames(projects);
+
+		long start = System.nanoTime();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(jobs, projects.size())));
+		List<Future<ConversionResult>> futures = new ArrayList<>();
+		try {
+			for (Path project : projects) {
+				futures.add(executor.submit(() -> convertSafely(project, true, QUIET)));
+			}
+
+			List<ConversionResult> results = new ArrayList<>();
+			for (Future<ConversionResult> future : futures) {
+				try {
+					results.add(future.get());
+				} catch (ExecutionException e) {
+					throw new IllegalStateException("Unexpected failure converting projects", e.getCause());
+				}
+			}
+
+			long failed = results.stream().filter((r) -> !r.isSucceeded()).count();
+			System.out.println(format(Locale.ROOT, "Converted %d projects (%d succeeded, %d failed) in %d ms",
+					results.size(), results.size() - failed, failed, (System.nanoTime() - start) / 1_000_000L));
+			results.forEach(System.out::println);
+
+			if (printTimings) {
+				for (ConversionResult result : results) {
+					if (result.getTimings() != null) {
+						System.out.println();
+						System.out.println(result.getProject());
+						System.out.print(result.getTimings());
+					}
+				}
+			}
+			return failed > 0 ? 1 : 0;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Same as {@link #convert(Path, boolean, PrintStream)} but reports failures
+	 * in the result.
+	 */
+	private ConversionResult convertSafely(Path project, boolean batch, PrintStream out) {
+		long start = System.nanoTime();
+		try {
+			return convert(project, batch, out);
+		} catch (Exception e) {
+			LOG.debug("Failed to convert {}", project, e);
+			return ConversionResult.failed(project, e, (System.nanoTime() - start) / 1_000_000L);
+		}
+	}
+
+	private void exportHomeAssistant(KnxProjectAnalyzer analyzer, OutputFiles outputFiles, Path file, PrintStream out)
+			throws IOException {
+		outputFiles.write(file, (writer) -> {
+			try (HomeAssistantKnxExporter exporter = new HomeAssistantKnxExporter(new YamlBuilder(writer, 2))) {
+				exporter.exportLights(analyzer.getLights());
+				out.println("Exported " + exporter.getExportedCount() + " entities to " + file);
+			}
+		});
+	}
+
+	private void exportOpenHab(KnxProjectAnalyzer analyzer, OutputFiles outputFiles, Path directory, PhaseTimer timer,
+			PrintStream out) throws IOException {
+		OpenHabExporter exporter = new OpenHabExporter(directory, outputFiles);
+		exporter.setBridgeUid(openHabBridgeUid);
+		try (Phase phase = timer.start("export openHAB")) {
+			List<Path> files = exporter.exportLights(analyzer.getLights());
+			phase.setCount(files.size(), "files");
+			out.println("Exported " + files.size() + " files to " + directory);
+		}
+	}
+
+	private List<KnxProjectCharacteristics> loadCharacteristics(Path searchIndexDirectory) {
+		List<KnxProjectCharacteristics> characteristics = new ArrayList<>();
+		for (KnxProjectCharacteristics c : ServiceLoader.load(KnxProjectCharacteristics.class)) {
+			if ((characteristicsName == null) || characteristicsName.equals(c.getClass().getSimpleName())) {
+				characteristics.add(c);
+			}
+		}
+		if (characteristics.isEmpty()) {
+			throw new IllegalArgumentException("No characteristics available: " + characteristicsName);
+		}
+
+		for (KnxProjectCharacteristics c : characteristics) {
+			if (c instanceof GenericGermanyKnxProjectCharacteristics) {
+				((GenericGermanyKnxProjectCharacteristics) c).setSearchIndexDirectory(searchIndexDirectory);
+			}
+		}
+		return characteristics;
+	}
 
-		KnxProjectAnalyzer analyzer = new KnxProjectAnalyzer(knxProjectFile, characteristics);
-		analyzer.analyze();
+	/**
+	 * Resolves an output path for a project of a batch.
+	 * <p>
+	 * Directories get a sub-directory per project and files are prefixed with
+	 * the project name.
+	 * </p>
+	 */
+	private Path resolve(Path path, String projectName, boolean directory) {
+		if ((path == null) || (projectName == null)) {
+			return path;
+		}
+		return directory ? path.resolve(projectName) : path.resolveSibling(projectName + "-" + path.getFileName());
+	}
 
-		analyzer.getLights().forEach(System.out::println);
+	/**
+	 * Converts projects again whenever they change or their output is deleted.
+	 * Returns only when interrupted.
+	 */
+	private void watch(List<Path> projects) throws Exception {
+		boolean batch = projects.size() > 1;
+		try (ProjectWatcher watcher = new ProjectWatcher(WATCH_DEBOUNCE)) {
+			for (Path project : projects) {
+				watcher.watchProject(project);
+				String projectName = batch ? getProjectName(project) : null;
+				if (homeAssistantFile != null) {
+					watcher.watchOutput(resolve(homeAssistantFile, projectName, false), false, project);
+				}
+				if (openHabDirectory != null) {
+					watcher.watchOutput(resolve(openHabDirectory, projectName, true), true, project);
+				}
+			}
 
-		return null;
+			System.out.println("Watching " + projects.size() + " projects for changes (press Ctrl+C to stop)");
+			watcher.run((project) -> {
+				ConversionResult result = convertSafely(project, batch, batch ? QUIET : System.out);
+				System.out.println(result);
+				if (printTimings && (result.getTimings() != null)) {
+					System.out.print(result.getTimings());
+				}
+			});
+		}
 	}
 
 }
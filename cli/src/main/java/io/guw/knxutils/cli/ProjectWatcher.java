@@ -0,0 +1,198 @@
+package io.guw.knxutils.cli;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches project files and generated output using a {@link WatchService}.
+ * <p>
+ * A project is reported as changed when its file is created or modified or
+ * when one of its output files is deleted. Events are debounced, i.e. a
+ * project is reported once no further events arrived for it within the
+ * debounce period. This avoids converting a project which is still being
+ * written (eg., by an ETS export).
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+final class ProjectWatcher implements Closeable {
+
+	/**
+	 * Receives changed projects.
+	 */
+	@FunctionalInterface
+	interface Listener {
+
+		/**
+		 * Called in the watching thread when a project changed.
+		 *
+		 * @param project the project file
+		 * @throws Exception in case of errors (will be logged)
+		 */
+		void projectChanged(Path project) throws Exception;
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(ProjectWatcher.class);
+
+	private final WatchService watchService;
+	private final long debounceNanos;
+	private final Set<Path> registeredDirectories = new HashSet<>();
+	private final Set<Path> projects = new HashSet<>();
+	private final Map<Path, Path> projectByOutput = new HashMap<>();
+	private final Map<Path, Long> pendingProjects = new LinkedHashMap<>();
+
+	/**
+	 * Creates a new watcher.
+	 *
+	 * @param debounce the quiet period after the last event of a project before
+	 *                 it is reported
+	 * @throws IOException if the watch service cannot be created
+	 */
+	ProjectWatcher(Duration debounce) throws IOException {
+		watchService = FileSystems.getDefault().newWatchService();
+		debounceNanos = debounce.toNanos();
+	}
+
+	@Override
+	public void close() throws IOException {
+		watchService.close();
+	}
+
+	private void enqueue(Path project, long now) {
+		// re-insert so that projects are reported in order of their last event
+		pendingProjects.remove(project);
+		pendingProjects.put(project, now + debounceNanos);
+	}
+
+	private boolean isHidden(Path file) {
+		return file.getFileName().toString().startsWith(".");
+	}
+
+	private void processEvents(WatchKey key, long now) {
+		Path directory = (Path) key.watchable();
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == OVERFLOW) {
+				LOG.debug("Events lost in {}; treating all projects as changed", directory);
+				for (Path project : projects) {
+					enqueue(project, now);
+				}
+				continue;
+			}
+
+			Path file = directory.resolve((Path) event.context());
+			if (projects.contains(file) && (event.kind() != ENTRY_DELETE)) {
+				enqueue(file, now);
+			} else if (event.kind() == ENTRY_DELETE) {
+				Path project = projectByOutput.get(file);
+				if ((project == null) && !isHidden(file)) {
+					// any file in an output directory except for temporary files
+					project = projectByOutput.get(directory);
+				}
+				if (project != null) {
+					LOG.debug("Output {} of {} deleted", file, project);
+					enqueue(project, now);
+				}
+			}
+		}
+		key.reset();
+	}
+
+	private void register(Path directory) throws IOException {
+		if (registeredDirectories.add(directory)) {
+			Files.createDirectories(directory);
+			directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+		}
+	}
+
+	/**
+	 * Watches until the current thread is interrupted or the watcher is closed.
+	 *
+	 * @param listener the listener to report changed projects to
+	 * @throws InterruptedException if the thread was interrupted
+	 */
+	void run(Listener listener) throws InterruptedException {
+		while (true) {
+			WatchKey key;
+			if (pendingProjects.isEmpty()) {
+				key = watchService.take();
+			} else {
+				long nextDue = pendingProjects.values().stream().mapToLong(Long::longValue).min().getAsLong();
+				key = watchService.poll(Math.max(0, nextDue - System.nanoTime()), TimeUnit.NANOSECONDS);
+			}
+
+			long now = System.nanoTime();
+			while (key != null) {
+				processEvents(key, now);
+				key = watchService.poll();
+			}
+
+			for (Iterator<Entry<Path, Long>> i = pendingProjects.entrySet().iterator(); i.hasNext();) {
+				Entry<Path, Long> pending = i.next();
+				if ((pending.getValue() - now) <= 0) {
+					i.remove();
+					try {
+						listener.projectChanged(pending.getKey());
+					} catch (Exception e) {
+						LOG.warn("Unable to process changed project {}: {}", pending.getKey(), e.getMessage(), e);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Watches a generated output file or directory.
+	 * <p>
+	 * If the output (or any file in the output directory) is deleted, the
+	 * project is reported as changed so that the output is generated again.
+	 * Created and modified files are ignored because they are caused by
+	 * conversions.
+	 * </p>
+	 *
+	 * @param output    the output file or directory
+	 * @param directory <code>true</code> if the output is a directory
+	 * @param project   the project producing the output
+	 * @throws IOException if the output cannot be watched
+	 */
+	void watchOutput(Path output, boolean directory, Path project) throws IOException {
+		Path absoluteOutput = output.toAbsolutePath().normalize();
+		register(directory ? absoluteOutput : absoluteOutput.getParent());
+		projectByOutput.put(absoluteOutput, project.toAbsolutePath().normalize());
+	}
+
+	/**
+	 * Watches a project file.
+	 *
+	 * @param project the project file
+	 * @throws IOException if the project cannot be watched
+	 */
+	void watchProject(Path project) throws IOException {
+		Path absoluteProject = project.toAbsolutePath().normalize();
+		register(absoluteProject.getParent());
+		projects.add(absoluteProject);
+	}
+}
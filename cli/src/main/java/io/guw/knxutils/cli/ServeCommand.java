@@ -0,0 +1,77 @@
+package io.guw.knxutils.cli;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+
+import io.guw.knxutils.knxprojectparser.KnxProjectFile;
+import io.guw.knxutils.knxprojectparser.PhaseTimer;
+import io.guw.knxutils.semanticanalyzer.KnxProjectAnalyzer;
+import io.guw.knxutils.server.ProjectIndex;
+import io.guw.knxutils.server.QueryServer;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+
+/**
+ * Loads projects once and answers queries about them over HTTP on localhost.
+ * <p>
+ * Analysis options (eg., <code>--characteristics</code>) are taken from the
+ * parent command.
+ * </p>
+ */
+@Command(name = "serve", description = "serve queries about projects over HTTP on localhost")
+public class ServeCommand implements Callable<Integer> {
+
+	@ParentCommand
+	private KnxConvertCommand parent;
+
+	@Parameters(arity = "1..*",
+			description = "the .knxproj files or directories containing .knxproj files to serve", paramLabel = "FILE")
+	private List<Path> knxProjFiles;
+
+	@Option(names = "--port", description = "port to listen on (default: ${DEFAULT-VALUE}, 0 for any free port)",
+			paramLabel = "PORT", defaultValue = "8734")
+	private int port;
+
+	@Option(names = "--threads", description = "number of request threads (default: ${DEFAULT-VALUE})",
+			paramLabel = "N")
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	@Override
+	public Integer call() throws Exception {
+		List<Path> projectFiles = KnxConvertCommand.findProjects(knxProjFiles);
+		// projects are addressed by name
+		KnxConvertCommand.checkProjectNames(projectFiles);
+
+		List<ProjectIndex> projects = new ArrayList<>();
+		for (Path project : projectFiles) {
+			KnxProjectFile knxProjectFile = new KnxProjectFile(project.toFile());
+			knxProjectFile.open();
+			String projectName = KnxConvertCommand.getProjectName(project);
+			KnxProjectAnalyzer analyzer = parent.analyze(knxProjectFile, projectName, PhaseTimer.EVENTS_ONLY);
+			projects.add(new ProjectIndex(projectName, knxProjectFile, analyzer.getLights()));
+		}
+
+		QueryServer server = new QueryServer(projects, new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+				threads);
+		CountDownLatch stopped = new CountDownLatch(1);
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			server.close();
+			stopped.countDown();
+		}));
+		server.start();
+
+		InetSocketAddress address = server.getAddress();
+		System.out.println("Serving " + projects.size() + " projects at http://" + address.getHostString() + ":"
+				+ address.getPort() + "/ (press Ctrl+C to stop)");
+		stopped.await();
+		return 0;
+	}
+}
@@ -0,0 +1,435 @@
+package io.guw.knxutils.diff;
+
+import static java.util.stream.Collectors.joining;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import io.guw.knxutils.knxprojectparser.CommunicationObject;
+import io.guw.knxutils.knxprojectparser.Device;
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+import io.guw.knxutils.semanticanalyzer.DimmableLight;
+import io.guw.knxutils.semanticanalyzer.Light;
+
+/**
+ * Structural differences between two versions of a project.
+ * <p>
+ * Entities are matched by their ETS id first. Entities without a match by id
+ * are matched by address (eg., a GA which was deleted and created again at
+ * the same address). Matched entities are compared by a 64-bit FNV-1a hash of
+ * their fields (collisions are negligible for the size of KNX projects); only
+ * if the hashes differ the individual fields are compared to report what was
+ * modified. Thus, comparing large projects is a single pass over both
+ * versions with two hash lookups per entity.
+ * </p>
+ * <p>
+ * Changes are grouped by entity type (in the order of the compare calls) and
+ * ordered by key within a type. This class is not thread-safe.
+ * </p>
+ */
+public class ProjectDiff {
+
+	/**
+	 * A single added, removed or modified entity.
+	 */
+	public static final class Change {
+
+		private final Kind kind;
+		private final String type;
+		private final String key;
+		private final String name;
+		private final List<String> modifiedFields;
+
+		Change(Kind kind, String type, String key, String name, List<String> modifiedFields) {
+			this.kind = kind;
+			this.type = type;
+			this.key = key;
+			this.name = name;
+			this.modifiedFields = modifiedFields;
+		}
+
+		/**
+		 * @return the address of the entity (or its id if it has no address)
+		 */
+		public String getKey() {
+			return key;
+		}
+
+		public Kind getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return the names of the modified fields (empty unless
+		 *         {@link Kind#MODIFIED})
+		 */
+		public List<String> getModifiedFields() {
+			return modifiedFields;
+		}
+
+		/**
+		 * @return the name of the entity (maybe <code>null</code>)
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the entity type (<code>ga</code>, <code>device</code>,
+		 *         <code>co</code> or <code>light</code>)
+		 */
+		public String getType() {
+			return type;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder result = new StringBuilder();
+			result.append(kind.symbol).append(' ').append(type).append(' ').append(key);
+			if (name != null) {
+				result.append(" \"").append(name).append('"');
+			}
+			if (!modifiedFields.isEmpty()) {
+				result.append(" (").append(String.join(", ", modifiedFields)).append(')');
+			}
+			return result.toString();
+		}
+	}
+
+	/**
+	 * The kind of a change.
+	 */
+	public enum Kind {
+		ADDED('+'), REMOVED('-'), MODIFIED('~');
+
+		private final char symbol;
+
+		private Kind(char symbol) {
+			this.symbol = symbol;
+		}
+	}
+
+	/**
+	 * Describes how to identify, name and compare entities of one type.
+	 */
+	private static final class RecordType<T> {
+
+		final String name;
+		final List<String> fieldNames;
+		final Function<T, String> id;
+		final Function<T, String> address;
+		final Function<T, String> displayName;
+		final Function<T, String[]> fields;
+
+		RecordType(String name, List<String> fieldNames, Function<T, String> id, Function<T, String> address,
+				Function<T, String> displayName, Function<T, String[]> fields) {
+			this.name = name;
+			this.fieldNames = fieldNames;
+			this.id = id;
+			this.address = address;
+			this.displayName = displayName;
+			this.fields = fields;
+		}
+
+		String key(T entity) {
+			String result = address.apply(entity);
+			return (result != null) ? result : id.apply(entity);
+		}
+	}
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private static final RecordType<GroupAddress> GROUP_ADDRESS = new RecordType<>("ga",
+			List.of("address", "name", "description", "datapointType", "range"), GroupAddress::getId,
+			GroupAddress::getAddress, GroupAddress::getName,
+			(ga) -> new String[] { ga.getAddress(), ga.getName(), ga.getDescription(), ga.getDatapointType(),
+					(ga.getGroupAddressRange() != null) ? ga.getGroupAddressRange().getName() : null });
+
+	private static final RecordType<Device> DEVICE = new RecordType<>("device",
+			List.of("address", "name", "description"), Device::getId, Device::getAddress, Device::getName,
+			(device) -> new String[] { device.getAddress(), device.getName(), device.getDescription() });
+
+	private static final RecordType<CommunicationObject> COMMUNICATION_OBJECT = new RecordType<>("co",
+			List.of("datapointType", "description", "readFlag", "send", "listen"),
+			(co) -> co.getDevice().getId() + ' ' + co.getRefId(),
+			(co) -> (co.getDevice().getAddress() != null) ? co.getDevice().getAddress() + ' ' + co.getRefId() : null,
+			CommunicationObject::getDescription,
+			(co) -> new String[] { co.getDatapointType(), co.getDescription(), String.valueOf(co.isReadFlag()),
+					address(co.getSendGroupAddress()),
+					co.getListenGroupAddresses().stream().map(ProjectDiff::address).collect(joining(",")) });
+
+	private static final RecordType<Light> LIGHT = new RecordType<>("light",
+			List.of("type", "name", "status", "brightness", "brightnessStatus", "dim"),
+			(light) -> address(light.getPrimarySwitchGroupAddress()), (light) -> null, Light::getName,
+			ProjectDiff::lightFields);
+
+	private static String address(GroupAddress ga) {
+		return (ga != null) ? ga.getAddress() : null;
+	}
+
+	private static List<CommunicationObject> communicationObjects(Collection<Device> devices) {
+		List<CommunicationObject> result = new ArrayList<>();
+		for (Device device : devices) {
+			result.addAll(device.getCommunicationObjects());
+		}
+		return result;
+	}
+
+	/**
+	 * Compares two versions of a project including the lights found by the
+	 * analyzer.
+	 *
+	 * @param oldGroupAddresses the GAs of the old version
+	 * @param oldDevices        the devices of the old version
+	 * @param oldLights         the lights of the old version
+	 * @param newGroupAddresses the GAs of the new version
+	 * @param newDevices        the devices of the new version
+	 * @param newLights         the lights of the new version
+	 * @return the differences
+	 */
+	public static ProjectDiff compare(Collection<GroupAddress> oldGroupAddresses, Collection<Device> oldDevices,
+			Collection<? extends Light> oldLights, Collection<GroupAddress> newGroupAddresses,
+			Collection<Device> newDevices, Collection<? extends Light> newLights) {
+		ProjectDiff diff = new ProjectDiff();
+		diff.compareGroupAddresses(oldGroupAddresses, newGroupAddresses);
+		diff.compareDevices(oldDevices, newDevices);
+		diff.compareCommunicationObjects(oldDevices, newDevices);
+		diff.compareLights(oldLights, newLights);
+		return diff;
+	}
+
+	/**
+	 * Compares keys such that numeric parts are ordered by value (eg.,
+	 * <code>1/0/2</code> before <code>1/0/10</code>).
+	 */
+	static int compareKeys(String a, String b) {
+		int i = 0;
+		int j = 0;
+		while ((i < a.length()) && (j < b.length())) {
+			char ca = a.charAt(i);
+			char cb = b.charAt(j);
+			if (Character.isDigit(ca) && Character.isDigit(cb)) {
+				int endA = i;
+				while ((endA < a.length()) && Character.isDigit(a.charAt(endA))) {
+					endA++;
+				}
+				int endB = j;
+				while ((endB < b.length()) && Character.isDigit(b.charAt(endB))) {
+					endB++;
+				}
+				// compare by number of digits first, then digit by digit (no overflow)
+				int result = Integer.compare(endA - i, endB - j);
+				for (int k = 0; (result == 0) && (k < endA - i); k++) {
+					result = Character.compare(a.charAt(i + k), b.charAt(j + k));
+				}
+				if (result != 0) {
+					return result;
+				}
+				i = endA;
+				j = endB;
+			} else {
+				if (ca != cb) {
+					return Character.compare(ca, cb);
+				}
+				i++;
+				j++;
+			}
+		}
+		return Integer.compare(a.length() - i, b.length() - j);
+	}
+
+	private static long hash(String[] fields) {
+		long hash = FNV_OFFSET_BASIS;
+		for (String field : fields) {
+			if (field == null) {
+				hash = (hash ^ 0xff) * FNV_PRIME;
+			} else {
+				for (int i = 0; i < field.length(); i++) {
+					char c = field.charAt(i);
+					hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+					hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+				}
+			}
+			// separator so that ("ab", "c") and ("a", "bc") differ
+			hash = (hash ^ 0xfe) * FNV_PRIME;
+		}
+		return hash;
+	}
+
+	private static String[] lightFields(Light light) {
+		String type = light.getClass().getSimpleName();
+		String status = address(light.getStatusGroupAddress());
+		if (light instanceof DimmableLight) {
+			DimmableLight dimmableLight = (DimmableLight) light;
+			return new String[] { type, light.getName(), status, address(dimmableLight.getBrightnessGa()),
+					address(dimmableLight.getBrightnessStatusGa()), address(dimmableLight.getDimGa()) };
+		}
+		return new String[] { type, light.getName(), status, null, null, null };
+	}
+
+	private final List<Change> changes = new ArrayList<>();
+	private final Map<String, int[]> countsByType = new LinkedHashMap<>();
+
+	private <T> void compare(RecordType<T> type, Collection<? extends T> oldEntities,
+			Collection<? extends T> newEntities) {
+		Map<String, T> newById = new HashMap<>();
+		Map<String, T> newByAddress = new HashMap<>();
+		for (T entity : newEntities) {
+			newById.put(type.id.apply(entity), entity);
+			String address = type.address.apply(entity);
+			if (address != null) {
+				newByAddress.putIfAbsent(address, entity);
+			}
+		}
+		Set<String> oldIds = new HashSet<>();
+		for (T entity : oldEntities) {
+			oldIds.add(type.id.apply(entity));
+		}
+
+		List<Change> typeChanges = new ArrayList<>();
+		int[] counts = countsByType.computeIfAbsent(type.name, (k) -> new int[Kind.values().length]);
+		Set<T> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (T oldEntity : oldEntities) {
+			T newEntity = newById.get(type.id.apply(oldEntity));
+			if (newEntity == null) {
+				// fall back to the address for entities whose id only exists in the new version
+				String address = type.address.apply(oldEntity);
+				T candidate = (address != null) ? newByAddress.get(address) : null;
+				if ((candidate != null) && !oldIds.contains(type.id.apply(candidate)) && !matched.contains(candidate)) {
+					newEntity = candidate;
+				}
+			}
+
+			if (newEntity == null) {
+				typeChanges.add(newChange(Kind.REMOVED, type, oldEntity, List.of()));
+				continue;
+			}
+			matched.add(newEntity);
+
+			String[] oldFields = type.fields.apply(oldEntity);
+			String[] newFields = type.fields.apply(newEntity);
+			if (hash(oldFields) != hash(newFields)) {
+				List<String> modifiedFields = new ArrayList<>();
+				for (int i = 0; i < oldFields.length; i++) {
+					if (!Objects.equals(oldFields[i], newFields[i])) {
+						modifiedFields.add(type.fieldNames.get(i));
+					}
+				}
+				typeChanges.add(newChange(Kind.MODIFIED, type, newEntity, modifiedFields));
+			}
+		}
+		for (T newEntity : newEntities) {
+			if (!matched.contains(newEntity)) {
+				typeChanges.add(newChange(Kind.ADDED, type, newEntity, List.of()));
+			}
+		}
+
+		typeChanges.sort(Comparator.comparing(Change::getKey, ProjectDiff::compareKeys));
+		for (Change change : typeChanges) {
+			counts[change.getKind().ordinal()]++;
+		}
+		changes.addAll(typeChanges);
+	}
+
+	/**
+	 * Compares the communication objects of all devices.
+	 *
+	 * @param oldDevices the devices of the old version
+	 * @param newDevices the devices of the new version
+	 */
+	public void compareCommunicationObjects(Collection<Device> oldDevices, Collection<Device> newDevices) {
+		compare(COMMUNICATION_OBJECT, communicationObjects(oldDevices), communicationObjects(newDevices));
+	}
+
+	/**
+	 * Compares devices.
+	 *
+	 * @param oldDevices the devices of the old version
+	 * @param newDevices the devices of the new version
+	 */
+	public void compareDevices(Collection<Device> oldDevices, Collection<Device> newDevices) {
+		compare(DEVICE, oldDevices, newDevices);
+	}
+
+	/**
+	 * Compares GAs.
+	 *
+	 * @param oldGroupAddresses the GAs of the old version
+	 * @param newGroupAddresses the GAs of the new version
+	 */
+	public void compareGroupAddresses(Collection<GroupAddress> oldGroupAddresses,
+			Collection<GroupAddress> newGroupAddresses) {
+		compare(GROUP_ADDRESS, oldGroupAddresses, newGroupAddresses);
+	}
+
+	/**
+	 * Compares lights by their primary switch GA.
+	 *
+	 * @param oldLights the lights of the old version
+	 * @param newLights the lights of the new version
+	 */
+	public void compareLights(Collection<? extends Light> oldLights, Collection<? extends Light> newLights) {
+		compare(LIGHT, oldLights, newLights);
+	}
+
+	/**
+	 * @return all changes grouped by type
+	 */
+	public List<Change> getChanges() {
+		return Collections.unmodifiableList(changes);
+	}
+
+	/**
+	 * @return the number of changes per type (eg.,
+	 *         <code>ga: 1 added, 0 removed, 2 modified</code>), one line per type
+	 */
+	public String getSummary() {
+		StringBuilder summary = new StringBuilder();
+		for (Map.Entry<String, int[]> entry : countsByType.entrySet()) {
+			int[] counts = entry.getValue();
+			summary.append(entry.getKey()).append(": ").append(counts[Kind.ADDED.ordinal()]).append(" added, ")
+					.append(counts[Kind.REMOVED.ordinal()]).append(" removed, ")
+					.append(counts[Kind.MODIFIED.ordinal()]).append(" modified\n");
+		}
+		return summary.toString();
+	}
+
+	/**
+	 * @return <code>true</code> if no differences were found
+	 */
+	public boolean isEmpty() {
+		return changes.isEmpty();
+	}
+
+	private <T> Change newChange(Kind kind, RecordType<T> type, T entity, List<String> modifiedFields) {
+		return new Change(kind, type.name, type.key(entity), type.displayName.apply(entity), modifiedFields);
+	}
+
+	/**
+	 * Prints all changes (one per line) followed by the summary.
+	 *
+	 * @param out the stream to print to
+	 */
+	public void print(PrintStream out) {
+		for (Change change : changes) {
+			out.println(change);
+		}
+		if (!changes.isEmpty()) {
+			out.println();
+		}
+		out.print(getSummary());
+	}
+}
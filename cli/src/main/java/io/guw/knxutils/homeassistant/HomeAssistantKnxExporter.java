@@ -0,0 +1,112 @@
+package io.guw.knxutils.homeassistant;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+import io.guw.knxutils.semanticanalyzer.DimmableLight;
+import io.guw.knxutils.semanticanalyzer.Light;
+
+/**
+ * Exports analyzed entities as configuration of the Home Assistant KNX
+ * integration.
+ * <p>
+ * The output is a YAML document with one list per platform (eg.,
+ * <code>light</code>) which is meant to be included into the <code>knx</code>
+ * section of the Home Assistant configuration (eg.,
+ * <code>knx: !include knx.yaml</code>). Entities are streamed to the
+ * {@link YamlBuilder} one by one as they are exported. Thus, exporting
+ * thousands of entities is a single pass without an intermediate document
+ * tree.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class HomeAssistantKnxExporter implements Closeable {
+
+	private final YamlBuilder yaml;
+	private boolean lightsStarted;
+	private int exportedCount;
+
+	/**
+	 * Creates a new exporter.
+	 *
+	 * @param yaml the builder to write to (will be closed when the exporter is
+	 *             closed)
+	 */
+	public HomeAssistantKnxExporter(YamlBuilder yaml) {
+		this.yaml = yaml;
+	}
+
+	private void appendAddress(String key, GroupAddress ga) throws IOException {
+		if (ga != null) {
+			yaml.append(key).append(": ").appendQuoted(ga.getAddress()).append('\n');
+		}
+	}
+
+	/**
+	 * Finishes the document and closes the underlying builder.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (!lightsStarted) {
+				yaml.append("light: []\n");
+			}
+		} finally {
+			yaml.close();
+		}
+	}
+
+	/**
+	 * Writes a light.
+	 * <p>
+	 * The primary switch GA is mapped to <code>address</code> and the status GA
+	 * to <code>state_address</code>. For a {@link DimmableLight} the brightness
+	 * and brightness status GAs are mapped to <code>brightness_address</code>
+	 * and <code>brightness_state_address</code>. The relative dim GA is not
+	 * supported by Home Assistant and therefore not exported.
+	 * </p>
+	 *
+	 * @param light the light
+	 * @throws IOException in case of errors writing the output
+	 */
+	public void exportLight(Light light) throws IOException {
+		if (!lightsStarted) {
+			yaml.append("light:\n").indent();
+			lightsStarted = true;
+		}
+
+		String name = (light.getName() != null) ? light.getName() : light.getPrimarySwitchGroupAddress().getAddress();
+		yaml.append("- name: ").appendQuoted(name).append('\n').indent();
+		appendAddress("address", light.getPrimarySwitchGroupAddress());
+		appendAddress("state_address", light.getStatusGroupAddress());
+		if (light instanceof DimmableLight) {
+			DimmableLight dimmableLight = (DimmableLight) light;
+			appendAddress("brightness_address", dimmableLight.getBrightnessGa());
+			appendAddress("brightness_state_address", dimmableLight.getBrightnessStatusGa());
+		}
+		yaml.outdent();
+		exportedCount++;
+	}
+
+	/**
+	 * Writes all lights.
+	 *
+	 * @param lights the lights
+	 * @throws IOException in case of errors writing the output
+	 */
+	public void exportLights(Iterable<? extends Light> lights) throws IOException {
+		for (Light light : lights) {
+			exportLight(light);
+		}
+	}
+
+	/**
+	 * @return the number of exported entities
+	 */
+	public int getExportedCount() {
+		return exportedCount;
+	}
+}
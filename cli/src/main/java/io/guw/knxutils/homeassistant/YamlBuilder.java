@@ -1,60 +1,272 @@
 package io.guw.knxutils.homeassistant;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.Closeable;
+import java.io.Flushable;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 
 /**
- * A {@link StringBuilder} for creating YAML output
+ * An {@link Appendable} for streaming YAML output to a {@link Writer}.
+ * <p>
+ * Every line is indented by the current {@link #indent() indent level}. Line
+ * breaks are normalized to the platform line separator. Runs of characters
+ * between line breaks are copied in bulk into a bounded buffer which is
+ * written to the underlying writer when full, on {@link #flush()} and on
+ * {@link #close()}. Thus, the output never has to be kept in memory entirely.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
  */
-public class YamlBuilder implements Appendable {
+public class YamlBuilder implements Appendable, Flushable, Closeable {
+
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
 
-	private final StringBuilder stringBuilder = new StringBuilder();
+	private final Writer writer;
+	private final char[] buffer;
+	private int position;
 
 	private final int indentSize;
-	private final int indentLevel = 0;
-	private boolean mustIndent;
+	private int indentLevel;
+	private boolean mustIndent = true;
+	private String[] indents = new String[8];
+	private final String lineSeparator = System.lineSeparator();
+
+	/**
+	 * Creates a builder writing UTF-8 encoded output to a channel (eg., a
+	 * {@link java.nio.channels.FileChannel}).
+	 *
+	 * @param channel    the channel (will be closed when the builder is closed)
+	 * @param indentSize the number of spaces per indent level
+	 */
+	public YamlBuilder(WritableByteChannel channel, int indentSize) {
+		this(Channels.newWriter(channel, UTF_8), indentSize);
+	}
 
-	public YamlBuilder(int indentSize) {
+	/**
+	 * Creates a builder.
+	 *
+	 * @param writer     the writer (will be closed when the builder is closed)
+	 * @param indentSize the number of spaces per indent level
+	 */
+	public YamlBuilder(Writer writer, int indentSize) {
+		this(writer, indentSize, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a builder.
+	 *
+	 * @param writer     the writer (will be closed when the builder is closed)
+	 * @param indentSize the number of spaces per indent level
+	 * @param bufferSize the size of the buffer in characters
+	 */
+	public YamlBuilder(Writer writer, int indentSize, int bufferSize) {
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("bufferSize must be positive");
+		}
+		this.writer = writer;
 		this.indentSize = indentSize;
-		mustIndent = true;
+		buffer = new char[bufferSize];
 	}
 
 	@Override
 	public YamlBuilder append(char c) throws IOException {
-		append((int) c);
+		switch (c) {
+		case '\n':
+			appendRaw(lineSeparator, 0, lineSeparator.length());
+			mustIndent = true;
+			break;
+
+		case '\r':
+			// filter out
+			break;
+
+		default:
+			if (mustIndent) {
+				appendIndent();
+			}
+			if (position == buffer.length) {
+				flushBuffer();
+			}
+			buffer[position++] = c;
+			break;
+		}
 		return this;
 	}
 
 	@Override
 	public YamlBuilder append(CharSequence csq) throws IOException {
-		csq.chars().forEachOrdered(this::append);
-		return this;
+		if (csq == null) {
+			csq = "null";
+		}
+		return append(csq, 0, csq.length());
 	}
 
 	@Override
 	public YamlBuilder append(CharSequence csq, int start, int end) throws IOException {
-		csq.subSequence(start, end).chars().forEachOrdered(this::append);
+		if (csq == null) {
+			csq = "null";
+		}
+		int runStart = start;
+		for (int i = start; i < end; i++) {
+			char c = csq.charAt(i);
+			if ((c == '\n') || (c == '\r')) {
+				appendRun(csq, runStart, i);
+				append(c);
+				runStart = i + 1;
+			}
+		}
+		appendRun(csq, runStart, end);
 		return this;
 	}
 
-	private void append(int codePoint) {
+	private void appendIndent() throws IOException {
+		mustIndent = false;
+		if (indentLevel == 0) {
+			return;
+		}
+		if (indentLevel >= indents.length) {
+			indents = Arrays.copyOf(indents, Math.max(indentLevel + 1, indents.length * 2));
+		}
+		String indent = indents[indentLevel];
+		if (indent == null) {
+			indent = indents[indentLevel] = " ".repeat(indentLevel * indentSize);
+		}
+		appendRaw(indent, 0, indent.length());
+	}
+
+	/**
+	 * Appends a double-quoted scalar.
+	 * <p>
+	 * Backslashes, double quotes and control characters are escaped. Thus, the
+	 * scalar never spans multiple lines.
+	 * </p>
+	 *
+	 * @param value the value (<code>null</code> is written as <code>null</code>
+	 *              literal)
+	 * @return this builder
+	 * @throws IOException in case of errors writing to the underlying writer
+	 */
+	public YamlBuilder appendQuoted(CharSequence value) throws IOException {
+		if (value == null) {
+			return append("null");
+		}
+		append('"');
+		int runStart = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			String escaped;
+			switch (c) {
+			case '"':
+				escaped = "\\\"";
+				break;
+			case '\\':
+				escaped = "\\\\";
+				break;
+			case '\n':
+				escaped = "\\n";
+				break;
+			case '\r':
+				escaped = "\\r";
+				break;
+			case '\t':
+				escaped = "\\t";
+				break;
+			default:
+				escaped = Character.isISOControl(c) ? String.format("\\u%04x", (int) c) : null;
+				break;
+			}
+			if (escaped != null) {
+				appendRun(value, runStart, i);
+				appendRun(escaped, 0, escaped.length());
+				runStart = i + 1;
+			}
+		}
+		appendRun(value, runStart, value.length());
+		return append('"');
+	}
+
+	private void appendRaw(CharSequence csq, int start, int end) throws IOException {
+		while (start < end) {
+			if (position == buffer.length) {
+				flushBuffer();
+			}
+			int length = Math.min(end - start, buffer.length - position);
+			if (csq instanceof String) {
+				((String) csq).getChars(start, start + length, buffer, position);
+			} else {
+				for (int i = 0; i < length; i++) {
+					buffer[position + i] = csq.charAt(start + i);
+				}
+			}
+			position += length;
+			start += length;
+		}
+	}
+
+	private void appendRun(CharSequence csq, int start, int end) throws IOException {
+		if (start == end) {
+			return;
+		}
 		if (mustIndent) {
-			stringBuilder.append(" ".repeat(indentLevel * indentSize));
-			mustIndent = false;
+			appendIndent();
 		}
+		appendRaw(csq, start, end);
+	}
 
-		switch (codePoint) {
-		case '\n':
-			stringBuilder.append(System.lineSeparator());
-			mustIndent = true;
-			break;
+	/**
+	 * Flushes and closes the underlying writer.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flushBuffer();
+		} finally {
+			writer.close();
+		}
+	}
 
-		case '\r':
-			// filter out
-			break;
+	/**
+	 * Writes buffered output and flushes the underlying writer.
+	 */
+	@Override
+	public void flush() throws IOException {
+		flushBuffer();
+		writer.flush();
+	}
 
-		default:
-			stringBuilder.appendCodePoint(codePoint);
-			break;
+	private void flushBuffer() throws IOException {
+		if (position > 0) {
+			writer.write(buffer, 0, position);
+			position = 0;
 		}
 	}
+
+	/**
+	 * Increases the indent level for all following lines.
+	 *
+	 * @return this builder
+	 */
+	public YamlBuilder indent() {
+		indentLevel++;
+		return this;
+	}
+
+	/**
+	 * Decreases the indent level for all following lines.
+	 *
+	 * @return this builder
+	 */
+	public YamlBuilder outdent() {
+		if (indentLevel == 0) {
+			throw new IllegalStateException("Indent level is already 0");
+		}
+		indentLevel--;
+		return this;
+	}
 }
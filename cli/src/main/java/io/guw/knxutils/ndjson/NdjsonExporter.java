@@ -0,0 +1,197 @@
+package io.guw.knxutils.ndjson;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+
+import io.guw.knxutils.knxprojectparser.Area;
+import io.guw.knxutils.knxprojectparser.CommunicationObject;
+import io.guw.knxutils.knxprojectparser.Device;
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+import io.guw.knxutils.knxprojectparser.GroupAddressRange;
+import io.guw.knxutils.knxprojectparser.KnxProjectFile;
+import io.guw.knxutils.knxprojectparser.Line;
+import io.guw.knxutils.output.JsonWriter;
+
+/**
+ * Exports the parsed model of a project as newline-delimited JSON.
+ * <p>
+ * Every line is one JSON object with a <code>type</code> member. Records are
+ * written in an order which allows consumers to resolve references in a
+ * single pass: the <code>project</code> first, then the topology
+ * (<code>area</code>, <code>line</code>, <code>device</code>,
+ * <code>co</code>), the GA tree (<code>range</code>, <code>ga</code>) and
+ * finally the <code>link</code> edges between communication objects and GAs.
+ * References use the ids of the <code>.knxproj</code> file.
+ * </p>
+ * <p>
+ * Records are streamed to the {@link JsonWriter} as they are produced. No
+ * intermediate document is built; thus, the memory needed for an export does
+ * not depend on the size of the output.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class NdjsonExporter implements Closeable {
+
+	private static final Comparator<GroupAddress> GA_ORDER = Comparator.comparingInt(GroupAddress::getAddressInt)
+			.thenComparing(GroupAddress::getId);
+
+	private final JsonWriter json;
+	private long recordCount;
+
+	/**
+	 * Creates a new exporter.
+	 *
+	 * @param json the writer to write to (will be closed when the exporter is
+	 *             closed)
+	 */
+	public NdjsonExporter(JsonWriter json) {
+		this.json = json;
+	}
+
+	private JsonWriter beginRecord(String type) throws IOException {
+		return json.beginObject().name("type").value(type);
+	}
+
+	@Override
+	public void close() throws IOException {
+		json.close();
+	}
+
+	private void endRecord() throws IOException {
+		json.endObject().newLine();
+		recordCount++;
+	}
+
+	/**
+	 * Writes all records of a project.
+	 *
+	 * @param knxProjectFile the opened project
+	 * @throws IOException in case of errors writing the output
+	 */
+	public void export(KnxProjectFile knxProjectFile) throws IOException {
+		beginRecord("project");
+		json.name("id").value(knxProjectFile.getProjectId());
+		json.name("name").value(knxProjectFile.getProjectName());
+		endRecord();
+
+		List<Area> areas = knxProjectFile.getAreas();
+		for (Area area : areas) {
+			writeArea(area);
+		}
+
+		for (GroupAddressRange range : knxProjectFile.getGroupAddressRanges()) {
+			writeRange(range);
+		}
+
+		List<GroupAddress> groupAddresses = knxProjectFile.getGroupAddresses();
+		groupAddresses.sort(GA_ORDER);
+		for (GroupAddress ga : groupAddresses) {
+			writeGroupAddress(ga);
+		}
+
+		for (Area area : areas) {
+			for (Line line : area.getLines()) {
+				for (Device device : line.getDevices()) {
+					for (CommunicationObject co : device.getCommunicationObjects()) {
+						writeLinks(co);
+					}
+				}
+			}
+		}
+		json.flush();
+	}
+
+	/**
+	 * @return the number of records written so far
+	 */
+	public long getRecordCount() {
+		return recordCount;
+	}
+
+	private void writeArea(Area area) throws IOException {
+		beginRecord("area");
+		json.name("id").value(area.getId());
+		json.name("address").value(area.getAddress());
+		json.name("name").value(area.getName());
+		json.name("description").value(area.getDescription());
+		endRecord();
+
+		for (Line line : area.getLines()) {
+			beginRecord("line");
+			json.name("id").value(line.getId());
+			json.name("area").value(area.getId());
+			json.name("address").value(line.getAddress());
+			json.name("name").value(line.getName());
+			json.name("description").value(line.getDescription());
+			endRecord();
+
+			for (Device device : line.getDevices()) {
+				writeDevice(device);
+			}
+		}
+	}
+
+	private void writeDevice(Device device) throws IOException {
+		beginRecord("device");
+		json.name("id").value(device.getId());
+		json.name("line").value(device.getLine().getId());
+		json.name("address").value(device.getAddress());
+		json.name("name").value(device.getName());
+		json.name("description").value(device.getDescription());
+		endRecord();
+
+		for (CommunicationObject co : device.getCommunicationObjects()) {
+			beginRecord("co");
+			json.name("device").value(device.getId());
+			json.name("refId").value(co.getRefId());
+			json.name("datapointType").value(co.getDatapointType());
+			json.name("description").value(co.getDescription());
+			json.name("readFlag").value(co.isReadFlag());
+			endRecord();
+		}
+	}
+
+	private void writeGroupAddress(GroupAddress ga) throws IOException {
+		beginRecord("ga");
+		json.name("id").value(ga.getId());
+		json.name("range").value((ga.getGroupAddressRange() != null) ? ga.getGroupAddressRange().getId() : null);
+		json.name("address").value(ga.getAddress());
+		json.name("name").value(ga.getName());
+		json.name("description").value(ga.getDescription());
+		json.name("datapointType").value(ga.getDatapointType());
+		endRecord();
+	}
+
+	private void writeLink(CommunicationObject co, GroupAddress ga, String direction) throws IOException {
+		beginRecord("link");
+		json.name("device").value(co.getDevice().getId());
+		json.name("refId").value(co.getRefId());
+		json.name("ga").value(ga.getId());
+		json.name("direction").value(direction);
+		endRecord();
+	}
+
+	private void writeLinks(CommunicationObject co) throws IOException {
+		if (co.getSendGroupAddress() != null) {
+			writeLink(co, co.getSendGroupAddress(), "send");
+		}
+		for (GroupAddress ga : co.getListenGroupAddresses()) {
+			writeLink(co, ga, "listen");
+		}
+	}
+
+	private void writeRange(GroupAddressRange range) throws IOException {
+		beginRecord("range");
+		json.name("id").value(range.getId());
+		json.name("parent").value((range.getParent() != null) ? range.getParent().getId() : null);
+		json.name("start").value(range.getStart());
+		json.name("end").value(range.getEnd());
+		json.name("name").value(range.getName());
+		json.name("description").value(range.getDescription());
+		endRecord();
+	}
+}
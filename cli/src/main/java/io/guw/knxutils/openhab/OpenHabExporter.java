@@ -0,0 +1,252 @@
+package io.guw.knxutils.openhab;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+import io.guw.knxutils.knxprojectparser.GroupAddressRange;
+import io.guw.knxutils.output.OutputFiles;
+import io.guw.knxutils.semanticanalyzer.DimmableLight;
+import io.guw.knxutils.semanticanalyzer.Light;
+
+/**
+ * Exports analyzed entities as <code>.things</code> and <code>.items</code>
+ * files for the openHAB KNX binding.
+ * <p>
+ * The output is split by GA main group. For every main group one thing
+ * (<code>knx:device</code>) with a channel per entity is written to a
+ * <code>.things</code> file and one item per channel to an <code>.items</code>
+ * file. The files of all main groups are rendered in parallel using templates
+ * which are compiled once. Files are written through {@link OutputFiles}, i.e.
+ * files with unchanged content are not touched.
+ * </p>
+ * <p>
+ * The bridge (eg., <code>knx:ip:bridge</code>) is not generated because its
+ * configuration (gateway address, etc.) is not part of the project.
+ * </p>
+ */
+public class OpenHabExporter {
+
+	/**
+	 * The entities of one GA main group.
+	 */
+	private static final class MainGroup {
+
+		final int mainGroup;
+		final String label;
+		final List<Light> lights = new ArrayList<>();
+
+		MainGroup(int mainGroup, String label) {
+			this.mainGroup = mainGroup;
+			this.label = label;
+		}
+
+		String getThingId() {
+			String slug = toSlug(label);
+			return slug.isEmpty() ? "mg" + mainGroup : "mg" + mainGroup + "_" + slug;
+		}
+	}
+
+	private static final Template THING_HEADER = Template.compile(
+			"Thing knx:device:${bridgeId}:${thingId} \"${label}\" (${bridgeUid}) {\n\tChannels:\n", "bridgeUid",
+			"bridgeId", "thingId", "label");
+	private static final Template CHANNEL = Template.compile(
+			"\t\tType ${channelType} : ${channelId} \"${label}\" [ ${parameters} ]\n", "channelType", "channelId",
+			"label", "parameters");
+	private static final Template THING_FOOTER = Template.compile("}\n");
+	private static final Template ITEM = Template.compile(
+			"${itemType} ${itemName} \"${label}\" { channel=\"knx:device:${bridgeId}:${thingId}:${channelId}\" }\n",
+			"itemType", "itemName", "label", "bridgeId", "thingId", "channelId");
+
+	static String escape(String label) {
+		return label.replace("\\", "\\\\").replace("\"", "\\\"").replace('\n', ' ').replace('\r', ' ');
+	}
+
+	private static String getAddressId(GroupAddress ga) {
+		return ga.getAddress().replace('/', '_');
+	}
+
+	private static String getChannelId(Light light) {
+		return "light_" + getAddressId(light.getPrimarySwitchGroupAddress());
+	}
+
+	private static String getGa(String dpt, GroupAddress ga, GroupAddress statusGa) {
+		StringBuilder result = new StringBuilder();
+		if (dpt != null) {
+			result.append(dpt).append(':');
+		}
+		result.append(ga.getAddress());
+		if ((statusGa != null) && (statusGa != ga)) {
+			result.append("+<").append(statusGa.getAddress());
+		}
+		return result.toString();
+	}
+
+	private static String getLabel(Light light) {
+		return escape((light.getName() != null) ? light.getName() : light.getPrimarySwitchGroupAddress().getAddress());
+	}
+
+	private static MainGroup getMainGroup(GroupAddress ga) {
+		GroupAddressRange range = ga.getGroupAddressRange();
+		while ((range != null) && (range.getParent() != null)) {
+			range = range.getParent();
+		}
+		int mainGroup = GroupAddress.getAddressPart1(ga.getAddressInt());
+		String label = ((range != null) && (range.getName() != null)) ? range.getName() : "Main Group " + mainGroup;
+		return new MainGroup(mainGroup, label);
+	}
+
+	private static boolean isGenerated(Path file) {
+		String fileName = file.getFileName().toString();
+		return fileName.startsWith("mg") && (fileName.endsWith(".things") || fileName.endsWith(".items"))
+				&& Files.isRegularFile(file);
+	}
+
+	private static void renderChannel(Appendable things, Light light) throws IOException {
+		String switchGa = getGa(null, light.getPrimarySwitchGroupAddress(), light.getStatusGroupAddress());
+		if (!(light instanceof DimmableLight)) {
+			CHANNEL.render(things, "switch", getChannelId(light), getLabel(light), "ga=\"" + switchGa + "\"");
+			return;
+		}
+
+		DimmableLight dimmableLight = (DimmableLight) light;
+		List<String> parameters = new ArrayList<>();
+		parameters.add("switch=\"" + switchGa + "\"");
+		if (dimmableLight.getBrightnessGa() != null) {
+			parameters.add("position=\""
+					+ getGa("5.001", dimmableLight.getBrightnessGa(), dimmableLight.getBrightnessStatusGa()) + "\"");
+		}
+		if (dimmableLight.getDimGa() != null) {
+			parameters.add("increaseDecrease=\"" + getGa("3.007", dimmableLight.getDimGa(), null) + "\"");
+		}
+		CHANNEL.render(things, "dimmer", getChannelId(light), getLabel(light), String.join(", ", parameters));
+	}
+
+	static String toSlug(String text) {
+		String slug = text.toLowerCase(Locale.ROOT).replace("ä", "ae").replace("ö", "oe").replace("ü", "ue")
+				.replace("ß", "ss");
+		slug = Normalizer.normalize(slug, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+		return slug.replaceAll("[^a-z0-9]+", "_").replaceAll("^_|_$", "");
+	}
+
+	private final Path outputDirectory;
+	private final OutputFiles outputFiles;
+	private String bridgeUid = "knx:ip:bridge";
+
+	/**
+	 * Creates a new exporter.
+	 *
+	 * @param outputDirectory the directory to write the files to (will be
+	 *                        created if necessary)
+	 */
+	public OpenHabExporter(Path outputDirectory) {
+		this(outputDirectory, new OutputFiles());
+	}
+
+	/**
+	 * Creates a new exporter.
+	 *
+	 * @param outputDirectory the directory to write the files to (will be
+	 *                        created if necessary)
+	 * @param outputFiles     for writing files and counting changes
+	 */
+	public OpenHabExporter(Path outputDirectory, OutputFiles outputFiles) {
+		this.outputDirectory = outputDirectory;
+		this.outputFiles = outputFiles;
+	}
+
+	/**
+	 * Writes <code>.things</code> and <code>.items</code> files for all lights.
+	 * <p>
+	 * Existing files of the same name are replaced if their content changed.
+	 * Files of main groups without lights (eg., written by an earlier export
+	 * before all lights moved to another main group) are deleted.
+	 * </p>
+	 *
+	 * @param lights the lights
+	 * @return the written files
+	 * @throws IOException in case of errors writing the files
+	 */
+	public List<Path> exportLights(List<? extends Light> lights) throws IOException {
+		Map<Integer, MainGroup> mainGroups = new TreeMap<>();
+		for (Light light : lights) {
+			MainGroup group = getMainGroup(light.getPrimarySwitchGroupAddress());
+			mainGroups.computeIfAbsent(group.mainGroup, (k) -> group).lights.add(light);
+		}
+
+		Files.createDirectories(outputDirectory);
+		List<Path> files;
+		try {
+			files = mainGroups.values().parallelStream().map(this::render).flatMap(List::stream)
+					.collect(Collectors.toList());
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		Set<Path> written = new HashSet<>(files);
+		List<Path> stale;
+		try (Stream<Path> existing = Files.list(outputDirectory)) {
+			stale = existing.filter((file) -> isGenerated(file) && !written.contains(file))
+					.collect(Collectors.toList());
+		}
+		for (Path file : stale) {
+			outputFiles.delete(file);
+		}
+		return files;
+	}
+
+	/**
+	 * @return the UID of the bridge all things are attached to
+	 */
+	public String getBridgeUid() {
+		return bridgeUid;
+	}
+
+	private List<Path> render(MainGroup group) {
+		String bridgeId = bridgeUid.substring(bridgeUid.lastIndexOf(':') + 1);
+		String thingId = group.getThingId();
+
+		Path thingsFile = outputDirectory.resolve(thingId + ".things");
+		Path itemsFile = outputDirectory.resolve(thingId + ".items");
+		try {
+			outputFiles.write(thingsFile, (things) -> {
+				THING_HEADER.render(things, bridgeUid, bridgeId, thingId, escape(group.label));
+				for (Light light : group.lights) {
+					renderChannel(things, light);
+				}
+				THING_FOOTER.render(things);
+			});
+			outputFiles.write(itemsFile, (items) -> {
+				for (Light light : group.lights) {
+					String itemType = (light instanceof DimmableLight) ? "Dimmer" : "Switch";
+					String itemName = "Light_" + getAddressId(light.getPrimarySwitchGroupAddress());
+					ITEM.render(items, itemType, itemName, getLabel(light), bridgeId, thingId, getChannelId(light));
+				}
+			});
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return List.of(thingsFile, itemsFile);
+	}
+
+	/**
+	 * Sets the UID of the bridge all things are attached to.
+	 *
+	 * @param bridgeUid the bridge UID (default <code>knx:ip:bridge</code>)
+	 */
+	public void setBridgeUid(String bridgeUid) {
+		this.bridgeUid = bridgeUid;
+	}
+}
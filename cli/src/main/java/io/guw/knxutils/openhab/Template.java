@@ -0,0 +1,85 @@
+package io.guw.knxutils.openhab;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A minimal text template with <code>${name}</code> placeholders.
+ * <p>
+ * A template is compiled once into literal segments and variable indexes.
+ * Rendering then only appends segments and values to an {@link Appendable}
+ * without any parsing or lookups. Templates are immutable and can be rendered
+ * concurrently.
+ * </p>
+ */
+public final class Template {
+
+	/**
+	 * Compiles a template.
+	 *
+	 * @param text      the template text
+	 * @param variables the names of all variables supported by the template (in
+	 *                  the order of values passed to
+	 *                  {@link #render(Appendable, String...)})
+	 * @return the compiled template
+	 * @throws IllegalArgumentException if the text is malformed or uses an
+	 *                                  unknown variable
+	 */
+	public static Template compile(String text, String... variables) {
+		List<String> variableNames = Arrays.asList(variables);
+		List<String> literals = new ArrayList<>();
+		List<Integer> variableIndexes = new ArrayList<>();
+
+		int position = 0;
+		int start;
+		while ((start = text.indexOf("${", position)) >= 0) {
+			int end = text.indexOf('}', start);
+			if (end < 0) {
+				throw new IllegalArgumentException("Unterminated variable at " + start + ": " + text);
+			}
+			String name = text.substring(start + 2, end);
+			int index = variableNames.indexOf(name);
+			if (index < 0) {
+				throw new IllegalArgumentException("Unknown variable '" + name + "' in template: " + text);
+			}
+			literals.add(text.substring(position, start));
+			variableIndexes.add(index);
+			position = end + 1;
+		}
+		literals.add(text.substring(position));
+
+		return new Template(literals.toArray(new String[literals.size()]),
+				variableIndexes.stream().mapToInt(Integer::intValue).toArray(), variables.length);
+	}
+
+	private final String[] literals;
+	private final int[] variableIndexes;
+	private final int variableCount;
+
+	private Template(String[] literals, int[] variableIndexes, int variableCount) {
+		this.literals = literals;
+		this.variableIndexes = variableIndexes;
+		this.variableCount = variableCount;
+	}
+
+	/**
+	 * Renders the template.
+	 *
+	 * @param out    the output
+	 * @param values the variable values (in the order of the variables passed to
+	 *               {@link #compile(String, String...)})
+	 * @throws IOException in case of errors writing to the output
+	 */
+	public void render(Appendable out, String... values) throws IOException {
+		if (values.length != variableCount) {
+			throw new IllegalArgumentException(
+					"Expected " + variableCount + " values but got " + values.length + ": " + Arrays.toString(values));
+		}
+		for (int i = 0; i < variableIndexes.length; i++) {
+			out.append(literals[i]).append(values[variableIndexes[i]]);
+		}
+		out.append(literals[literals.length - 1]);
+	}
+}
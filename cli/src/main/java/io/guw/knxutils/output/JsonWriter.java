@@ -0,0 +1,285 @@
+package io.guw.knxutils.output;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * A minimal streaming JSON writer.
+ * <p>
+ * Values are written directly to the underlying {@link Writer} as they are
+ * produced. Only the nesting state (one flag per level) is kept in memory.
+ * The writer does not validate the structure beyond placing separators.
+ * </p>
+ * <p>
+ * Numbers and escapes are formatted into a reusable buffer so that writing a
+ * value does not allocate. Together with {@link #newLine()} this allows
+ * streaming large newline-delimited JSON dumps.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class JsonWriter implements Flushable, Closeable {
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private final Writer out;
+	private final char[] buffer = new char[20];
+	private boolean[] hasElements = new boolean[8];
+	private int depth;
+	private boolean afterName;
+
+	/**
+	 * Creates a new writer.
+	 *
+	 * @param out the writer (will be closed when this writer is closed)
+	 */
+	public JsonWriter(Writer out) {
+		this.out = out;
+	}
+
+	private void beforeValue() throws IOException {
+		if (afterName) {
+			afterName = false;
+			return;
+		}
+		if (depth > 0) {
+			if (hasElements[depth]) {
+				out.write(',');
+			}
+			hasElements[depth] = true;
+		}
+	}
+
+	private JsonWriter begin(char c) throws IOException {
+		beforeValue();
+		out.write(c);
+		if (++depth == hasElements.length) {
+			hasElements = Arrays.copyOf(hasElements, hasElements.length * 2);
+		}
+		hasElements[depth] = false;
+		return this;
+	}
+
+	/**
+	 * Begins an array.
+	 *
+	 * @return this writer
+	 * @throws IOException in case of errors writing to the underlying writer
+	 */
+	public JsonWriter beginArray() throws IOException {
+		return begin('[');
+	}
+
+	/**
+	 * Begins an object.
+	 *
+	 * @return this writer
+	 * @throws IOException in case of errors writing to the underlying writer
+	 */
+	public JsonWriter beginObject() throws IOException {
+		return begin('{');
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+	private JsonWriter end(char c) throws IOException {
+		if (depth == 0) {
+			throw new IllegalStateException("Nothing to end");
+		}
+		depth--;
+		out.write(c);
+		return this;
+	}
+
+	/**
+	 * Ends the current array.
+	 *
+	 * @return this writer
+	 * @throws IOException in case of errors writing to the underlying writer
+	 */
+	public JsonWriter endArray() throws IOException {
+		return end(']');
+	}
+
+	/**
+	 * Ends the current object.
+	 *
+	 * @return this writer
+	 * @throws IOException in case of errors writing to the underlying writer
+	 */
+	public JsonWriter endObject() throws IOException {
+		return end('}');
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	/**
+	 * Writes the name of the next object member.
+	 *
+	 * @param name the name
+	 * @return this writer
+	 * @throws IOException in case of errors writing to the underlying writer
+	 */
+	public JsonWriter name(String name) throws IOException {
+		beforeValue();
+		writeString(name);
+		out.write(':');
+		afterName = true;
+		return this;
+	}
+
+	/**
+	 * Terminates a top-level value with a line feed.
+	 * <p>
+	 * Used for writing newline-delimited JSON where each line holds one
+	 * complete value.
+	 * </p>
+	 *
+	 * @return this writer
+	 * @throws IOException in case of errors writing to the underlying writer
+	 * @throws IllegalStateException if the current value is incomplete
+	 */
+	public JsonWriter newLine() throws IOException {
+		if ((depth > 0) || afterName) {
+			throw new IllegalStateException("Value is incomplete");
+		}
+		out.write('\n');
+		return this;
+	}
+
+	/**
+	 * Writes a <code>null</code> value.
+	 *
+	 * @return this writer
+	 * @throws IOException in case of errors writing to the underlying writer
+	 */
+	public JsonWriter nullValue() throws IOException {
+		beforeValue();
+		out.write("null");
+		return this;
+	}
+
+	/**
+	 * Writes a boolean value.
+	 *
+	 * @param value the value
+	 * @return this writer
+	 * @throws IOException in case of errors writing to the underlying writer
+	 */
+	public JsonWriter value(boolean value) throws IOException {
+		beforeValue();
+		out.write(value ? "true" : "false");
+		return this;
+	}
+
+	/**
+	 * Writes a number value.
+	 *
+	 * @param value the value
+	 * @return this writer
+	 * @throws IOException in case of errors writing to the underlying writer
+	 */
+	public JsonWriter value(double value) throws IOException {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			return nullValue();
+		}
+		beforeValue();
+		out.write(Double.toString(value));
+		return this;
+	}
+
+	/**
+	 * Writes a number value.
+	 *
+	 * @param value the value
+	 * @return this writer
+	 * @throws IOException in case of errors writing to the underlying writer
+	 */
+	public JsonWriter value(long value) throws IOException {
+		beforeValue();
+		if (value == Long.MIN_VALUE) {
+			out.write("-9223372036854775808");
+			return this;
+		}
+
+		// format digits right-to-left into the buffer
+		boolean negative = value < 0;
+		long remaining = negative ? -value : value;
+		int pos = buffer.length;
+		do {
+			buffer[--pos] = (char) ('0' + (remaining % 10));
+			remaining /= 10;
+		} while (remaining != 0);
+		if (negative) {
+			buffer[--pos] = '-';
+		}
+		out.write(buffer, pos, buffer.length - pos);
+		return this;
+	}
+
+	/**
+	 * Writes a string value.
+	 *
+	 * @param value the value (maybe <code>null</code>)
+	 * @return this writer
+	 * @throws IOException in case of errors writing to the underlying writer
+	 */
+	public JsonWriter value(String value) throws IOException {
+		if (value == null) {
+			return nullValue();
+		}
+		beforeValue();
+		writeString(value);
+		return this;
+	}
+
+	private void writeString(String value) throws IOException {
+		out.write('"');
+		int runStart = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if ((c == '"') || (c == '\\') || (c < 0x20)) {
+				out.write(value, runStart, i - runStart);
+				switch (c) {
+				case '"':
+					out.write("\\\"");
+					break;
+				case '\\':
+					out.write("\\\\");
+					break;
+				case '\n':
+					out.write("\\n");
+					break;
+				case '\r':
+					out.write("\\r");
+					break;
+				case '\t':
+					out.write("\\t");
+					break;
+				default:
+					buffer[0] = '\\';
+					buffer[1] = 'u';
+					buffer[2] = '0';
+					buffer[3] = '0';
+					buffer[4] = HEX_DIGITS[c >> 4];
+					buffer[5] = HEX_DIGITS[c & 0xf];
+					out.write(buffer, 0, 6);
+					break;
+				}
+				runStart = i + 1;
+			}
+		}
+		out.write(value, runStart, value.length() - runStart);
+		out.write('"');
+	}
+}
@@ -0,0 +1,180 @@
+package io.guw.knxutils.output;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes generated output files only if their content changed.
+ * <p>
+ * Content is written to a temporary file in the target directory while
+ * computing a SHA-256 hash. If the existing file has the same hash, the
+ * temporary file is discarded and the existing file is left untouched (i.e.
+ * its modification time does not change and consumers watching it are not
+ * triggered). Otherwise the temporary file is atomically moved over the
+ * existing file so that consumers never see partially written content.
+ * </p>
+ * <p>
+ * An instance counts changed, unchanged and deleted files over its lifetime.
+ * This class is thread-safe.
+ * </p>
+ */
+public class OutputFiles {
+
+	/**
+	 * Produces the content of a file.
+	 */
+	@FunctionalInterface
+	public interface ContentWriter {
+
+		/**
+		 * Writes the content.
+		 *
+		 * @param out the writer (may be closed by the content writer)
+		 * @throws IOException in case of errors writing the content
+		 */
+		void write(Writer out) throws IOException;
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(OutputFiles.class);
+
+	private static byte[] hash(Path file) throws IOException {
+		MessageDigest digest = newDigest();
+		byte[] buffer = new byte[8192];
+		try (InputStream in = Files.newInputStream(file)) {
+			int read;
+			while ((read = in.read(buffer)) >= 0) {
+				digest.update(buffer, 0, read);
+			}
+		}
+		return digest.digest();
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	private final ConcurrentLinkedQueue<Path> changedFiles = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger unchangedCount = new AtomicInteger();
+	private final AtomicInteger deletedCount = new AtomicInteger();
+
+	/**
+	 * Deletes a previously generated file which is no longer produced.
+	 *
+	 * @param file the file to delete
+	 * @return <code>true</code> if the file was deleted, <code>false</code> if
+	 *         it did not exist
+	 * @throws IOException in case of errors deleting the file
+	 */
+	public boolean delete(Path file) throws IOException {
+		if (!Files.deleteIfExists(file)) {
+			return false;
+		}
+		LOG.debug("Deleted {}", file);
+		deletedCount.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * @return the number of files written because they were new or their
+	 *         content changed
+	 */
+	public int getChangedCount() {
+		return changedFiles.size();
+	}
+
+	/**
+	 * @return the files written because they were new or their content changed
+	 */
+	public List<Path> getChangedFiles() {
+		return new ArrayList<>(changedFiles);
+	}
+
+	/**
+	 * @return the number of files deleted because they are no longer produced
+	 */
+	public int getDeletedCount() {
+		return deletedCount.get();
+	}
+
+	/**
+	 * @return a human readable summary of changed, unchanged and deleted files
+	 */
+	public String getSummary() {
+		return getChangedCount() + " files changed, " + getUnchangedCount() + " unchanged, " + getDeletedCount()
+				+ " deleted";
+	}
+
+	/**
+	 * @return the number of files skipped because their content did not change
+	 */
+	public int getUnchangedCount() {
+		return unchangedCount.get();
+	}
+
+	/**
+	 * Writes a UTF-8 encoded file if its content changed.
+	 * <p>
+	 * If the content writer fails, the existing file is left untouched.
+	 * </p>
+	 *
+	 * @param file          the file to write
+	 * @param contentWriter the producer of the content
+	 * @return <code>true</code> if the file was written, <code>false</code> if
+	 *         it was unchanged
+	 * @throws IOException in case of errors writing the file
+	 */
+	public boolean write(Path file, ContentWriter contentWriter) throws IOException {
+		Path directory = file.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		Path tempFile = Files.createTempFile(directory, "." + file.getFileName(), ".tmp");
+		try {
+			MessageDigest digest = newDigest();
+			try (Writer out = new BufferedWriter(
+					new OutputStreamWriter(new DigestOutputStream(Files.newOutputStream(tempFile), digest), UTF_8))) {
+				contentWriter.write(out);
+			}
+
+			if (Files.isRegularFile(file) && (Files.size(file) == Files.size(tempFile))
+					&& Arrays.equals(digest.digest(), hash(file))) {
+				LOG.debug("Skipping unchanged {}", file);
+				unchangedCount.incrementAndGet();
+				return false;
+			}
+
+			try {
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+			LOG.debug("Wrote {}", file);
+			changedFiles.add(file);
+			return true;
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+}
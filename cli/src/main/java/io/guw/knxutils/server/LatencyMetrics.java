@@ -0,0 +1,101 @@
+package io.guw.knxutils.server;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.guw.knxutils.output.JsonWriter;
+
+/**
+ * Latency metrics of a single endpoint.
+ * <p>
+ * Latencies are counted in a fixed histogram with power-of-two buckets of
+ * microseconds. Percentiles are therefore approximations (upper bound of the
+ * bucket) but recording is lock-free and does not allocate. This class is
+ * thread-safe.
+ * </p>
+ */
+public class LatencyMetrics {
+
+	private static final int BUCKET_COUNT = 32;
+
+	private final LongAdder count = new LongAdder();
+	private final LongAdder errorCount = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+	/**
+	 * @return the number of recorded requests
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Calculates an approximate percentile.
+	 *
+	 * @param percentile the percentile (eg., <code>0.99</code>)
+	 * @return the upper bound of the bucket containing the percentile in
+	 *         microseconds (<code>0</code> if nothing was recorded)
+	 */
+	public long getPercentileMicros(double percentile) {
+		long total = 0;
+		long[] snapshot = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			snapshot[i] = buckets.get(i);
+			total += snapshot[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+
+		long rank = (long) Math.ceil(percentile * total);
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += snapshot[i];
+			if (seen >= rank) {
+				return 1L << i;
+			}
+		}
+		return 1L << (BUCKET_COUNT - 1);
+	}
+
+	/**
+	 * Records a request.
+	 *
+	 * @param durationNanos the duration of the request
+	 * @param error         <code>true</code> if the request failed
+	 */
+	public void record(long durationNanos, boolean error) {
+		count.increment();
+		if (error) {
+			errorCount.increment();
+		}
+		totalNanos.add(durationNanos);
+		maxNanos.accumulate(durationNanos);
+
+		long micros = Math.max(1, durationNanos / 1_000L);
+		int bucket = Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros - 1));
+		buckets.incrementAndGet(bucket);
+	}
+
+	/**
+	 * Writes the metrics as JSON object.
+	 *
+	 * @param json the writer
+	 * @throws IOException in case of errors writing
+	 */
+	public void write(JsonWriter json) throws IOException {
+		long n = count.sum();
+		json.beginObject();
+		json.name("count").value(n);
+		json.name("errors").value(errorCount.sum());
+		json.name("meanMicros").value((n > 0) ? (totalNanos.sum() / n) / 1_000L : 0L);
+		json.name("p50Micros").value(getPercentileMicros(0.5));
+		json.name("p99Micros").value(getPercentileMicros(0.99));
+		json.name("maxMicros").value(maxNanos.get() / 1_000L);
+		json.endObject();
+	}
+}
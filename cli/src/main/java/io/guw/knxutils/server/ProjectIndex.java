@@ -0,0 +1,158 @@
+package io.guw.knxutils.server;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import io.guw.knxutils.knxprojectparser.Device;
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+import io.guw.knxutils.knxprojectparser.GroupAddressRange;
+import io.guw.knxutils.knxprojectparser.KnxProjectFile;
+import io.guw.knxutils.semanticanalyzer.Light;
+
+/**
+ * In-memory lookup structures for an analyzed project.
+ * <p>
+ * All structures are built once in the constructor and never modified
+ * afterwards. Thus, an index can be read concurrently by any number of threads
+ * without locking.
+ * </p>
+ */
+public final class ProjectIndex {
+
+	private final String name;
+	private final File file;
+	private final Map<String, GroupAddress> groupAddressByAddress = new HashMap<>();
+	private final Map<String, Device> deviceByAddress = new HashMap<>();
+	private final NavigableMap<Integer, Light> lightByAddress = new TreeMap<>();
+	private final Map<String, List<GroupAddressRange>> rangesByName = new HashMap<>();
+
+	/**
+	 * Creates a new index.
+	 *
+	 * @param name           the name of the project (used in queries)
+	 * @param knxProjectFile the opened project
+	 * @param lights         the lights found by the analyzer
+	 */
+	public ProjectIndex(String name, KnxProjectFile knxProjectFile, Collection<? extends Light> lights) {
+		this(name, knxProjectFile.getFile(), knxProjectFile.getGroupAddresses(), knxProjectFile.getDevices(), lights);
+	}
+
+	/**
+	 * Creates a new index.
+	 *
+	 * @param name           the name of the project (used in queries)
+	 * @param file           the project file
+	 * @param groupAddresses the GAs of the project
+	 * @param devices        the devices of the project
+	 * @param lights         the lights found by the analyzer
+	 */
+	public ProjectIndex(String name, File file, Collection<GroupAddress> groupAddresses, Collection<Device> devices,
+			Collection<? extends Light> lights) {
+		this.name = name;
+		this.file = file;
+		for (GroupAddress ga : groupAddresses) {
+			groupAddressByAddress.put(ga.getAddress(), ga);
+			for (GroupAddressRange range = ga.getGroupAddressRange(); range != null; range = range.getParent()) {
+				if (range.getName() != null) {
+					String key = range.getName().toLowerCase(Locale.ROOT);
+					List<GroupAddressRange> ranges = rangesByName.computeIfAbsent(key, (k) -> new ArrayList<>());
+					if (!ranges.contains(range)) {
+						ranges.add(range);
+					}
+				}
+			}
+		}
+		rangesByName.replaceAll((k, ranges) -> List.copyOf(ranges));
+		for (Device device : devices) {
+			if (device.getAddress() != null) {
+				deviceByAddress.put(device.getAddress(), device);
+			}
+		}
+		for (Light light : lights) {
+			lightByAddress.put(light.getPrimarySwitchGroupAddress().getAddressInt(), light);
+		}
+	}
+
+	/**
+	 * @param address the physical address (eg., <code>1.1.5</code>)
+	 * @return the device (maybe <code>null</code>)
+	 */
+	public Device getDevice(String address) {
+		return deviceByAddress.get(address);
+	}
+
+	/**
+	 * @return the number of devices
+	 */
+	public int getDeviceCount() {
+		return deviceByAddress.size();
+	}
+
+	/**
+	 * @return the project file
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @param address the three-part address (eg., <code>1/2/3</code>)
+	 * @return the GA (maybe <code>null</code>)
+	 */
+	public GroupAddress getGroupAddress(String address) {
+		return groupAddressByAddress.get(address);
+	}
+
+	/**
+	 * @return the number of GAs
+	 */
+	public int getGroupAddressCount() {
+		return groupAddressByAddress.size();
+	}
+
+	/**
+	 * @return all lights ordered by primary GA
+	 */
+	public Collection<Light> getLights() {
+		return Collections.unmodifiableCollection(lightByAddress.values());
+	}
+
+	/**
+	 * Returns lights with a primary GA within an address range.
+	 *
+	 * @param start the first address (inclusive)
+	 * @param end   the last address (inclusive)
+	 * @return the lights ordered by primary GA
+	 */
+	public Collection<Light> getLights(int start, int end) {
+		if (start > end) {
+			return List.of();
+		}
+		return Collections.unmodifiableCollection(lightByAddress.subMap(start, true, end, true).values());
+	}
+
+	/**
+	 * @return the name of the project
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns GA ranges by name.
+	 *
+	 * @param rangeName the name of a main or middle group (case-insensitive)
+	 * @return the ranges (maybe empty)
+	 */
+	public List<GroupAddressRange> getRanges(String rangeName) {
+		return rangesByName.getOrDefault(rangeName.toLowerCase(Locale.ROOT), List.of());
+	}
+}
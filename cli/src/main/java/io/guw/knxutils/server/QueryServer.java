@@ -0,0 +1,420 @@
+package io.guw.knxutils.server;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.guw.knxutils.knxprojectparser.CommunicationObject;
+import io.guw.knxutils.knxprojectparser.Device;
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+import io.guw.knxutils.knxprojectparser.GroupAddressRange;
+import io.guw.knxutils.output.JsonWriter;
+import io.guw.knxutils.semanticanalyzer.DimmableLight;
+import io.guw.knxutils.semanticanalyzer.Light;
+
+/**
+ * An HTTP server answering queries about loaded projects.
+ * <p>
+ * Projects are loaded once into {@link ProjectIndex indexes} which are read
+ * concurrently by a pool of request threads. Responses are streamed as JSON.
+ * The following endpoints are supported (all <code>GET</code>, optionally
+ * restricted to a single project using <code>?project=NAME</code>):
+ * </p>
+ * <ul>
+ * <li><code>/projects</code> - loaded projects</li>
+ * <li><code>/ga/1/2/3</code> - a GA with the communication objects writing to
+ * and listening on it</li>
+ * <li><code>/devices/1.1.5</code> - a device with its communication
+ * objects</li>
+ * <li><code>/lights?range=NAME|1/0/0-1/7/255</code> - lights (optionally only
+ * the ones in a GA range)</li>
+ * <li><code>/metrics</code> - latency metrics per endpoint</li>
+ * </ul>
+ */
+public class QueryServer implements Closeable {
+
+	/**
+	 * Writes the body of a successful response.
+	 */
+	@FunctionalInterface
+	private interface Body {
+		void write(JsonWriter json) throws IOException;
+	}
+
+	/**
+	 * Handles a request. Lookups must happen before returning the body so that
+	 * errors can still be reported with a proper status code.
+	 */
+	@FunctionalInterface
+	private interface Handler {
+		Body handle(String path, Map<String, String> parameters) throws QueryException;
+	}
+
+	/**
+	 * A request which cannot be answered.
+	 */
+	private static final class QueryException extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int status;
+
+		QueryException(int status, String message) {
+			super(message);
+			this.status = status;
+		}
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(QueryServer.class);
+
+	private static final Pattern ADDRESS_RANGE = Pattern.compile("(\\d+)/(\\d+)/(\\d+)-(\\d+)/(\\d+)/(\\d+)");
+
+	private static Map<String, String> parseQuery(String query) {
+		if ((query == null) || query.isEmpty()) {
+			return Map.of();
+		}
+		Map<String, String> parameters = new HashMap<>();
+		for (String parameter : query.split("&")) {
+			int separator = parameter.indexOf('=');
+			if (separator > 0) {
+				parameters.put(URLDecoder.decode(parameter.substring(0, separator), UTF_8),
+						URLDecoder.decode(parameter.substring(separator + 1), UTF_8));
+			} else if (!parameter.isEmpty()) {
+				parameters.put(URLDecoder.decode(parameter, UTF_8), "");
+			}
+		}
+		return parameters;
+	}
+
+	private static void writeCommunicationObject(JsonWriter json, CommunicationObject co) throws IOException {
+		json.beginObject();
+		Device device = co.getDevice();
+		json.name("device").value((device != null) ? device.getAddress() : null);
+		json.name("deviceName").value((device != null) ? device.getName() : null);
+		json.name("description").value(co.getDescription());
+		json.name("datapointType").value(co.getDatapointType());
+		json.name("readFlag").value(co.isReadFlag());
+		json.name("send").value((co.getSendGroupAddress() != null) ? co.getSendGroupAddress().getAddress() : null);
+		json.name("listen").beginArray();
+		for (GroupAddress ga : co.getListenGroupAddresses()) {
+			json.value(ga.getAddress());
+		}
+		json.endArray();
+		json.endObject();
+	}
+
+	private static void writeGroupAddress(JsonWriter json, GroupAddress ga) throws IOException {
+		if (ga == null) {
+			json.nullValue();
+			return;
+		}
+		json.value(ga.getAddress());
+	}
+
+	private static void writeLight(JsonWriter json, String project, Light light) throws IOException {
+		json.beginObject();
+		json.name("project").value(project);
+		json.name("name").value(light.getName());
+		json.name("type").value((light instanceof DimmableLight) ? "dimmable" : "switch");
+		json.name("address");
+		writeGroupAddress(json, light.getPrimarySwitchGroupAddress());
+		json.name("statusAddress");
+		writeGroupAddress(json, light.getStatusGroupAddress());
+		if (light instanceof DimmableLight) {
+			DimmableLight dimmableLight = (DimmableLight) light;
+			json.name("dimAddress");
+			writeGroupAddress(json, dimmableLight.getDimGa());
+			json.name("brightnessAddress");
+			writeGroupAddress(json, dimmableLight.getBrightnessGa());
+			json.name("brightnessStatusAddress");
+			writeGroupAddress(json, dimmableLight.getBrightnessStatusGa());
+		}
+		json.endObject();
+	}
+
+	private final List<ProjectIndex> projects;
+	private final Map<String, LatencyMetrics> metricsByEndpoint;
+	private final ExecutorService executor;
+	private final HttpServer server;
+
+	/**
+	 * Creates a new server. The server is not started.
+	 *
+	 * @param projects the projects to serve
+	 * @param address  the address to bind to (should be a loopback address)
+	 * @param threads  the number of request threads
+	 * @throws IOException if the server cannot be bound
+	 */
+	public QueryServer(List<ProjectIndex> projects, InetSocketAddress address, int threads) throws IOException {
+		this.projects = List.copyOf(projects);
+
+		Map<String, Handler> handlers = new LinkedHashMap<>();
+		handlers.put("/projects", this::handleProjects);
+		handlers.put("/ga/", this::handleGroupAddress);
+		handlers.put("/devices/", this::handleDevice);
+		handlers.put("/lights", this::handleLights);
+		handlers.put("/metrics", this::handleMetrics);
+
+		Map<String, LatencyMetrics> metrics = new LinkedHashMap<>();
+		server = HttpServer.create(address, 0);
+		for (Map.Entry<String, Handler> handler : handlers.entrySet()) {
+			String endpoint = handler.getKey();
+			LatencyMetrics endpointMetrics = new LatencyMetrics();
+			metrics.put(endpoint, endpointMetrics);
+			server.createContext(endpoint,
+					(exchange) -> handle(exchange, endpoint, handler.getValue(), endpointMetrics));
+		}
+		server.createContext("/", (exchange) -> handle(exchange, "/", (path, parameters) -> {
+			throw new QueryException(404, "Unknown endpoint: " + exchange.getRequestURI().getPath());
+		}, null));
+		metricsByEndpoint = Collections.unmodifiableMap(metrics);
+
+		executor = Executors.newFixedThreadPool(threads);
+		server.setExecutor(executor);
+	}
+
+	/**
+	 * Stops the server.
+	 */
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * @return the address the server is bound to
+	 */
+	public InetSocketAddress getAddress() {
+		return server.getAddress();
+	}
+
+	/**
+	 * @return the latency metrics by endpoint
+	 */
+	public Map<String, LatencyMetrics> getMetrics() {
+		return metricsByEndpoint;
+	}
+
+	private void handle(HttpExchange exchange, String endpoint, Handler handler, LatencyMetrics metrics) {
+		long start = System.nanoTime();
+		boolean error = true;
+		try {
+			if (!"GET".equals(exchange.getRequestMethod())) {
+				throw new QueryException(405, "Method not allowed: " + exchange.getRequestMethod());
+			}
+			String path = exchange.getRequestURI().getPath().substring(endpoint.length());
+			Body body = handler.handle(path, parseQuery(exchange.getRequestURI().getRawQuery()));
+
+			exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+			exchange.sendResponseHeaders(200, 0);
+			try (JsonWriter json = new JsonWriter(
+					new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), UTF_8)))) {
+				body.write(json);
+			}
+			error = false;
+		} catch (QueryException e) {
+			sendError(exchange, e.status, e.getMessage());
+		} catch (IOException | RuntimeException e) {
+			LOG.debug("Error handling {}", exchange.getRequestURI(), e);
+			sendError(exchange, 500, e.toString());
+		} finally {
+			exchange.close();
+			if (metrics != null) {
+				metrics.record(System.nanoTime() - start, error);
+			}
+		}
+	}
+
+	private Body handleDevice(String path, Map<String, String> parameters) throws QueryException {
+		List<ProjectIndex> matching = new ArrayList<>();
+		for (ProjectIndex project : selectProjects(parameters)) {
+			if (project.getDevice(path) != null) {
+				matching.add(project);
+			}
+		}
+		if (matching.isEmpty()) {
+			throw new QueryException(404, "Unknown device: " + path);
+		}
+
+		return (json) -> {
+			json.beginArray();
+			for (ProjectIndex project : matching) {
+				Device device = project.getDevice(path);
+				json.beginObject();
+				json.name("project").value(project.getName());
+				json.name("address").value(device.getAddress());
+				json.name("name").value(device.getName());
+				json.name("description").value(device.getDescription());
+				json.name("communicationObjects").beginArray();
+				for (CommunicationObject co : device.getCommunicationObjects()) {
+					writeCommunicationObject(json, co);
+				}
+				json.endArray();
+				json.endObject();
+			}
+			json.endArray();
+		};
+	}
+
+	private Body handleGroupAddress(String path, Map<String, String> parameters) throws QueryException {
+		List<ProjectIndex> matching = new ArrayList<>();
+		for (ProjectIndex project : selectProjects(parameters)) {
+			if (project.getGroupAddress(path) != null) {
+				matching.add(project);
+			}
+		}
+		if (matching.isEmpty()) {
+			throw new QueryException(404, "Unknown GA: " + path);
+		}
+
+		return (json) -> {
+			json.beginArray();
+			for (ProjectIndex project : matching) {
+				GroupAddress ga = project.getGroupAddress(path);
+				json.beginObject();
+				json.name("project").value(project.getName());
+				json.name("address").value(ga.getAddress());
+				json.name("name").value(ga.getName());
+				json.name("description").value(ga.getDescription());
+				json.name("datapointType").value(ga.getDatapointType());
+				json.name("range").value((ga.getGroupAddressRange() != null) ? ga.getGroupAddressRange().getName() : null);
+				json.name("writers").beginArray();
+				for (CommunicationObject co : ga.getWritingCommunicationObjects()) {
+					writeCommunicationObject(json, co);
+				}
+				json.endArray();
+				json.name("listeners").beginArray();
+				for (CommunicationObject co : ga.getListeningCommunicationObjects()) {
+					writeCommunicationObject(json, co);
+				}
+				json.endArray();
+				json.endObject();
+			}
+			json.endArray();
+		};
+	}
+
+	private Body handleLights(String path, Map<String, String> parameters) throws QueryException {
+		String range = parameters.get("range");
+		Map<ProjectIndex, List<Collection<Light>>> lightsByProject = new LinkedHashMap<>();
+		for (ProjectIndex project : selectProjects(parameters)) {
+			List<Collection<Light>> lights = new ArrayList<>();
+			if (range == null) {
+				lights.add(project.getLights());
+			} else {
+				Matcher matcher = ADDRESS_RANGE.matcher(range);
+				if (matcher.matches()) {
+					int start = GroupAddress.getCombindedAddress(Integer.parseInt(matcher.group(1)),
+							Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3)));
+					int end = GroupAddress.getCombindedAddress(Integer.parseInt(matcher.group(4)),
+							Integer.parseInt(matcher.group(5)), Integer.parseInt(matcher.group(6)));
+					lights.add(project.getLights(start, end));
+				} else {
+					for (GroupAddressRange gaRange : project.getRanges(range)) {
+						lights.add(project.getLights(gaRange.getStartInt(), gaRange.getEndInt()));
+					}
+				}
+			}
+			lightsByProject.put(project, lights);
+		}
+
+		return (json) -> {
+			json.beginArray();
+			for (Map.Entry<ProjectIndex, List<Collection<Light>>> entry : lightsByProject.entrySet()) {
+				for (Collection<Light> lights : entry.getValue()) {
+					for (Light light : lights) {
+						writeLight(json, entry.getKey().getName(), light);
+					}
+				}
+			}
+			json.endArray();
+		};
+	}
+
+	private Body handleMetrics(String path, Map<String, String> parameters) {
+		return (json) -> {
+			json.beginObject();
+			for (Map.Entry<String, LatencyMetrics> entry : metricsByEndpoint.entrySet()) {
+				json.name(entry.getKey());
+				entry.getValue().write(json);
+			}
+			json.endObject();
+		};
+	}
+
+	private Body handleProjects(String path, Map<String, String> parameters) throws QueryException {
+		List<ProjectIndex> selected = selectProjects(parameters);
+		return (json) -> {
+			json.beginArray();
+			for (ProjectIndex project : selected) {
+				json.beginObject();
+				json.name("name").value(project.getName());
+				json.name("file").value(project.getFile().toString());
+				json.name("groupAddresses").value(project.getGroupAddressCount());
+				json.name("devices").value(project.getDeviceCount());
+				json.name("lights").value(project.getLights().size());
+				json.endObject();
+			}
+			json.endArray();
+		};
+	}
+
+	private List<ProjectIndex> selectProjects(Map<String, String> parameters) throws QueryException {
+		String name = parameters.get("project");
+		if (name == null) {
+			return projects;
+		}
+		for (ProjectIndex project : projects) {
+			if (project.getName().equals(name)) {
+				return List.of(project);
+			}
+		}
+		throw new QueryException(404, "Unknown project: " + name);
+	}
+
+	private void sendError(HttpExchange exchange, int status, String message) {
+		if (exchange.getResponseCode() != -1) {
+			return; // response already started
+		}
+		try {
+			exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+			exchange.sendResponseHeaders(status, 0);
+			try (JsonWriter json = new JsonWriter(
+					new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), UTF_8)))) {
+				json.beginObject().name("error").value(message).endObject();
+			}
+		} catch (IOException e) {
+			LOG.debug("Unable to send error response", e);
+		}
+	}
+
+	/**
+	 * Starts serving requests.
+	 */
+	public void start() {
+		server.start();
+	}
+}
@@ -0,0 +1,216 @@
+package io.guw.knxutils.cli;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.guw.knxutils.semanticanalyzer.KnxProjectAnalyzer;
+
+import picocli.CommandLine;
+
+public class KnxConvertCommandTest {
+
+	@FunctionalInterface
+	private interface Condition {
+		boolean isMet() throws IOException;
+	}
+
+	/**
+	 * Writes a minimal <code>.knxproj</code> file with a light (switch and
+	 * status GA) in main group 1.
+	 */
+	static void writeProject(Path file, String lightName) throws IOException {
+		String groupAddresses = "<GroupAddress Id=\"P-0001-0_GA-1\" Address=\"2048\" Name=\"" + lightName
+				+ "\" DatapointType=\"DPST-1-1\"/>" //
+				+ "<GroupAddress Id=\"P-0001-0_GA-2\" Address=\"2049\" Name=\"" + lightName
+				+ " Status\" DatapointType=\"DPST-1-11\"/>";
+		String projectData = "<KNX><Project Id=\"P-0001\"><Installations><Installation><Topology/>"
+				+ "<GroupAddresses><GroupRanges>"
+				+ "<GroupRange Id=\"P-0001-0_GR-1\" RangeStart=\"2048\" RangeEnd=\"4095\" Name=\"Beleuchtung\">"
+				+ "<GroupRange Id=\"P-0001-0_GR-2\" RangeStart=\"2048\" RangeEnd=\"2303\" Name=\"Erdgeschoss\">"
+				+ groupAddresses + "</GroupRange></GroupRange>"
+				+ "</GroupRanges></GroupAddresses></Installation></Installations></Project></KNX>";
+		String projectInfo = "<KNX><Project Id=\"P-0001\"><ProjectInformation Name=\"Test\"/></Project></KNX>";
+
+		try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+			writeEntry(zip, "P-0001/project.xml", projectInfo);
+			writeEntry(zip, "P-0001/0.xml", projectData);
+		}
+	}
+
+	private static void writeEntry(ZipOutputStream zip, String name, String content) throws IOException {
+		zip.putNextEntry(new ZipEntry(name));
+		zip.write(content.getBytes(UTF_8));
+		zip.closeEntry();
+	}
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void call_batch() throws Exception {
+		Path projects = directory.resolve("projects");
+		writeProject(Files.createDirectories(projects.resolve("a")).resolve("good.knxproj"), "Licht Bad");
+		Files.writeString(projects.resolve("bad.knxproj"), "not a zip file", UTF_8);
+		Path output = directory.resolve("openhab");
+		Path homeAssistantFile = directory.resolve("knx.yaml");
+
+		KnxConvertCommand command = new KnxConvertCommand();
+		new CommandLine(command).parseArgs("--openhab", output.toString(), "--homeassistant",
+				homeAssistantFile.toString(), projects.toString());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		PrintStream stdout = System.out;
+		System.setOut(new PrintStream(out, true, UTF_8));
+		int exitCode;
+		try {
+			exitCode = command.call();
+		} finally {
+			System.setOut(stdout);
+		}
+
+		// a failed project does not stop the batch
+		assertEquals(1, exitCode);
+		String summary = out.toString(UTF_8);
+		assertTrue(summary.contains("Converted 2 projects (1 succeeded, 1 failed)"), summary);
+		assertTrue(summary.contains("FAILED  " + projects.resolve("bad.knxproj")), summary);
+		assertTrue(summary.contains("OK      " + projects.resolve("a/good.knxproj")), summary);
+
+		// output paths are resolved per project
+		assertTrue(readItems(output.resolve("good")).contains("Bad"));
+		assertTrue(Files.isRegularFile(directory.resolve("good-knx.yaml")));
+		assertFalse(Files.exists(homeAssistantFile));
+		assertFalse(Files.exists(output.resolve("bad")));
+	}
+
+	@Test
+	public void call_duplicateProjectNames() throws Exception {
+		Path first = Files.createDirectories(directory.resolve("a")).resolve("site.knxproj");
+		Path second = Files.createDirectories(directory.resolve("b")).resolve("site.knxproj");
+		writeProject(first, "Licht Bad");
+		writeProject(second, "Licht Flur");
+		Path output = directory.resolve("openhab");
+
+		KnxConvertCommand command = new KnxConvertCommand();
+		new CommandLine(command).parseArgs("--openhab", output.toString(), first.toString(), second.toString());
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, command::call);
+		assertEquals("Duplicate project name: " + second, e.getMessage());
+		assertFalse(Files.exists(output));
+
+		// projects are served by name as well
+		StringWriter err = new StringWriter();
+		CommandLine commandLine = new CommandLine(new KnxConvertCommand());
+		commandLine.setErr(new PrintWriter(err));
+		assertEquals(1, commandLine.execute("serve", "--port", "0", first.toString(), second.toString()));
+		assertTrue(err.toString().contains("Duplicate project name: " + second), err.toString());
+	}
+
+	@Test
+	public void findProjects() throws Exception {
+		Path projects = directory.resolve("projects");
+		Path first = Files.writeString(Files.createDirectories(projects.resolve("a")).resolve("first.knxproj"), "");
+		Path second = Files.writeString(Files.createDirectories(projects.resolve("b/c")).resolve("second.knxproj"),
+				"");
+		Files.writeString(projects.resolve("a/notes.txt"), "");
+		Path single = Files.writeString(directory.resolve("single.knxproj"), "");
+
+		// directories are expanded recursively, all paths are absolute and normalized
+		Path relativeProjects = Path.of("").toAbsolutePath().relativize(projects.resolve("a/.."));
+		assertEquals(List.of(first, second, single),
+				KnxConvertCommand.findProjects(List.of(relativeProjects, single)));
+
+		Path empty = Files.createDirectories(directory.resolve("empty"));
+		assertThrows(IllegalArgumentException.class, () -> KnxConvertCommand.findProjects(List.of(empty)));
+	}
+
+	private String readItems(Path output) throws IOException {
+		if (!Files.isDirectory(output)) {
+			return "";
+		}
+		try (Stream<Path> files = Files.list(output)) {
+			StringBuilder items = new StringBuilder();
+			for (Path file : files.filter((f) -> f.getFileName().toString().endsWith(".items"))
+					.collect(Collectors.toList())) {
+				items.append(Files.readString(file, UTF_8));
+			}
+			return items.toString();
+		}
+	}
+
+	@Test
+	public void watch_analyzesChangesIncrementally() throws Exception {
+		Path project = directory.resolve("site.knxproj");
+		writeProject(project, "Licht Bad");
+		Path output = directory.resolve("openhab");
+		// projects are passed relative to the working directory
+		Path relativeProject = Path.of("").toAbsolutePath().relativize(project);
+
+		KnxConvertCommand command = new KnxConvertCommand();
+		new CommandLine(command).parseArgs("--watch", "--openhab", output.toString(), relativeProject.toString());
+		AtomicReference<Exception> failure = new AtomicReference<>();
+		Thread thread = new Thread(() -> {
+			try {
+				command.call();
+			} catch (InterruptedException e) {
+				// stopped
+			} catch (Exception e) {
+				failure.set(e);
+			}
+		});
+		thread.start();
+		try {
+			assertTrue(waitFor(() -> readItems(output).contains("Bad"), 30_000L));
+			KnxProjectAnalyzer analyzer = command.getWatchedAnalyzer(project);
+			assertNotNull(analyzer);
+
+			// re-written until the watcher (registered after the first conversion) reports it
+			boolean converted = false;
+			for (int i = 0; !converted && (i < 15); i++) {
+				writeProject(project, "Licht Flur");
+				converted = waitFor(() -> readItems(output).contains("Flur"), 2_000L);
+			}
+			assertTrue(converted);
+
+			// the analyzer of the first conversion was re-used
+			assertSame(analyzer, command.getWatchedAnalyzer(project));
+			assertFalse(readItems(output).contains("Bad"));
+		} finally {
+			thread.interrupt();
+			thread.join();
+		}
+		if (failure.get() != null) {
+			throw failure.get();
+		}
+	}
+
+	private boolean waitFor(Condition condition, long timeoutMillis) throws IOException, InterruptedException {
+		long deadline = System.nanoTime() + (timeoutMillis * 1_000_000L);
+		while (!condition.isMet()) {
+			if (System.nanoTime() > deadline) {
+				return false;
+			}
+			Thread.sleep(50);
+		}
+		return true;
+	}
+}
@@ -0,0 +1,59 @@
+package io.guw.knxutils.cli;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ProjectWatcherTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void run() throws Exception {
+		Path project = Files.writeString(directory.resolve("site.knxproj"), "v1");
+		Path output = directory.resolve("openhab");
+		Files.createDirectories(output);
+		Path things = Files.writeString(output.resolve("mg1.things"), "Thing");
+
+		BlockingQueue<Path> changed = new LinkedBlockingQueue<>();
+		try (ProjectWatcher watcher = new ProjectWatcher(Duration.ofMillis(100))) {
+			watcher.watchProject(project);
+			watcher.watchOutput(output, true, project);
+			Thread thread = new Thread(() -> {
+				try {
+					watcher.run(changed::add);
+				} catch (InterruptedException | RuntimeException e) {
+					// stopped
+				}
+			});
+			thread.start();
+			try {
+				// several writes are reported once
+				Files.writeString(project, "v2");
+				Files.writeString(project, "v3");
+				assertEquals(project.toAbsolutePath(), changed.poll(10, SECONDS));
+				assertNull(changed.poll(500, MILLISECONDS));
+
+				// temporary files in output directories are ignored
+				Files.delete(Files.writeString(output.resolve(".mg1.things.tmp"), "Thing"));
+				Files.delete(things);
+				assertEquals(project.toAbsolutePath(), changed.poll(10, SECONDS));
+				assertNull(changed.poll(500, MILLISECONDS));
+			} finally {
+				thread.interrupt();
+				thread.join();
+			}
+		}
+	}
+}
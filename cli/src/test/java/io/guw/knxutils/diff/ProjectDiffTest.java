@@ -0,0 +1,84 @@
+package io.guw.knxutils.diff;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.guw.knxutils.knxprojectparser.Area;
+import io.guw.knxutils.knxprojectparser.CommunicationObject;
+import io.guw.knxutils.knxprojectparser.Device;
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+import io.guw.knxutils.knxprojectparser.GroupAddressRange;
+import io.guw.knxutils.knxprojectparser.Line;
+import io.guw.knxutils.semanticanalyzer.Light;
+
+public class ProjectDiffTest {
+
+	private static Device newDevice(String datapointType, GroupAddress ga, GroupAddress statusGa) {
+		Area area = new Area("A-1", "1", "Bereich", null);
+		Line line = new Line(area, "L-1", "1", "Linie", null);
+		Device device = new Device(line, "D-1", "5", "Schaltaktor", null);
+		CommunicationObject co = new CommunicationObject(device, "CO-1", datapointType, "Schalten", false);
+		co.setSendGroupAddress(ga);
+		co.getListenGroupAddresses().add(statusGa);
+		device.getCommunicationObjects().add(co);
+		return device;
+	}
+
+	@Test
+	public void compare() {
+		GroupAddressRange range = new GroupAddressRange(null, "R-1", 2048, 4095, "Licht", null);
+		GroupAddress oldGa = new GroupAddress(range, "GA-1", 2048, "Küche Licht", null, "DPST-1-1");
+		GroupAddress oldStatusGa = new GroupAddress(range, "GA-2", 2049, "Küche Licht Status", null, "DPST-1-11");
+		GroupAddress removedGa = new GroupAddress(range, "GA-3", 2050, "Flur", null, "DPST-1-1");
+		Device oldDevice = newDevice("DPST-1-1", oldGa, oldStatusGa);
+
+		GroupAddress newGa = new GroupAddress(range, "GA-1", 2048, "Küche Decke", null, "DPST-1-1");
+		// deleted and created again at the same address
+		GroupAddress newStatusGa = new GroupAddress(range, "GA-9", 2049, "Küche Licht Status", null, "DPST-1-11");
+		GroupAddress addedGa = new GroupAddress(range, "GA-4", 2060, "Bad", null, "DPST-1-1");
+		Device newDevice = newDevice("DPST-1-2", newGa, newStatusGa);
+
+		ProjectDiff diff = ProjectDiff.compare(List.of(oldGa, oldStatusGa, removedGa), List.of(oldDevice),
+				List.of(new Light("Küche Licht", oldGa, oldStatusGa)), List.of(newGa, newStatusGa, addedGa),
+				List.of(newDevice),
+				List.of(new Light("Küche Decke", newGa, newStatusGa), new Light("Bad", addedGa, null)));
+
+		assertEquals(List.of(
+				"~ ga 1/0/0 \"Küche Decke\" (name)",
+				"- ga 1/0/2 \"Flur\"",
+				"+ ga 1/0/12 \"Bad\"",
+				"~ co 1.1.5 CO-1 \"Schalten\" (datapointType)",
+				"~ light 1/0/0 \"Küche Decke\" (name)",
+				"+ light 1/0/12 \"Bad\""),
+				diff.getChanges().stream().map(Object::toString).collect(toList()));
+		assertEquals("ga: 1 added, 1 removed, 1 modified\n"
+				+ "device: 0 added, 0 removed, 0 modified\n"
+				+ "co: 0 added, 0 removed, 1 modified\n"
+				+ "light: 1 added, 0 removed, 1 modified\n", diff.getSummary());
+	}
+
+	@Test
+	public void compareKeys() {
+		assertTrue(ProjectDiff.compareKeys("1/0/2", "1/0/10") < 0);
+		assertTrue(ProjectDiff.compareKeys("1.1.10", "1.1.9") > 0);
+		assertTrue(ProjectDiff.compareKeys("1.1.5 O-1", "1.1.5") > 0);
+		assertEquals(0, ProjectDiff.compareKeys("1/0/2", "1/0/2"));
+	}
+
+	@Test
+	public void equal() {
+		GroupAddressRange range = new GroupAddressRange(null, "R-1", 2048, 4095, "Licht", null);
+		GroupAddress ga = new GroupAddress(range, "GA-1", 2048, "Küche Licht", null, "DPST-1-1");
+		Device device = newDevice("DPST-1-1", ga, ga);
+
+		ProjectDiff diff = ProjectDiff.compare(List.of(ga), List.of(device), List.of(), List.of(ga), List.of(device),
+				List.of());
+
+		assertTrue(diff.isEmpty());
+	}
+}
@@ -0,0 +1,50 @@
+package io.guw.knxutils.homeassistant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.Yaml;
+
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+import io.guw.knxutils.semanticanalyzer.DimmableLight;
+import io.guw.knxutils.semanticanalyzer.Light;
+
+public class HomeAssistantKnxExporterTest {
+
+	private static GroupAddress ga(int address, String name) {
+		return new GroupAddress(null, "GA-" + address, address, name, null, null);
+	}
+
+	@Test
+	public void exportLights() throws Exception {
+		StringWriter out = new StringWriter();
+		try (HomeAssistantKnxExporter exporter = new HomeAssistantKnxExporter(new YamlBuilder(out, 2))) {
+			exporter.exportLights(List.of(new Light("Küche \"Decke\"", ga(2048, "Küche Decke"), ga(2049, null)),
+					new DimmableLight("Bad", ga(2050, "Bad"), ga(2051, null), ga(2052, null), ga(2053, null),
+							ga(2054, null))));
+			assertEquals(2, exporter.getExportedCount());
+		}
+
+		Map<String, List<Map<String, String>>> config = new Yaml().load(out.toString());
+		List<Map<String, String>> lights = config.get("light");
+		assertEquals(2, lights.size());
+		assertEquals(Map.of("name", "Küche \"Decke\"", "address", "1/0/0", "state_address", "1/0/1"), lights.get(0));
+		assertEquals(Map.of("name", "Bad", "address", "1/0/2", "state_address", "1/0/3", "brightness_address", "1/0/5",
+				"brightness_state_address", "1/0/6"), lights.get(1));
+	}
+
+	@Test
+	public void exportLights_none() throws Exception {
+		StringWriter out = new StringWriter();
+		try (HomeAssistantKnxExporter exporter = new HomeAssistantKnxExporter(new YamlBuilder(out, 2))) {
+			exporter.exportLights(List.of());
+		}
+
+		Map<String, List<?>> config = new Yaml().load(out.toString());
+		assertEquals(List.of(), config.get("light"));
+	}
+}
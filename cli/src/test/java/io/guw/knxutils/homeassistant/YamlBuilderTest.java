@@ -0,0 +1,40 @@
+package io.guw.knxutils.homeassistant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+public class YamlBuilderTest {
+
+	private static final String NL = System.lineSeparator();
+
+	@Test
+	public void append_indent() throws Exception {
+		StringWriter out = new StringWriter();
+		try (YamlBuilder yaml = new YamlBuilder(out, 2)) {
+			yaml.append("light:\n").indent();
+			yaml.append("- name: ").append(new StringBuilder("Küche")).append('\n');
+			yaml.indent().append("address: '1/0/0'\r\n\n").outdent();
+			yaml.append("- name: Bad\n");
+		}
+
+		assertEquals("light:" + NL + "  - name: Küche" + NL + "    address: '1/0/0'" + NL + NL + "  - name: Bad" + NL,
+				out.toString());
+	}
+
+	@Test
+	public void append_smallBuffer() throws Exception {
+		StringWriter out = new StringWriter();
+		String line = "0123456789".repeat(10);
+		try (YamlBuilder yaml = new YamlBuilder(out, 4, 7)) {
+			yaml.indent().indent();
+			for (int i = 0; i < 3; i++) {
+				yaml.append(line).append('\n');
+			}
+			yaml.flush();
+			assertEquals(3 * (8 + line.length() + NL.length()), out.toString().length());
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package io.guw.knxutils.ndjson;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.yaml.snakeyaml.Yaml;
+
+import io.guw.knxutils.knxprojectparser.KnxProjectFile;
+import io.guw.knxutils.output.JsonWriter;
+
+public class NdjsonExporterTest {
+
+	private static final String PROJECT_INFO = "<KNX><Project Id=\"P-0001\">"
+			+ "<ProjectInformation Name=\"Haus\" /></Project></KNX>";
+
+	private static final String PROJECT_DATA = "<KNX><Project Id=\"P-0001\"><Installations><Installation>"
+			+ "<Topology><Area Id=\"A-1\" Address=\"1\" Name=\"EG\"><Line Id=\"L-1\" Address=\"1\" Name=\"Linie\">"
+			+ "<DeviceInstance Id=\"D-1\" Address=\"5\" Name=\"Aktor\" Description=\"Verteiler\">"
+			+ "<ComObjectInstanceRefs><ComObjectInstanceRef RefId=\"O-1\" ReadFlag=\"Enabled\"><Connectors>"
+			+ "<Send GroupAddressRefId=\"GA-1\" /><Receive GroupAddressRefId=\"GA-2\" />"
+			+ "</Connectors></ComObjectInstanceRef></ComObjectInstanceRefs>"
+			+ "</DeviceInstance></Line></Area></Topology>"
+			+ "<GroupAddresses><GroupRanges>"
+			+ "<GroupRange Id=\"R-1\" RangeStart=\"2048\" RangeEnd=\"4095\" Name=\"Licht\">"
+			+ "<GroupRange Id=\"R-2\" RangeStart=\"2048\" RangeEnd=\"2303\" Name=\"Küche\">"
+			+ "<GroupAddress Id=\"GA-2\" Address=\"2049\" Name=\"Decke \\&quot;Status\\&quot;\" />"
+			+ "<GroupAddress Id=\"GA-1\" Address=\"2048\" Name=\"Decke\" />"
+			+ "</GroupRange></GroupRange></GroupRanges></GroupAddresses>"
+			+ "</Installation></Installations></Project></KNX>";
+
+	@TempDir
+	Path directory;
+
+	private static void addEntry(ZipOutputStream zip, String name, String content) throws Exception {
+		zip.putNextEntry(new ZipEntry(name));
+		zip.write(content.getBytes(UTF_8));
+		zip.closeEntry();
+	}
+
+	@Test
+	public void export() throws Exception {
+		Path knxproj = directory.resolve("Haus.knxproj");
+		try (OutputStream out = Files.newOutputStream(knxproj); ZipOutputStream zip = new ZipOutputStream(out)) {
+			addEntry(zip, "P-0001/project.xml", PROJECT_INFO);
+			addEntry(zip, "P-0001/0.xml", PROJECT_DATA);
+		}
+		KnxProjectFile knxProjectFile = new KnxProjectFile(knxproj.toFile());
+		knxProjectFile.open();
+
+		StringWriter out = new StringWriter();
+		long recordCount;
+		try (NdjsonExporter exporter = new NdjsonExporter(new JsonWriter(out))) {
+			exporter.export(knxProjectFile);
+			recordCount = exporter.getRecordCount();
+		}
+
+		String[] lines = out.toString().split("\n");
+		assertEquals(11, recordCount);
+		assertEquals(11, lines.length);
+
+		Yaml yaml = new Yaml();
+		List<Map<String, Object>> records = List.of(lines).stream().map((line) -> yaml.<Map<String, Object>>load(line))
+				.collect(Collectors.toList());
+		assertEquals(List.of("project", "area", "line", "device", "co", "range", "range", "ga", "ga", "link", "link"),
+				records.stream().map((r) -> r.get("type")).collect(Collectors.toList()));
+
+		assertEquals(Map.of("type", "project", "id", "P-0001", "name", "Haus"), records.get(0));
+		assertEquals("L-1", records.get(3).get("line"));
+		assertEquals("1.1.5", records.get(3).get("address"));
+		assertEquals(true, records.get(4).get("readFlag"));
+		assertEquals("R-1", records.get(6).get("parent"));
+		assertEquals("1/0/0", records.get(7).get("address"));
+		assertEquals("R-2", records.get(7).get("range"));
+		assertEquals("Decke \\\"Status\\\"", records.get(8).get("name"));
+		assertEquals(Map.of("type", "link", "device", "D-1", "refId", "O-1", "ga", "GA-1", "direction", "send"),
+				records.get(9));
+		assertEquals("listen", records.get(10).get("direction"));
+	}
+}
@@ -0,0 +1,86 @@
+package io.guw.knxutils.openhab;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+import io.guw.knxutils.knxprojectparser.GroupAddressRange;
+import io.guw.knxutils.output.OutputFiles;
+import io.guw.knxutils.semanticanalyzer.DimmableLight;
+import io.guw.knxutils.semanticanalyzer.Light;
+
+public class OpenHabExporterTest {
+
+	@TempDir
+	Path outputDirectory;
+
+	@Test
+	public void compile_render() throws Exception {
+		Template template = Template.compile("${a} + ${b} = ${a}${b}", "a", "b");
+		StringBuilder out = new StringBuilder();
+		template.render(out, "1", "2");
+		assertEquals("1 + 2 = 12", out.toString());
+
+		assertThrows(IllegalArgumentException.class, () -> Template.compile("${c}", "a"));
+		assertThrows(IllegalArgumentException.class, () -> template.render(out, "1"));
+	}
+
+	@Test
+	public void exportLights() throws Exception {
+		GroupAddressRange licht = new GroupAddressRange(null, "R-1", 2048, 4095, "Licht Küche", null);
+		GroupAddressRange dimmen = new GroupAddressRange(null, "R-2", 4096, 6143, "Dimmen", null);
+		List<Light> lights = List.of(
+				new Light("Decke \"Mitte\"", new GroupAddress(licht, "GA-1", 2048, "Decke", null, null),
+						new GroupAddress(licht, "GA-2", 2049, null, null, null)),
+				new DimmableLight("Bad", new GroupAddress(dimmen, "GA-3", 4096, "Bad", null, null), null,
+						new GroupAddress(dimmen, "GA-4", 4097, null, null, null),
+						new GroupAddress(dimmen, "GA-5", 4098, null, null, null),
+						new GroupAddress(dimmen, "GA-6", 4099, null, null, null)));
+
+		List<Path> files = new OpenHabExporter(outputDirectory).exportLights(lights);
+		assertEquals(4, files.size());
+
+		assertEquals(List.of("Thing knx:device:bridge:mg1_licht_kueche \"Licht Küche\" (knx:ip:bridge) {",
+				"\tChannels:", "\t\tType switch : light_1_0_0 \"Decke \\\"Mitte\\\"\" [ ga=\"1/0/0+<1/0/1\" ]", "}"),
+				Files.readAllLines(outputDirectory.resolve("mg1_licht_kueche.things"), UTF_8));
+		assertEquals(List.of(
+				"Switch Light_1_0_0 \"Decke \\\"Mitte\\\"\" { channel=\"knx:device:bridge:mg1_licht_kueche:light_1_0_0\" }"),
+				Files.readAllLines(outputDirectory.resolve("mg1_licht_kueche.items"), UTF_8));
+		assertEquals(
+				"\t\tType dimmer : light_2_0_0 \"Bad\" [ switch=\"2/0/0\", position=\"5.001:2/0/2+<2/0/3\", increaseDecrease=\"3.007:2/0/1\" ]",
+				Files.readAllLines(outputDirectory.resolve("mg2_dimmen.things"), UTF_8).get(2));
+	}
+
+	@Test
+	public void exportLights_deletesStaleFiles() throws Exception {
+		GroupAddressRange licht = new GroupAddressRange(null, "R-1", 2048, 4095, "Licht", null);
+		GroupAddressRange keller = new GroupAddressRange(null, "R-2", 4096, 6143, "Keller", null);
+		Light kitchen = new Light("Küche", new GroupAddress(licht, "GA-1", 2048, "Küche", null, null),
+				new GroupAddress(licht, "GA-2", 2049, null, null, null));
+		Light cellar = new Light("Keller", new GroupAddress(keller, "GA-3", 4096, "Keller", null, null),
+				new GroupAddress(keller, "GA-4", 4097, null, null, null));
+		new OpenHabExporter(outputDirectory).exportLights(List.of(kitchen, cellar));
+		Path otherFile = Files.writeString(outputDirectory.resolve("bridge.things"), "Bridge", UTF_8);
+
+		// the cellar light was removed
+		OutputFiles outputFiles = new OutputFiles();
+		new OpenHabExporter(outputDirectory, outputFiles).exportLights(List.of(kitchen));
+
+		assertEquals(2, outputFiles.getDeletedCount());
+		assertEquals("0 files changed, 2 unchanged, 2 deleted", outputFiles.getSummary());
+		assertFalse(Files.exists(outputDirectory.resolve("mg2_keller.things")));
+		assertFalse(Files.exists(outputDirectory.resolve("mg2_keller.items")));
+		assertTrue(Files.exists(outputDirectory.resolve("mg1_licht.things")));
+		assertTrue(Files.exists(otherFile));
+	}
+}
@@ -0,0 +1,41 @@
+package io.guw.knxutils.output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+public class JsonWriterTest {
+
+	@Test
+	public void newLine() throws Exception {
+		StringWriter out = new StringWriter();
+		try (JsonWriter json = new JsonWriter(out)) {
+			json.beginObject().name("n").value(Long.MIN_VALUE).endObject().newLine();
+			json.beginObject().name("n").value(-1205L).name("c").value("\u0001").endObject().newLine();
+			json.value(0).newLine();
+			json.beginArray();
+			assertThrows(IllegalStateException.class, json::newLine);
+		}
+
+		assertEquals("{\"n\":-9223372036854775808}\n{\"n\":-1205,\"c\":\"\\u0001\"}\n0\n[", out.toString());
+	}
+
+	@Test
+	public void write() throws Exception {
+		StringWriter out = new StringWriter();
+		try (JsonWriter json = new JsonWriter(out)) {
+			json.beginObject();
+			json.name("name").value("Küche \"Decke\"\n");
+			json.name("count").value(2);
+			json.name("values").beginArray().value(true).nullValue().beginObject().endObject().endArray();
+			json.name("ratio").value(Double.NaN);
+			json.endObject();
+		}
+
+		assertEquals("{\"name\":\"Küche \\\"Decke\\\"\\n\",\"count\":2,\"values\":[true,null,{}],\"ratio\":null}",
+				out.toString());
+	}
+}
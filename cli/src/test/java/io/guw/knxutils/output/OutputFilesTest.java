@@ -0,0 +1,66 @@
+package io.guw.knxutils.output;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class OutputFilesTest {
+
+	@TempDir
+	Path directory;
+
+	private List<Path> listDirectory() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.collect(Collectors.toList());
+		}
+	}
+
+	@Test
+	public void write() throws Exception {
+		Path file = directory.resolve("knx.yaml");
+		OutputFiles outputFiles = new OutputFiles();
+
+		assertTrue(outputFiles.write(file, (out) -> out.write("light: []\n")));
+		FileTime lastModified = FileTime.fromMillis(0);
+		Files.setLastModifiedTime(file, lastModified);
+
+		assertFalse(outputFiles.write(file, (out) -> out.write("light: []\n")));
+		assertEquals(lastModified, Files.getLastModifiedTime(file));
+
+		assertTrue(outputFiles.write(file, (out) -> out.write("light: [] \n")));
+		assertEquals("light: [] \n", Files.readString(file, UTF_8));
+
+		assertEquals(2, outputFiles.getChangedCount());
+		assertEquals(1, outputFiles.getUnchangedCount());
+		assertEquals(List.of(file), listDirectory());
+	}
+
+	@Test
+	public void write_failure() throws Exception {
+		Path file = directory.resolve("knx.yaml");
+		Files.writeString(file, "old", UTF_8);
+		OutputFiles outputFiles = new OutputFiles();
+
+		assertThrows(IOException.class, () -> outputFiles.write(file, (out) -> {
+			out.write("new");
+			throw new IOException("failed");
+		}));
+
+		assertEquals("old", Files.readString(file, UTF_8));
+		assertEquals(List.of(file), listDirectory());
+		assertEquals(0, outputFiles.getChangedCount());
+	}
+}
@@ -0,0 +1,106 @@
+package io.guw.knxutils.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.guw.knxutils.knxprojectparser.Area;
+import io.guw.knxutils.knxprojectparser.CommunicationObject;
+import io.guw.knxutils.knxprojectparser.Device;
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+import io.guw.knxutils.knxprojectparser.GroupAddressRange;
+import io.guw.knxutils.knxprojectparser.Line;
+import io.guw.knxutils.semanticanalyzer.Light;
+
+public class QueryServerTest {
+
+	private QueryServer server;
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private HttpResponse<String> get(String pathAndQuery) throws Exception {
+		URI uri = URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort()
+				+ pathAndQuery);
+		return client.send(HttpRequest.newBuilder(uri).build(), BodyHandlers.ofString());
+	}
+
+	@Test
+	public void get_device() throws Exception {
+		HttpResponse<String> response = get("/devices/1.1.5");
+		assertEquals(200, response.statusCode());
+		assertTrue(response.body().contains("\"send\":\"1/0/0\",\"listen\":[\"1/0/1\"]"), response.body());
+	}
+
+	@Test
+	public void get_groupAddress() throws Exception {
+		HttpResponse<String> response = get("/ga/1/0/1");
+		assertEquals(200, response.statusCode());
+		assertTrue(response.body().startsWith("[{\"project\":\"site\",\"address\":\"1/0/1\""), response.body());
+		assertTrue(response.body().contains("\"writers\":[],\"listeners\":[{\"device\":\"1.1.5\""), response.body());
+
+		assertEquals(404, get("/ga/9/9/9").statusCode());
+		assertEquals(404, get("/ga/1/0/1?project=other").statusCode());
+	}
+
+	@Test
+	public void get_lights() throws Exception {
+		assertTrue(get("/lights?range=licht").body().contains("\"address\":\"1/0/0\",\"statusAddress\":\"1/0/1\""));
+		assertEquals("[]", get("/lights?range=2/0/0-2/7/255").body());
+		assertEquals("[]", get("/lights?range=unknown").body());
+	}
+
+	@Test
+	public void get_metrics() throws Exception {
+		get("/ga/1/0/1");
+		get("/ga/9/9/9");
+
+		// metrics are recorded after the response was sent
+		LatencyMetrics metrics = server.getMetrics().get("/ga/");
+		for (int i = 0; (i < 100) && (metrics.getCount() < 2); i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(2, metrics.getCount());
+		HttpResponse<String> response = get("/metrics");
+		assertTrue(response.body().contains("\"/ga/\":{\"count\":2,\"errors\":1,"), response.body());
+		assertEquals(404, get("/unknown").statusCode());
+	}
+
+	@BeforeEach
+	public void start() throws Exception {
+		Area area = new Area("A-1", "1", "Bereich", null);
+		Line line = new Line(area, "L-1", "1", "Linie", null);
+		Device device = new Device(line, "D-1", "5", "Schaltaktor", null);
+
+		GroupAddressRange range = new GroupAddressRange(null, "R-1", 2048, 4095, "Licht", null);
+		GroupAddress ga = new GroupAddress(range, "GA-1", 2048, "Küche Licht", null, "DPST-1-1");
+		GroupAddress statusGa = new GroupAddress(range, "GA-2", 2049, "Küche Licht Status", null, "DPST-1-11");
+
+		CommunicationObject co = new CommunicationObject(device, "CO-1", "DPST-1-1", "Schalten", false);
+		device.getCommunicationObjects().add(co);
+		co.setSendGroupAddress(ga);
+		co.getListenGroupAddresses().add(statusGa);
+		statusGa.getListeningCommunicationObjects().add(co);
+
+		ProjectIndex project = new ProjectIndex("site", new File("site.knxproj"), List.of(ga, statusGa),
+				List.of(device), List.of(new Light("Küche", ga, statusGa)));
+		server = new QueryServer(List.of(project), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2);
+		server.start();
+	}
+
+	@AfterEach
+	public void stop() {
+		server.close();
+	}
+}
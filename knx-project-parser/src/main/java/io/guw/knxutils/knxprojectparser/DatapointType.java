@@ -19,9 +19,28 @@ public enum DatapointType {
 
 	State("1.011"),
 
+	SwitchControl("2.001"),
+
 	ControlDimming("3.007"),
+	ControlBlinds("3.008"),
 
 	Scaling("5.001"),
+	Value1Ucount("5.010"),
+
+	Value2Ucount("7.001"),
+
+	Temperature("9.001"),
+	Lux("9.004"),
+
+	Value4Ucount("12.001"),
+
+	Value4Count("13.001"),
+	ActiveEnergy("13.010"),
+
+	Power("14.056"),
+
+	StringAscii("16.000"),
+	StringLatin1("16.001"),
 
 	// @formatter:on
 	;
@@ -44,9 +63,19 @@ public enum DatapointType {
 	}
 
 	private final String value;
+	private final int mainNumber;
 
 	private DatapointType(String value) {
 		this.value = value;
+		mainNumber = Integer.parseInt(value.substring(0, value.indexOf('.')));
+	}
+
+	/**
+	 * @return the main number of the DPT (eg., <code>9</code> for
+	 *         <code>9.001</code>) which defines the encoding of values
+	 */
+	public int getMainNumber() {
+		return mainNumber;
 	}
 
 	public String getValue() {
@@ -0,0 +1,453 @@
+package io.guw.knxutils.knxprojectparser;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes and decodes values of common DPT families to and from raw APDU
+ * payload bytes.
+ * <p>
+ * All methods read or write at the current position of the buffer and advance
+ * it (relative access). Values are returned and accepted as primitives and
+ * multi-byte values are always big-endian regardless of the buffer's byte
+ * order. Nothing is allocated; thus, the codec can be used on hot paths
+ * processing bus traffic.
+ * </p>
+ * <p>
+ * DPTs of six bits or less (families 1, 2 and 3) are transmitted within the
+ * low bits of the last APCI byte. Their payload is this single byte. Decoding
+ * ignores the APCI bits; encoding writes the value bits only and callers have
+ * to combine them with the APCI.
+ * </p>
+ * <p>
+ * Supported families are 1.x, 2.x, 3.x, 5.x, 7.x, 9.x, 12.x, 13.x, 14.x and
+ * 16.x. This class is thread-safe.
+ * </p>
+ */
+public final class DptCodec {
+
+	/** size of a 16.x string in bytes */
+	public static final int STRING_LENGTH = 14;
+
+	private static final int FLOAT16_INVALID = 0x7fff;
+	/** the largest valid value; mantissa 2047 with exponent 15 encodes invalid data */
+	private static final double FLOAT16_MAX = 2046 * (1 << 15) * 0.01;
+	private static final double FLOAT16_MIN = -2048 * (1 << 15) * 0.01;
+
+	private static void checkRange(long value, long min, long max) {
+		if ((value < min) || (value > max)) {
+			throw new IllegalArgumentException("Value " + value + " out of range [" + min + ", " + max + "]");
+		}
+	}
+
+	/**
+	 * Decodes a 1.x value (eg., {@link DatapointType#Switch}).
+	 *
+	 * @param payload the buffer to read one byte from
+	 * @return the value
+	 */
+	public static boolean decodeBoolean(ByteBuffer payload) {
+		return (payload.get() & 0x01) != 0;
+	}
+
+	/**
+	 * Decodes a 2.x value (eg., {@link DatapointType#SwitchControl}).
+	 *
+	 * @param payload the buffer to read one byte from
+	 * @return the control bit (<code>0b10</code>) and the value bit
+	 *         (<code>0b01</code>)
+	 */
+	public static int decodeControl(ByteBuffer payload) {
+		return payload.get() & 0x03;
+	}
+
+	/**
+	 * Decodes a 9.x two-byte float value (eg., {@link DatapointType#Temperature}).
+	 *
+	 * @param payload the buffer to read two bytes from
+	 * @return the value ({@link Double#NaN} if the device reported invalid data)
+	 */
+	public static double decodeFloat16(ByteBuffer payload) {
+		int raw = readUnsigned16(payload);
+		if (raw == FLOAT16_INVALID) {
+			return Double.NaN;
+		}
+
+		// 12 bit two's complement mantissa with the sign in the highest bit
+		int mantissa = raw & 0x07ff;
+		if ((raw & 0x8000) != 0) {
+			mantissa -= 0x0800;
+		}
+		int exponent = (raw >>> 11) & 0x0f;
+		return (mantissa << exponent) * 0.01;
+	}
+
+	/**
+	 * Decodes a 14.x four-byte float value (eg., {@link DatapointType#Power}).
+	 *
+	 * @param payload the buffer to read four bytes from
+	 * @return the value
+	 */
+	public static float decodeFloat32(ByteBuffer payload) {
+		return Float.intBitsToFloat(readInt(payload));
+	}
+
+	/**
+	 * Decodes a value of a numeric DPT.
+	 * <p>
+	 * Booleans are decoded as <code>0</code> or <code>1</code>.
+	 * {@link DatapointType#Scaling} is decoded as percent; all other values are
+	 * decoded without conversion.
+	 * </p>
+	 *
+	 * @param dpt     the DPT
+	 * @param payload the buffer to read {@link #getPayloadSize(DatapointType)}
+	 *                bytes from
+	 * @return the value
+	 * @throws IllegalArgumentException if the DPT is not numeric
+	 */
+	public static double decodeNumber(DatapointType dpt, ByteBuffer payload) {
+		switch (dpt.getMainNumber()) {
+		case 1:
+			return decodeBoolean(payload) ? 1 : 0;
+		case 2:
+			return decodeControl(payload);
+		case 3:
+			return decodeStep(payload);
+		case 5:
+			int value = decodeUnsigned8(payload);
+			return (dpt == DatapointType.Scaling) ? (value * 100.0) / 255 : value;
+		case 7:
+			return decodeUnsigned16(payload);
+		case 9:
+			return decodeFloat16(payload);
+		case 12:
+			return decodeUnsigned32(payload);
+		case 13:
+			return decodeSigned32(payload);
+		case 14:
+			return decodeFloat32(payload);
+		default:
+			throw new IllegalArgumentException("Not a numeric DPT: " + dpt.getValue());
+		}
+	}
+
+	/**
+	 * Decodes a 13.x four-byte signed value (eg.,
+	 * {@link DatapointType#ActiveEnergy}).
+	 *
+	 * @param payload the buffer to read four bytes from
+	 * @return the value
+	 */
+	public static int decodeSigned32(ByteBuffer payload) {
+		return readInt(payload);
+	}
+
+	/**
+	 * Decodes a 3.x value (eg., {@link DatapointType#ControlDimming}).
+	 *
+	 * @param payload the buffer to read one byte from
+	 * @return the direction bit (<code>0b1000</code>) and the step code
+	 *         (<code>0b0111</code>, <code>0</code> is break)
+	 */
+	public static int decodeStep(ByteBuffer payload) {
+		return payload.get() & 0x0f;
+	}
+
+	/**
+	 * Decodes a 16.x string (eg., {@link DatapointType#StringLatin1}).
+	 * <p>
+	 * The string ends at the first <code>NUL</code> character. Bytes are
+	 * mapped to ISO-8859-1 characters which is a superset of ASCII.
+	 * </p>
+	 *
+	 * @param payload     the buffer to read {@value #STRING_LENGTH} bytes from
+	 * @param destination the array receiving the characters (must hold at least
+	 *                    {@value #STRING_LENGTH} characters)
+	 * @return the length of the string
+	 */
+	public static int decodeString(ByteBuffer payload, char[] destination) {
+		int length = -1;
+		for (int i = 0; i < STRING_LENGTH; i++) {
+			int c = payload.get() & 0xff;
+			if ((c == 0) && (length < 0)) {
+				length = i;
+			}
+			if (length < 0) {
+				destination[i] = (char) c;
+			}
+		}
+		return (length < 0) ? STRING_LENGTH : length;
+	}
+
+	/**
+	 * Decodes a 7.x two-byte unsigned value (eg.,
+	 * {@link DatapointType#Value2Ucount}).
+	 *
+	 * @param payload the buffer to read two bytes from
+	 * @return the value
+	 */
+	public static int decodeUnsigned16(ByteBuffer payload) {
+		return readUnsigned16(payload);
+	}
+
+	/**
+	 * Decodes a 12.x four-byte unsigned value (eg.,
+	 * {@link DatapointType#Value4Ucount}).
+	 *
+	 * @param payload the buffer to read four bytes from
+	 * @return the value
+	 */
+	public static long decodeUnsigned32(ByteBuffer payload) {
+		return readInt(payload) & 0xffffffffL;
+	}
+
+	/**
+	 * Decodes a 5.x one-byte unsigned value (eg., {@link DatapointType#Scaling}
+	 * without conversion to percent).
+	 *
+	 * @param payload the buffer to read one byte from
+	 * @return the value
+	 */
+	public static int decodeUnsigned8(ByteBuffer payload) {
+		return payload.get() & 0xff;
+	}
+
+	/**
+	 * Encodes a 1.x value.
+	 *
+	 * @param payload the buffer to write one byte to
+	 * @param value   the value
+	 */
+	public static void encodeBoolean(ByteBuffer payload, boolean value) {
+		payload.put((byte) (value ? 0x01 : 0x00));
+	}
+
+	/**
+	 * Encodes a 2.x value.
+	 *
+	 * @param payload the buffer to write one byte to
+	 * @param value   the control bit (<code>0b10</code>) and the value bit
+	 *                (<code>0b01</code>)
+	 */
+	public static void encodeControl(ByteBuffer payload, int value) {
+		checkRange(value, 0, 0x03);
+		payload.put((byte) value);
+	}
+
+	/**
+	 * Encodes a 9.x two-byte float value.
+	 * <p>
+	 * The value is rounded to the precision available for its magnitude
+	 * (<code>0.01</code> for values up to <code>20.47</code>).
+	 * </p>
+	 *
+	 * @param payload the buffer to write two bytes to
+	 * @param value   the value (<code>-671088.64</code> to
+	 *                <code>670433.28</code> or {@link Double#NaN} for invalid
+	 *                data)
+	 */
+	public static void encodeFloat16(ByteBuffer payload, double value) {
+		if (Double.isNaN(value)) {
+			writeUnsigned16(payload, FLOAT16_INVALID);
+			return;
+		}
+		if ((value < FLOAT16_MIN) || (value > FLOAT16_MAX)) {
+			throw new IllegalArgumentException("Value " + value + " out of range [" + FLOAT16_MIN + ", "
+					+ FLOAT16_MAX + "]");
+		}
+
+		double scaled = value * 100;
+		int exponent = 0;
+		long mantissa = Math.round(scaled);
+		while ((mantissa < -2048) || (mantissa > 2047)) {
+			exponent++;
+			mantissa = Math.round(scaled / (1 << exponent));
+		}
+		int sign = (mantissa < 0) ? 0x8000 : 0;
+		writeUnsigned16(payload, sign | (exponent << 11) | ((int) mantissa & 0x07ff));
+	}
+
+	/**
+	 * Encodes a 14.x four-byte float value.
+	 *
+	 * @param payload the buffer to write four bytes to
+	 * @param value   the value
+	 */
+	public static void encodeFloat32(ByteBuffer payload, float value) {
+		writeInt(payload, Float.floatToIntBits(value));
+	}
+
+	/**
+	 * Encodes a value of a numeric DPT.
+	 * <p>
+	 * This is the inverse of {@link #decodeNumber(DatapointType, ByteBuffer)}.
+	 * Values of integer DPTs are rounded.
+	 * </p>
+	 *
+	 * @param dpt     the DPT
+	 * @param payload the buffer to write {@link #getPayloadSize(DatapointType)}
+	 *                bytes to
+	 * @param value   the value
+	 * @throws IllegalArgumentException if the DPT is not numeric or the value is
+	 *                                  out of range
+	 */
+	public static void encodeNumber(DatapointType dpt, ByteBuffer payload, double value) {
+		switch (dpt.getMainNumber()) {
+		case 1:
+			encodeBoolean(payload, value != 0);
+			break;
+		case 2:
+			encodeControl(payload, (int) Math.round(value));
+			break;
+		case 3:
+			encodeStep(payload, (int) Math.round(value));
+			break;
+		case 5:
+			encodeUnsigned8(payload, (int) Math.round((dpt == DatapointType.Scaling) ? (value * 255) / 100 : value));
+			break;
+		case 7:
+			encodeUnsigned16(payload, (int) Math.round(value));
+			break;
+		case 9:
+			encodeFloat16(payload, value);
+			break;
+		case 12:
+			encodeUnsigned32(payload, Math.round(value));
+			break;
+		case 13:
+			long signed = Math.round(value);
+			checkRange(signed, Integer.MIN_VALUE, Integer.MAX_VALUE);
+			encodeSigned32(payload, (int) signed);
+			break;
+		case 14:
+			encodeFloat32(payload, (float) value);
+			break;
+		default:
+			throw new IllegalArgumentException("Not a numeric DPT: " + dpt.getValue());
+		}
+	}
+
+	/**
+	 * Encodes a 13.x four-byte signed value.
+	 *
+	 * @param payload the buffer to write four bytes to
+	 * @param value   the value
+	 */
+	public static void encodeSigned32(ByteBuffer payload, int value) {
+		writeInt(payload, value);
+	}
+
+	/**
+	 * Encodes a 3.x value.
+	 *
+	 * @param payload the buffer to write one byte to
+	 * @param value   the direction bit (<code>0b1000</code>) and the step code
+	 *                (<code>0b0111</code>)
+	 */
+	public static void encodeStep(ByteBuffer payload, int value) {
+		checkRange(value, 0, 0x0f);
+		payload.put((byte) value);
+	}
+
+	/**
+	 * Encodes a 16.x string.
+	 * <p>
+	 * The string is padded with <code>NUL</code> characters. Characters
+	 * outside of ISO-8859-1 are replaced with <code>?</code>.
+	 * </p>
+	 *
+	 * @param payload the buffer to write {@value #STRING_LENGTH} bytes to
+	 * @param value   the string (at most {@value #STRING_LENGTH} characters)
+	 */
+	public static void encodeString(ByteBuffer payload, CharSequence value) {
+		checkRange(value.length(), 0, STRING_LENGTH);
+		for (int i = 0; i < STRING_LENGTH; i++) {
+			char c = (i < value.length()) ? value.charAt(i) : 0;
+			payload.put((byte) ((c <= 0xff) ? c : '?'));
+		}
+	}
+
+	/**
+	 * Encodes a 7.x two-byte unsigned value.
+	 *
+	 * @param payload the buffer to write two bytes to
+	 * @param value   the value
+	 */
+	public static void encodeUnsigned16(ByteBuffer payload, int value) {
+		checkRange(value, 0, 0xffff);
+		writeUnsigned16(payload, value);
+	}
+
+	/**
+	 * Encodes a 12.x four-byte unsigned value.
+	 *
+	 * @param payload the buffer to write four bytes to
+	 * @param value   the value
+	 */
+	public static void encodeUnsigned32(ByteBuffer payload, long value) {
+		checkRange(value, 0, 0xffffffffL);
+		writeInt(payload, (int) value);
+	}
+
+	/**
+	 * Encodes a 5.x one-byte unsigned value.
+	 *
+	 * @param payload the buffer to write one byte to
+	 * @param value   the value
+	 */
+	public static void encodeUnsigned8(ByteBuffer payload, int value) {
+		checkRange(value, 0, 0xff);
+		payload.put((byte) value);
+	}
+
+	/**
+	 * @param dpt the DPT
+	 * @return the number of payload bytes of a value
+	 * @throws IllegalArgumentException if the DPT family is not supported
+	 */
+	public static int getPayloadSize(DatapointType dpt) {
+		switch (dpt.getMainNumber()) {
+		case 1:
+		case 2:
+		case 3:
+		case 5:
+			return 1;
+		case 7:
+		case 9:
+			return 2;
+		case 12:
+		case 13:
+		case 14:
+			return 4;
+		case 16:
+			return STRING_LENGTH;
+		default:
+			throw new IllegalArgumentException("Unsupported DPT: " + dpt.getValue());
+		}
+	}
+
+	private static int readInt(ByteBuffer payload) {
+		return ((payload.get() & 0xff) << 24) | ((payload.get() & 0xff) << 16) | ((payload.get() & 0xff) << 8)
+				| (payload.get() & 0xff);
+	}
+
+	private static int readUnsigned16(ByteBuffer payload) {
+		return ((payload.get() & 0xff) << 8) | (payload.get() & 0xff);
+	}
+
+	private static void writeInt(ByteBuffer payload, int value) {
+		payload.put((byte) (value >>> 24));
+		payload.put((byte) (value >>> 16));
+		payload.put((byte) (value >>> 8));
+		payload.put((byte) value);
+	}
+
+	private static void writeUnsigned16(ByteBuffer payload, int value) {
+		payload.put((byte) (value >>> 8));
+		payload.put((byte) value);
+	}
+
+	private DptCodec() {
+		// utility class
+	}
+}
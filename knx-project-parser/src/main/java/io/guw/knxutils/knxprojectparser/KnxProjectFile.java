@@ -110,14 +110,18 @@ public class KnxProjectFile {
 	}
 
 	private int readElementChildrenLevel;
+	private long elementCount;
+	private PhaseTimer timer = PhaseTimer.EVENTS_ONLY;
 
 	private final File file;
 
 	private String projectId;
 	private String projectName;
+	private final List<Area> areas = new ArrayList<>();
 	private final Map<String, Device> devicesById = new HashMap<>();
 
 	private final Map<String, GroupAddress> groupAddressById = new HashMap<>();
+	private final List<GroupAddressRange> groupAddressRanges = new ArrayList<>();
 
 	/**
 	 * Creates a new project file for the specified file.
@@ -128,6 +132,15 @@ public class KnxProjectFile {
 		file = knxProjFile;
 	}
 
+	/**
+	 * @return a list of areas read from the KNX project topology in document
+	 *         order (modifications to the areas themselves will reflect back;
+	 *         modifications to the list will not update anything in the project)
+	 */
+	public List<Area> getAreas() {
+		return new ArrayList<>(areas);
+	}
+
 	/**
 	 * @return a list of devices read from the KNX project (modifications to the
 	 *         devices themselves will reflect back; modifications to the list will
@@ -153,6 +166,16 @@ public class KnxProjectFile {
 		return new ArrayList<>(groupAddressById.values());
 	}
 
+	/**
+	 * @return a list of group address ranges read from the KNX project in
+	 *         document order, i.e. parents before their children (modifications
+	 *         to the ranges themselves will reflect back; modifications to the
+	 *         list will not update anything in the project)
+	 */
+	public List<GroupAddressRange> getGroupAddressRanges() {
+		return new ArrayList<>(groupAddressRanges);
+	}
+
 	/**
 	 * @return the internal project id used within the <code>.knxproj</code> file
 	 */
@@ -182,63 +205,44 @@ public class KnxProjectFile {
 	public void open() throws IOException, XMLStreamException {
 		LOG.info("Reading project: {}", file);
 
-		// find and extract projects
-		try (var zip = new ZipFile(file)) {
-			var zipEntries = zip.getEntries();
-			while (zipEntries.hasMoreElements()) {
-				var zipEntry = zipEntries.nextElement();
-
-				if (zipEntry.getName().endsWith("/project.xml") || zipEntry.getName().endsWith("/0.xml")) {
-					LOG.debug("Analyzing zip entry: {}", zipEntry);
-					var nameParts = zipEntry.getName().split("/");
-					if (nameParts.length != 2) {
-						LOG.warn("Found invalid zip entry: {}", zipEntry);
-						continue;
-					}
+		try (var phase = timer.start("open")) {
+			readZipFile();
+			linkCommunicationObjects();
+			phase.setCount(groupAddressById.size(), "GAs");
+		}
 
-					if (!nameParts[0].startsWith("P-")) {
-						LOG.warn("Found unsupported project id: {}", nameParts[0]);
-						continue;
-					}
+		LOG.debug("Found {} devices and {} GAs", devicesById.size(), groupAddressById.size());
+	}
 
-					setProjectId(nameParts[0]);
+	private void linkCommunicationObjects() {
+		LOG.debug("Connecting devices and GAs");
 
-					try (InputStream in = zip.getInputStream(zipEntry)) {
-						if (nameParts[1].equals("project.xml")) {
-							LOG.debug("Reading project info from: {}", zipEntry);
-							readProjectInfo(in);
-						} else if (nameParts[1].equals("0.xml")) {
-							LOG.debug("Reading project data from: {}", zipEntry);
-							readProjectData(in);
+		// sequential on purpose: GAs are shared by devices and their lists are not thread-safe
+		try (var phase = timer.start("link")) {
+			int linkCount = 0;
+			for (Device device : devicesById.values()) {
+				for (CommunicationObject c : device.getCommunicationObjects()) {
+					if (c.getSendGroupAddressRefId() != null) {
+						GroupAddress ga = groupAddressById.get(c.getSendGroupAddressRefId());
+						c.setSendGroupAddress(ga);
+						if (!ga.getWritingCommunicationObjects().contains(c)) {
+							ga.getWritingCommunicationObjects().add(c);
+						}
+						linkCount++;
+					}
+					List<GroupAddress> listeningGas = c.getListenGroupAddressRefIds().stream()
+							.map((id) -> groupAddressById.get(id)).collect(toList());
+					c.getListenGroupAddresses().addAll(listeningGas);
+					for (GroupAddress ga : listeningGas) {
+						if (!ga.getListeningCommunicationObjects().contains(c)) {
+							ga.getListeningCommunicationObjects().add(c);
 						}
+						linkCount++;
 					}
 				}
 			}
+			phase.setCount(linkCount, "links");
 		}
-
-		LOG.debug("Connecting devices and GAs");
-
-		devicesById.values().parallelStream().forEach((device) -> {
-			device.getCommunicationObjects().forEach((c) -> {
-				if (c.getSendGroupAddressRefId() != null) {
-					GroupAddress ga = groupAddressById.get(c.getSendGroupAddressRefId());
-					c.setSendGroupAddress(ga);
-					if (!ga.getWritingCommunicationObjects().contains(c)) {
-						ga.getWritingCommunicationObjects().add(c);
-					}
-				}
-				List<GroupAddress> listeningGas = c.getListenGroupAddressRefIds().stream()
-						.map((id) -> groupAddressById.get(id)).collect(toList());
-				c.getListenGroupAddresses().addAll(listeningGas);
-				listeningGas.forEach((ga) -> {
-					if (!ga.getListeningCommunicationObjects().contains(c)) {
-						ga.getListeningCommunicationObjects().add(c);
-					}
-				});
-			});
-		});
-
-		LOG.debug("Found {} devices and {} GAs", devicesById.size(), groupAddressById.size());
 	}
 
 	private void readArea(XMLStreamReader streamReader) throws XMLStreamException {
@@ -248,6 +252,7 @@ public class KnxProjectFile {
 		String description = streamReader.getAttributeValue(null, "Description");
 
 		var area = new Area(id, address, name, description);
+		areas.add(area);
 
 		readElementChildren(streamReader, (childName) -> {
 			if (childName.equals("Line")) {
@@ -303,6 +308,7 @@ public class KnxProjectFile {
 
 				switch (streamReader.getEventType()) {
 				case START_ELEMENT:
+					elementCount++;
 					readElementChildrenTrace("<{} ({})>", streamReader.getLocalName(), level);
 					if (level > 0) {
 						if (nestedElementHandler != null) {
@@ -412,6 +418,7 @@ public class KnxProjectFile {
 		}
 
 		var groupAddressRange = new GroupAddressRange(parent, id, start, end, name, description);
+		groupAddressRanges.add(groupAddressRange);
 
 		readElementChildren(streamReader, (elementName) -> {
 			if (elementName.equals("GroupRange")) {
@@ -454,11 +461,23 @@ public class KnxProjectFile {
 				if ("Project".equals(elementName)) {
 					verifyProjectId(streamReader);
 				} else if ("Topology".equals(elementName)) {
-					readTopology(streamReader);
+					try (var phase = timer.start("Topology")) {
+						long elementsAtStart = elementCount;
+						readTopology(streamReader);
+						phase.setCount(elementCount - elementsAtStart, "elements");
+					}
 				} else if ("Locations".equals(elementName)) {
-					readLocations(streamReader);
+					try (var phase = timer.start("Locations")) {
+						long elementsAtStart = elementCount;
+						readLocations(streamReader);
+						phase.setCount(elementCount - elementsAtStart, "elements");
+					}
 				} else if ("GroupAddresses".equals(elementName)) {
-					readGroupAddresses(streamReader);
+					try (var phase = timer.start("GroupAddresses")) {
+						long elementsAtStart = elementCount;
+						readGroupAddresses(streamReader);
+						phase.setCount(elementCount - elementsAtStart, "elements");
+					}
 				}
 			}
 		}
@@ -503,6 +522,44 @@ public class KnxProjectFile {
 		});
 	}
 
+	private void readZipFile() throws IOException, XMLStreamException {
+		// find and extract projects
+		try (var zip = new ZipFile(file)) {
+			var zipEntries = zip.getEntries();
+			while (zipEntries.hasMoreElements()) {
+				var zipEntry = zipEntries.nextElement();
+
+				if (zipEntry.getName().endsWith("/project.xml") || zipEntry.getName().endsWith("/0.xml")) {
+					LOG.debug("Analyzing zip entry: {}", zipEntry);
+					var nameParts = zipEntry.getName().split("/");
+					if (nameParts.length != 2) {
+						LOG.warn("Found invalid zip entry: {}", zipEntry);
+						continue;
+					}
+
+					if (!nameParts[0].startsWith("P-")) {
+						LOG.warn("Found unsupported project id: {}", nameParts[0]);
+						continue;
+					}
+
+					setProjectId(nameParts[0]);
+
+					try (var phase = timer.start(nameParts[1]);
+							InputStream in = zip.getInputStream(zipEntry)) {
+						if (nameParts[1].equals("project.xml")) {
+							LOG.debug("Reading project info from: {}", zipEntry);
+							readProjectInfo(in);
+						} else if (nameParts[1].equals("0.xml")) {
+							LOG.debug("Reading project data from: {}", zipEntry);
+							readProjectData(in);
+						}
+						phase.setCount(zipEntry.getSize(), "bytes");
+					}
+				}
+			}
+		}
+	}
+
 	private void setProjectId(String projectId) {
 		if (this.projectId != null) {
 			if (this.projectId.equals(projectId)) {
@@ -521,6 +578,15 @@ public class KnxProjectFile {
 		LOG.debug("Using project name: {}", this.projectName);
 	}
 
+	/**
+	 * Sets the timer for recording phases of {@link #open()}.
+	 *
+	 * @param timer the timer (must not be <code>null</code>)
+	 */
+	public void setTimer(PhaseTimer timer) {
+		this.timer = timer;
+	}
+
 	@Override
 	public String toString() {
 		return format("KnxProjectFile [%s]", file.getAbsolutePath());
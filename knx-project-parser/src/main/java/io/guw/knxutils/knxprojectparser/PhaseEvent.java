@@ -0,0 +1,30 @@
+package io.guw.knxutils.knxprojectparser;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for a {@link PhaseTimer.Phase phase}.
+ */
+@Name("io.guw.knxutils.Phase")
+@Label("KNX Utils Phase")
+@Category("KNX Utils")
+@Description("A phase of reading or analyzing a KNX project")
+@StackTrace(false)
+final class PhaseEvent extends Event {
+
+	@Label("Phase")
+	String phase;
+
+	@Label("Count")
+	@Description("Number of processed items (eg., XML elements, GAs or tokens)")
+	long count;
+
+	@Label("Unit")
+	@Description("The type of counted items")
+	String unit;
+}
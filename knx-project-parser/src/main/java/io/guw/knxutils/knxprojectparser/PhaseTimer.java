@@ -0,0 +1,266 @@
+package io.guw.knxutils.knxprojectparser;
+
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lightweight timer for phases of reading and analyzing a project.
+ * <p>
+ * Phases are started with {@link #start(String)} and should be closed using
+ * try-with-resources. Phases started while another phase is running in the
+ * same thread are nested into that phase, i.e. their names are hierarchical
+ * paths separated by <code>/</code> (eg.,
+ * <code>open/0.xml/GroupAddresses</code>). Work running in other threads must
+ * pass its parent explicitly using {@link #start(Phase, String)}. Every phase is also emitted as JDK
+ * Flight Recorder event (<code>io.guw.knxutils.Phase</code>) which is almost
+ * free when no recording is active.
+ * </p>
+ * <p>
+ * At most {@value #DEFAULT_MAX_PHASES} finished phases are kept. Long running
+ * processes should use a new timer per unit of work.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ */
+public class PhaseTimer {
+
+	/**
+	 * A running or finished phase.
+	 */
+	public static final class Phase implements AutoCloseable {
+
+		private final PhaseTimer timer;
+		private final Phase parent;
+		/** the phase running in the starting thread before this one */
+		private final Phase previous;
+		private final String name;
+		private final PhaseEvent event = new PhaseEvent();
+		private final long startNanos;
+		private volatile long durationNanos = -1;
+		private long count;
+		private String unit;
+
+		Phase(PhaseTimer timer, Phase parent, Phase previous, String name) {
+			this.timer = timer;
+			this.parent = parent;
+			this.previous = previous;
+			this.name = parent != null ? parent.name + '/' + name : name;
+			event.begin();
+			startNanos = System.nanoTime();
+		}
+
+		@Override
+		public void close() {
+			if (durationNanos >= 0) {
+				return; // already closed
+			}
+			durationNanos = System.nanoTime() - startNanos;
+			event.end();
+			if (event.shouldCommit()) {
+				event.phase = name;
+				event.count = count;
+				event.unit = unit;
+				event.commit();
+			}
+			timer.finished(this);
+		}
+
+		/**
+		 * @return the number of processed items (<code>0</code> if not set)
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * @return the duration in nanoseconds (<code>-1</code> if not finished)
+		 */
+		public long getDurationNanos() {
+			return durationNanos;
+		}
+
+		/**
+		 * @return the hierarchical name of the phase
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the type of counted items (maybe <code>null</code>)
+		 */
+		public String getUnit() {
+			return unit;
+		}
+
+		/**
+		 * Attaches the number of processed items to this phase.
+		 *
+		 * @param count the count
+		 * @param unit  the type of counted items (eg., <code>GAs</code>)
+		 */
+		public void setCount(long count, String unit) {
+			this.count = count;
+			this.unit = unit;
+		}
+
+		@Override
+		public String toString() {
+			return unit != null ? format(Locale.ROOT, "%s (%d %s)", name, count, unit) : name;
+		}
+	}
+
+	/** the default maximum number of kept phases */
+	public static final int DEFAULT_MAX_PHASES = 10_000;
+
+	/**
+	 * A timer which only emits Flight Recorder events but does not keep any
+	 * phases. Used when no timer is configured.
+	 */
+	public static final PhaseTimer EVENTS_ONLY = new PhaseTimer(0);
+
+	private static int compareByStart(Phase a, Phase b) {
+		// compare start times of the ancestors first so that nested phases follow their parent
+		if (a.parent != b.parent) {
+			int depthA = depth(a), depthB = depth(b);
+			if (depthA > depthB) {
+				return a.parent == b ? 1 : compareByStart(a.parent, b);
+			} else if (depthA < depthB) {
+				return b.parent == a ? -1 : compareByStart(a, b.parent);
+			} else {
+				return compareByStart(a.parent, b.parent);
+			}
+		}
+		return Long.compare(a.startNanos, b.startNanos);
+	}
+
+	private static int depth(Phase phase) {
+		int depth = 0;
+		for (Phase p = phase.parent; p != null; p = p.parent) {
+			depth++;
+		}
+		return depth;
+	}
+
+	private final ConcurrentLinkedQueue<Phase> phases = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger keptCount = new AtomicInteger();
+	private final LongAdder droppedCount = new LongAdder();
+	private final ThreadLocal<Phase> currentPhase = new ThreadLocal<>();
+	private final int maxPhases;
+
+	/**
+	 * Creates a new timer which keeps finished phases for
+	 * {@link #getSummary() reporting}.
+	 */
+	public PhaseTimer() {
+		this(DEFAULT_MAX_PHASES);
+	}
+
+	/**
+	 * @param maxPhases the maximum number of finished phases to keep (further
+	 *                  phases are only emitted as events)
+	 */
+	PhaseTimer(int maxPhases) {
+		this.maxPhases = maxPhases;
+	}
+
+	void finished(Phase phase) {
+		if (phase.previous != null) {
+			currentPhase.set(phase.previous);
+		} else {
+			currentPhase.remove();
+		}
+		if ((keptCount.get() < maxPhases) && (keptCount.incrementAndGet() <= maxPhases)) {
+			phases.add(phase);
+		} else {
+			droppedCount.increment();
+		}
+	}
+
+	/**
+	 * @return the number of finished phases which were not kept because the
+	 *         maximum was reached
+	 */
+	public long getDroppedCount() {
+		return droppedCount.sum();
+	}
+
+	/**
+	 * @return all finished phases sorted by start time (nested phases directly
+	 *         follow their parent)
+	 */
+	public List<Phase> getPhases() {
+		List<Phase> result = new ArrayList<>(phases);
+		result.sort(PhaseTimer::compareByStart);
+		return result;
+	}
+
+	/**
+	 * Produces a human readable breakdown of all finished phases.
+	 *
+	 * @return the summary (one line per phase, nested phases indented)
+	 */
+	public String getSummary() {
+		StringBuilder summary = new StringBuilder();
+		for (Phase phase : getPhases()) {
+			String label = "  ".repeat(depth(phase)) + phase.name.substring(phase.name.lastIndexOf('/') + 1);
+			summary.append(format(Locale.ROOT, "%-40s %10.1f ms", label, phase.durationNanos / 1_000_000D));
+			if (phase.unit != null) {
+				summary.append(format(Locale.ROOT, " %10d %s", phase.count, phase.unit));
+			}
+			summary.append(System.lineSeparator());
+		}
+		long dropped = getDroppedCount();
+		if (dropped > 0) {
+			summary.append(format(Locale.ROOT, "(%d more phases not kept)", dropped));
+			summary.append(System.lineSeparator());
+		}
+		return summary.toString();
+	}
+
+	/**
+	 * Starts a new phase.
+	 * <p>
+	 * If another phase is running in the current thread, the new phase is nested
+	 * into that phase.
+	 * </p>
+	 *
+	 * @param name the name of the phase
+	 * @return the phase (must be closed)
+	 */
+	public Phase start(String name) {
+		Phase current = currentPhase.get();
+		return start(current, current, name);
+	}
+
+	private Phase start(Phase parent, Phase previous, String name) {
+		Phase phase = new Phase(this, parent, previous, name);
+		currentPhase.set(phase);
+		return phase;
+	}
+
+	/**
+	 * Starts a new phase nested into the specified phase.
+	 * <p>
+	 * This must be used for work running in other threads than the parent (eg.,
+	 * tasks of a parallel stream). Phases started in the current thread while
+	 * the new phase is running are nested into the new phase. Once closed, the
+	 * phase previously running in the current thread (if any) is restored.
+	 * </p>
+	 *
+	 * @param parent the parent phase (maybe <code>null</code> for a top level
+	 *               phase)
+	 * @param name   the name of the phase
+	 * @return the phase (must be closed in the current thread)
+	 */
+	public Phase start(Phase parent, String name) {
+		return start(parent, currentPhase.get(), name);
+	}
+}
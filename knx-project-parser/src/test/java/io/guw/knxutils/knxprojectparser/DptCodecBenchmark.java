@@ -0,0 +1,101 @@
+package io.guw.knxutils.knxprojectparser;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Throughput of {@link DptCodec} on a buffer of pre-encoded values.
+ * <p>
+ * Not run as part of the tests. Run with
+ * <code>mvn -pl knx-project-parser test-compile</code> followed by running
+ * {@link #main(String[])} with the test classpath of the module (eg., from
+ * the IDE). Results are reported as operations per second.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DptCodecBenchmark {
+
+	private static final int VALUE_COUNT = 1024;
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(DptCodecBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	private final ByteBuffer float16Payload = ByteBuffer.allocate(VALUE_COUNT * 2);
+	private final ByteBuffer float32Payload = ByteBuffer.allocate(VALUE_COUNT * 4);
+	private final ByteBuffer scalingPayload = ByteBuffer.allocate(VALUE_COUNT);
+	private final ByteBuffer encodePayload = ByteBuffer.allocate(2);
+	private final double[] values = new double[VALUE_COUNT];
+	private int index;
+
+	@Benchmark
+	public double decodeFloat16() {
+		int i = next();
+		float16Payload.position(i * 2);
+		return DptCodec.decodeFloat16(float16Payload);
+	}
+
+	@Benchmark
+	public float decodeFloat32() {
+		int i = next();
+		float32Payload.position(i * 4);
+		return DptCodec.decodeFloat32(float32Payload);
+	}
+
+	@Benchmark
+	public double decodeNumberScaling() {
+		int i = next();
+		scalingPayload.position(i);
+		return DptCodec.decodeNumber(DatapointType.Scaling, scalingPayload);
+	}
+
+	@Benchmark
+	public double decodeNumberTemperature() {
+		int i = next();
+		float16Payload.position(i * 2);
+		return DptCodec.decodeNumber(DatapointType.Temperature, float16Payload);
+	}
+
+	@Benchmark
+	public ByteBuffer encodeFloat16() {
+		encodePayload.clear();
+		DptCodec.encodeFloat16(encodePayload, values[next()]);
+		return encodePayload;
+	}
+
+	private int next() {
+		int i = index;
+		index = (i + 1) & (VALUE_COUNT - 1);
+		return i;
+	}
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		for (int i = 0; i < VALUE_COUNT; i++) {
+			values[i] = (random.nextDouble() * 100) - 20;
+			DptCodec.encodeFloat16(float16Payload, values[i]);
+			DptCodec.encodeFloat32(float32Payload, (float) values[i]);
+			DptCodec.encodeUnsigned8(scalingPayload, random.nextInt(256));
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package io.guw.knxutils.knxprojectparser;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.jupiter.api.Test;
+
+public class DptCodecTest {
+
+	private static byte[] bytes(int... values) {
+		byte[] result = new byte[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = (byte) values[i];
+		}
+		return result;
+	}
+
+	private static byte[] written(ByteBuffer buffer) {
+		buffer.flip();
+		byte[] result = new byte[buffer.remaining()];
+		buffer.get(result);
+		return result;
+	}
+
+	@Test
+	public void decode_ignoresApciAndByteOrder() throws Exception {
+		// GroupValueWrite (0x80) with switch on
+		assertTrue(DptCodec.decodeBoolean(ByteBuffer.wrap(bytes(0x81))));
+		assertFalse(DptCodec.decodeBoolean(ByteBuffer.wrap(bytes(0x80))));
+		assertEquals(0b10, DptCodec.decodeControl(ByteBuffer.wrap(bytes(0x82))));
+		assertEquals(0b1011, DptCodec.decodeStep(ByteBuffer.wrap(bytes(0x8b))));
+
+		ByteBuffer littleEndian = ByteBuffer.wrap(bytes(0x12, 0x34)).order(ByteOrder.LITTLE_ENDIAN);
+		assertEquals(0x1234, DptCodec.decodeUnsigned16(littleEndian));
+		assertEquals(2, littleEndian.position());
+	}
+
+	@Test
+	public void float16() throws Exception {
+		assertEquals(21.5, DptCodec.decodeFloat16(ByteBuffer.wrap(bytes(0x0c, 0x33))), 0.001);
+		assertEquals(-30.0, DptCodec.decodeFloat16(ByteBuffer.wrap(bytes(0x8a, 0x24))), 0.001);
+		assertEquals(670433.28, DptCodec.decodeFloat16(ByteBuffer.wrap(bytes(0x7f, 0xfe))), 0.001);
+		assertEquals(-671088.64, DptCodec.decodeFloat16(ByteBuffer.wrap(bytes(0xf8, 0x00))), 0.001);
+		assertTrue(Double.isNaN(DptCodec.decodeFloat16(ByteBuffer.wrap(bytes(0x7f, 0xff)))));
+
+		ByteBuffer buffer = ByteBuffer.allocate(8);
+		DptCodec.encodeFloat16(buffer, 21.5);
+		DptCodec.encodeFloat16(buffer, -30);
+		DptCodec.encodeFloat16(buffer, 0);
+		DptCodec.encodeFloat16(buffer, Double.NaN);
+		assertArrayEquals(bytes(0x0c, 0x33, 0x8a, 0x24, 0x00, 0x00, 0x7f, 0xff), written(buffer));
+
+		assertThrows(IllegalArgumentException.class, () -> DptCodec.encodeFloat16(ByteBuffer.allocate(2), 670760.96));
+	}
+
+	@Test
+	public void number() throws Exception {
+		ByteBuffer buffer = ByteBuffer.allocate(4);
+		DptCodec.encodeNumber(DatapointType.Scaling, buffer, 100);
+		DptCodec.encodeNumber(DatapointType.Scaling, buffer, 50);
+		DptCodec.encodeNumber(DatapointType.Value1Ucount, buffer, 50);
+		DptCodec.encodeNumber(DatapointType.Switch, buffer, 1);
+		assertArrayEquals(bytes(0xff, 0x80, 0x32, 0x01), written(buffer));
+
+		buffer.flip();
+		assertEquals(100.0, DptCodec.decodeNumber(DatapointType.Scaling, buffer), 0.001);
+		assertEquals(50.2, DptCodec.decodeNumber(DatapointType.Scaling, buffer), 0.01);
+
+		for (DatapointType dpt : new DatapointType[] { DatapointType.Value2Ucount, DatapointType.Temperature,
+				DatapointType.Value4Ucount, DatapointType.ActiveEnergy, DatapointType.Power }) {
+			buffer = ByteBuffer.allocate(DptCodec.getPayloadSize(dpt));
+			DptCodec.encodeNumber(dpt, buffer, 42);
+			assertFalse(buffer.hasRemaining(), dpt.getValue());
+			buffer.flip();
+			assertEquals(42.0, DptCodec.decodeNumber(dpt, buffer), 0.001, dpt.getValue());
+		}
+
+		assertEquals(9, DatapointType.Temperature.getMainNumber());
+		assertThrows(IllegalArgumentException.class,
+				() -> DptCodec.decodeNumber(DatapointType.StringAscii, ByteBuffer.allocate(14)));
+		assertThrows(IllegalArgumentException.class,
+				() -> DptCodec.encodeNumber(DatapointType.ActiveEnergy, ByteBuffer.allocate(4), 1e10));
+	}
+
+	@Test
+	public void string() throws Exception {
+		ByteBuffer buffer = ByteBuffer.allocate(DptCodec.STRING_LENGTH);
+		DptCodec.encodeString(buffer, "Küche €");
+		assertFalse(buffer.hasRemaining());
+
+		buffer.flip();
+		char[] destination = new char[DptCodec.STRING_LENGTH];
+		int length = DptCodec.decodeString(buffer, destination);
+		assertEquals("Küche ?", new String(destination, 0, length));
+		assertFalse(buffer.hasRemaining());
+
+		assertThrows(IllegalArgumentException.class,
+				() -> DptCodec.encodeString(ByteBuffer.allocate(15), "more than 14 chars"));
+	}
+
+	@Test
+	public void unsignedAndSigned32() throws Exception {
+		ByteBuffer buffer = ByteBuffer.allocate(12);
+		DptCodec.encodeUnsigned32(buffer, 0xffffffffL);
+		DptCodec.encodeSigned32(buffer, -2);
+		DptCodec.encodeFloat32(buffer, 1.0f);
+		assertArrayEquals(bytes(0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xfe, 0x3f, 0x80, 0x00, 0x00),
+				written(buffer));
+
+		buffer.flip();
+		assertEquals(0xffffffffL, DptCodec.decodeUnsigned32(buffer));
+		assertEquals(-2, DptCodec.decodeSigned32(buffer));
+		assertEquals(1.0f, DptCodec.decodeFloat32(buffer));
+
+		assertThrows(IllegalArgumentException.class, () -> DptCodec.encodeUnsigned32(ByteBuffer.allocate(4), -1));
+		assertThrows(IllegalArgumentException.class, () -> DptCodec.encodeUnsigned8(ByteBuffer.allocate(1), 256));
+	}
+}
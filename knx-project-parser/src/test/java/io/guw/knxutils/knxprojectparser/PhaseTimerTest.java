@@ -0,0 +1,96 @@
+package io.guw.knxutils.knxprojectparser;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import io.guw.knxutils.knxprojectparser.PhaseTimer.Phase;
+
+public class PhaseTimerTest {
+
+	@Test
+	public void start_nested() throws Exception {
+		PhaseTimer timer = new PhaseTimer();
+		try (Phase open = timer.start("open")) {
+			try (Phase section = timer.start("GroupAddresses")) {
+				section.setCount(42, "elements");
+			}
+			try (Phase link = timer.start("link")) {
+				// nothing
+			}
+		}
+		try (Phase analyze = timer.start("analyze")) {
+			// nothing
+		}
+
+		List<Phase> phases = timer.getPhases();
+		assertEquals(4, phases.size());
+		assertEquals("open", phases.get(0).getName());
+		assertEquals("open/GroupAddresses", phases.get(1).getName());
+		assertEquals(42, phases.get(1).getCount());
+		assertEquals("open/link", phases.get(2).getName());
+		assertEquals("analyze", phases.get(3).getName());
+		assertTrue(phases.get(0).getDurationNanos() >= phases.get(1).getDurationNanos());
+
+		String[] lines = timer.getSummary().split(System.lineSeparator());
+		assertEquals(4, lines.length);
+		assertTrue(lines[1].startsWith("  GroupAddresses "));
+		assertTrue(lines[1].endsWith("42 elements"));
+	}
+
+	@Test
+	public void start_bounded() throws Exception {
+		PhaseTimer timer = new PhaseTimer(2);
+		for (int i = 0; i < 5; i++) {
+			try (Phase phase = timer.start("convert")) {
+				// nothing
+			}
+		}
+		assertEquals(2, timer.getPhases().size());
+		assertEquals(3, timer.getDroppedCount());
+		assertTrue(timer.getSummary().contains("3 more phases not kept"));
+	}
+
+	@Test
+	public void start_explicitParent() throws Exception {
+		PhaseTimer timer = new PhaseTimer();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try (Phase bestFit = timer.start("best fit")) {
+			executor.submit(() -> {
+				try (Phase candidate = timer.start(bestFit, "A")) {
+					try (Phase analyze = timer.start("analyze")) {
+						// nothing
+					}
+				}
+			}).get();
+			// the worker thread does not keep a stale current phase
+			executor.submit(() -> {
+				try (Phase unrelated = timer.start("unrelated")) {
+					// nothing
+				}
+			}).get();
+			try (Phase select = timer.start("select")) {
+				// nothing
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(List.of("best fit", "best fit/A", "best fit/A/analyze", "best fit/select", "unrelated"),
+				timer.getPhases().stream().map(Phase::getName).collect(toList()));
+	}
+
+	@Test
+	public void start_eventsOnly() throws Exception {
+		try (Phase phase = PhaseTimer.EVENTS_ONLY.start("open")) {
+			phase.setCount(1, "GAs");
+		}
+		assertEquals(List.of(), PhaseTimer.EVENTS_ONLY.getPhases());
+	}
+}
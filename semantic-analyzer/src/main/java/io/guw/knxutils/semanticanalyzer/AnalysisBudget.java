@@ -0,0 +1,108 @@
+package io.guw.knxutils.semanticanalyzer;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A time and/or work budget for an analysis.
+ * <p>
+ * Characteristics {@link #consume(long) consume} work units for expensive
+ * operations (eg., one unit per GA analyzed using text analysis or similarity
+ * matching). Once the budget is {@link #isExhausted() exhausted} they fall
+ * back to cheap strategies (eg., block structure only) and record the GAs
+ * which were not fully resolved. The result of an analysis is then partial
+ * but available with bounded latency.
+ * </p>
+ * <p>
+ * The time starts running when the budget is created. Once exhausted, a budget
+ * stays exhausted. This class is thread-safe.
+ * </p>
+ */
+public class AnalysisBudget {
+
+	/** a budget which is never exhausted */
+	public static final AnalysisBudget UNLIMITED = new AnalysisBudget(null, Long.MAX_VALUE);
+
+	/**
+	 * Creates a budget limited by time.
+	 *
+	 * @param timeLimit the maximum duration (starting now)
+	 * @return the budget
+	 */
+	public static AnalysisBudget ofTime(Duration timeLimit) {
+		return new AnalysisBudget(timeLimit, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a budget limited by work units.
+	 *
+	 * @param workLimit the maximum number of work units
+	 * @return the budget
+	 */
+	public static AnalysisBudget ofWork(long workLimit) {
+		return new AnalysisBudget(null, workLimit);
+	}
+
+	private final long deadlineNanos;
+	private final boolean hasDeadline;
+	private final long workLimit;
+	private final AtomicLong consumedWork = new AtomicLong();
+	private volatile boolean exhausted;
+
+	/**
+	 * Creates a budget limited by time and work units (whichever is exhausted
+	 * first).
+	 *
+	 * @param timeLimit the maximum duration starting now (maybe
+	 *                  <code>null</code> for no time limit)
+	 * @param workLimit the maximum number of work units
+	 */
+	public AnalysisBudget(Duration timeLimit, long workLimit) {
+		hasDeadline = timeLimit != null;
+		deadlineNanos = hasDeadline ? System.nanoTime() + timeLimit.toNanos() : 0L;
+		this.workLimit = workLimit;
+	}
+
+	/**
+	 * Consumes work units.
+	 *
+	 * @param units the number of units
+	 */
+	public void consume(long units) {
+		if ((workLimit != Long.MAX_VALUE) && (consumedWork.addAndGet(units) >= workLimit)) {
+			exhausted = true;
+		}
+	}
+
+	/**
+	 * @return the number of consumed work units (only tracked if the budget has a
+	 *         work limit)
+	 */
+	public long getConsumedWork() {
+		return consumedWork.get();
+	}
+
+	/**
+	 * Indicates if the budget is exhausted.
+	 * <p>
+	 * Callers should check this before every expensive operation. The check is
+	 * cheap.
+	 * </p>
+	 *
+	 * @return <code>true</code> if the time or work limit has been reached
+	 */
+	public boolean isExhausted() {
+		if (exhausted) {
+			return true;
+		}
+		if (hasDeadline && ((System.nanoTime() - deadlineNanos) >= 0)) {
+			exhausted = true;
+		}
+		return exhausted;
+	}
+
+	@Override
+	public String toString() {
+		return "AnalysisBudget [exhausted=" + exhausted + ", consumedWork=" + consumedWork + "]";
+	}
+}
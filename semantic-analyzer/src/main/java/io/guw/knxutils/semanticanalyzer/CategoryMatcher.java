@@ -0,0 +1,218 @@
+package io.guw.knxutils.semanticanalyzer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A compiled multi-pattern matcher for detecting {@link DeviceCategory device
+ * categories} of a GA.
+ * <p>
+ * All category vocabularies (name terms, name prefixes and description tags)
+ * are compiled into a single Aho-Corasick automaton. The analyzed name terms,
+ * the name and the description of a GA are each scanned exactly once,
+ * independent of the number of categories and patterns.
+ * </p>
+ * <p>
+ * Name terms are matched as whole terms, prefixes only at the start of the name
+ * (exact case) and tags anywhere within the description (exact case).
+ * </p>
+ * <p>
+ * Instances are immutable and safe for use by multiple threads.
+ * </p>
+ */
+final class CategoryMatcher {
+
+	private static final int CHANNEL_TERMS = 0;
+	private static final int CHANNEL_NAME = 1;
+	private static final int CHANNEL_DESCRIPTION = 2;
+
+	private static final DeviceCategory[] CATEGORIES = DeviceCategory.values();
+
+	/** marks the boundaries of a term so that only whole terms will match */
+	private static final char TERM_BOUNDARY = '\u0000';
+
+	/** anchors name prefixes at the start of a name */
+	private static final char NAME_START = '\u0001';
+
+	private static long channelMask(int channel) {
+		return ((1L << CATEGORIES.length) - 1) << (channel * CATEGORIES.length);
+	}
+
+	private static long outputBit(int channel, DeviceCategory category) {
+		return 1L << ((channel * CATEGORIES.length) + category.ordinal());
+	}
+
+	private final char[][] transitionChars;
+	private final int[][] transitionTargets;
+	private final int[] failure;
+	private final long[] outputs;
+
+	/**
+	 * Compiles a new matcher.
+	 *
+	 * @param terms    analyzed terms (lower case) identifying a category when
+	 *                 found in the name terms of a GA
+	 * @param prefixes prefixes (exact case) identifying a category when a GA name
+	 *                 starts with it
+	 * @param tags     tags (exact case) identifying a category when found in the
+	 *                 description of a GA
+	 */
+	CategoryMatcher(Map<DeviceCategory, ? extends Collection<String>> terms,
+			Map<DeviceCategory, ? extends Collection<String>> prefixes,
+			Map<DeviceCategory, ? extends Collection<String>> tags) {
+		List<TreeMap<Character, Integer>> gotos = new ArrayList<>();
+		List<Long> patternOutputs = new ArrayList<>();
+		gotos.add(new TreeMap<>());
+		patternOutputs.add(0L);
+
+		for (Entry<DeviceCategory, ? extends Collection<String>> e : terms.entrySet()) {
+			for (String term : e.getValue()) {
+				addPattern(gotos, patternOutputs, TERM_BOUNDARY + term + TERM_BOUNDARY,
+						outputBit(CHANNEL_TERMS, e.getKey()));
+			}
+		}
+		for (Entry<DeviceCategory, ? extends Collection<String>> e : prefixes.entrySet()) {
+			for (String prefix : e.getValue()) {
+				addPattern(gotos, patternOutputs, NAME_START + prefix, outputBit(CHANNEL_NAME, e.getKey()));
+			}
+		}
+		for (Entry<DeviceCategory, ? extends Collection<String>> e : tags.entrySet()) {
+			for (String tag : e.getValue()) {
+				addPattern(gotos, patternOutputs, tag, outputBit(CHANNEL_DESCRIPTION, e.getKey()));
+			}
+		}
+
+		int states = gotos.size();
+		transitionChars = new char[states][];
+		transitionTargets = new int[states][];
+		failure = new int[states];
+		outputs = new long[states];
+		for (int state = 0; state < states; state++) {
+			TreeMap<Character, Integer> transitions = gotos.get(state);
+			transitionChars[state] = new char[transitions.size()];
+			transitionTargets[state] = new int[transitions.size()];
+			int i = 0;
+			for (Entry<Character, Integer> t : transitions.entrySet()) {
+				transitionChars[state][i] = t.getKey();
+				transitionTargets[state][i] = t.getValue();
+				i++;
+			}
+			outputs[state] = patternOutputs.get(state);
+		}
+
+		// compute failure links (breadth first) and merge outputs of suffixes
+		Queue<Integer> queue = new ArrayDeque<>();
+		for (int target : transitionTargets[0]) {
+			failure[target] = 0;
+			queue.add(target);
+		}
+		while (!queue.isEmpty()) {
+			int state = queue.remove();
+			for (int i = 0; i < transitionChars[state].length; i++) {
+				char c = transitionChars[state][i];
+				int target = transitionTargets[state][i];
+				failure[target] = next(failure[state], c);
+				outputs[target] |= outputs[failure[target]];
+				queue.add(target);
+			}
+		}
+	}
+
+	private void addPattern(List<TreeMap<Character, Integer>> gotos, List<Long> patternOutputs, String pattern,
+			long output) {
+		int state = 0;
+		for (int i = 0; i < pattern.length(); i++) {
+			char c = pattern.charAt(i);
+			Integer target = gotos.get(state).get(c);
+			if (target == null) {
+				target = gotos.size();
+				gotos.add(new TreeMap<>());
+				patternOutputs.add(0L);
+				gotos.get(state).put(c, target);
+			}
+			state = target;
+		}
+		patternOutputs.set(state, patternOutputs.get(state) | output);
+	}
+
+	/**
+	 * Evaluates all category vocabularies against the given GA data.
+	 *
+	 * @param nameTerms   the analyzed terms of a GA name (maybe
+	 *                    <code>null</code>)
+	 * @param name        the GA name (maybe <code>null</code>)
+	 * @param description the GA description (maybe <code>null</code>)
+	 * @return the set of matched categories (never <code>null</code>)
+	 */
+	Set<DeviceCategory> match(Collection<String> nameTerms, String name, String description) {
+		long matched = 0L;
+
+		if ((nameTerms != null) && !nameTerms.isEmpty()) {
+			long mask = channelMask(CHANNEL_TERMS);
+			int state = next(0, TERM_BOUNDARY);
+			for (String term : nameTerms) {
+				for (int i = 0; i < term.length(); i++) {
+					state = next(state, term.charAt(i));
+				}
+				state = next(state, TERM_BOUNDARY);
+				matched |= outputs[state] & mask;
+			}
+		}
+
+		if (name != null) {
+			matched |= scan(next(0, NAME_START), name, channelMask(CHANNEL_NAME));
+		}
+
+		if (description != null) {
+			matched |= scan(0, description, channelMask(CHANNEL_DESCRIPTION));
+		}
+
+		if (matched == 0L) {
+			return Collections.emptySet();
+		}
+
+		Set<DeviceCategory> categories = EnumSet.noneOf(DeviceCategory.class);
+		for (DeviceCategory category : CATEGORIES) {
+			for (int channel = CHANNEL_TERMS; channel <= CHANNEL_DESCRIPTION; channel++) {
+				if ((matched & outputBit(channel, category)) != 0L) {
+					categories.add(category);
+					break;
+				}
+			}
+		}
+		return categories;
+	}
+
+	private int next(int state, char c) {
+		while (true) {
+			char[] chars = transitionChars[state];
+			int i = Arrays.binarySearch(chars, c);
+			if (i >= 0) {
+				return transitionTargets[state][i];
+			}
+			if (state == 0) {
+				return 0;
+			}
+			state = failure[state];
+		}
+	}
+
+	private long scan(int state, String text, long mask) {
+		long matched = 0L;
+		for (int i = 0; i < text.length(); i++) {
+			state = next(state, text.charAt(i));
+			matched |= outputs[state] & mask;
+		}
+		return matched;
+	}
+}
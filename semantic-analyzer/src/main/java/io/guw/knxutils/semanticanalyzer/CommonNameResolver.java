@@ -0,0 +1,194 @@
+package io.guw.knxutils.semanticanalyzer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.de.GermanNormalizationFilter;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.util.CharTokenizer;
+
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+
+/**
+ * Resolves the common name of a group of GAs (eg., all GAs of a light).
+ * <p>
+ * Names are split into tokens (separated by whitespace or underscore). The
+ * tokens of all names in a group are inserted into a trie. The common name is
+ * the longest token prefix of the primary name which is shared by a majority
+ * of all names in the group. This tolerates a single GA with an unexpected
+ * name in larger groups.
+ * </p>
+ * <p>
+ * Tokens are compared as produced by an analyzer using
+ * {@link LowerCaseFilter} and {@link GermanNormalizationFilter} (i.e.
+ * <code>Küche</code> and <code>kueche</code> are considered equal). The
+ * resolved name is always a prefix of the primary name as written.
+ * </p>
+ * <p>
+ * Instances cache tokens of names and are intended to be used for resolving
+ * names of many groups in one {@link #resolveAll(Map) batch}. All groups of a
+ * batch share one trie, i.e. nodes of common prefixes (eg.,
+ * <code>Licht</code>) are created once. Instances are not thread-safe.
+ * </p>
+ */
+final class CommonNameResolver {
+
+	private static final class Node {
+		final Map<String, Node> children = new HashMap<>(4);
+		/** the group {@link #count} belongs to */
+		int group = -1;
+		int count;
+	}
+
+	private static final class Token {
+		final String key;
+		final int end;
+
+		Token(String key, int end) {
+			this.key = key;
+			this.end = end;
+		}
+	}
+
+	private static final Analyzer tokenAnalyzer = new Analyzer() {
+		@Override
+		protected TokenStreamComponents createComponents(String fieldName) {
+			Tokenizer source = CharTokenizer.fromSeparatorCharPredicate(CommonNameResolver::isSeparator);
+			TokenStream result = new LowerCaseFilter(source);
+			result = new GermanNormalizationFilter(result);
+			return new TokenStreamComponents(source, result);
+		}
+	};
+
+	private static boolean isSeparator(int c) {
+		return Character.isWhitespace(c) || (c == '_');
+	}
+
+	private static boolean isSignificant(CharTermAttribute term) {
+		for (int i = 0; i < term.length(); i++) {
+			if (Character.isLetterOrDigit(term.charAt(i))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<Token> tokenize(String name) {
+		List<Token> tokens = new ArrayList<>();
+		if (name == null) {
+			return tokens;
+		}
+
+		try (TokenStream ts = tokenAnalyzer.tokenStream("", name)) {
+			CharTermAttribute term = ts.addAttribute(CharTermAttribute.class);
+			OffsetAttribute offset = ts.addAttribute(OffsetAttribute.class);
+			ts.reset();
+			while (ts.incrementToken()) {
+				// tokens consisting of punctuation only (eg., '-') are ignored
+				if (isSignificant(term)) {
+					tokens.add(new Token(term.toString(), offset.endOffset()));
+				}
+			}
+			ts.end();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return tokens;
+	}
+
+	private final Map<String, List<Token>> tokensByName = new HashMap<>();
+
+	private List<Token> getTokens(String name) {
+		return tokensByName.computeIfAbsent(name != null ? name : "", CommonNameResolver::tokenize);
+	}
+
+	private void insert(Node root, int group, List<Token> tokens) {
+		Node node = root;
+		for (Token token : tokens) {
+			node = node.children.computeIfAbsent(token.key, (k) -> new Node());
+			if (node.group != group) {
+				// counted for a previous group of the batch
+				node.group = group;
+				node.count = 0;
+			}
+			node.count++;
+		}
+	}
+
+	/**
+	 * Resolves the common name of a group of GAs.
+	 *
+	 * @param primaryGroupAddress      the primary GA
+	 * @param additionalGroupAddresses additional GAs (maybe empty)
+	 * @return the common name (the name of the primary GA if there is no common
+	 *         name)
+	 */
+	String resolve(GroupAddress primaryGroupAddress, Collection<GroupAddress> additionalGroupAddresses) {
+		return resolve(new Node(), 0, primaryGroupAddress, additionalGroupAddresses);
+	}
+
+	private String resolve(Node root, int group, GroupAddress primaryGroupAddress,
+			Collection<GroupAddress> additionalGroupAddresses) {
+		String primaryName = primaryGroupAddress.getName();
+		if (additionalGroupAddresses.isEmpty()) {
+			return primaryName;
+		}
+
+		List<Token> primaryTokens = getTokens(primaryName);
+		insert(root, group, primaryTokens);
+		for (GroupAddress ga : additionalGroupAddresses) {
+			insert(root, group, getTokens(ga.getName()));
+		}
+
+		// majority voting
+		int quorum = ((additionalGroupAddresses.size() + 1) / 2) + 1;
+		Node node = root;
+		int depth = 0;
+		for (Token token : primaryTokens) {
+			node = node.children.get(token.key);
+			if (node.count < quorum) {
+				break;
+			}
+			depth++;
+		}
+
+		if (depth == 0) {
+			// give up, no common name
+			return primaryName;
+		}
+		return primaryName.substring(0, primaryTokens.get(depth - 1).end);
+	}
+
+	/**
+	 * Resolves the common names of many groups.
+	 * <p>
+	 * The names of all groups are inserted into one trie. Nodes count the names
+	 * of the group inserted last, i.e. groups are resolved one after another
+	 * without allocating a trie per group.
+	 * </p>
+	 *
+	 * @param additionalGroupAddressesByPrimary additional GAs by primary GA
+	 * @return the common names by primary GA
+	 */
+	Map<GroupAddress, String> resolveAll(
+			Map<GroupAddress, ? extends Collection<GroupAddress>> additionalGroupAddressesByPrimary) {
+		Node root = new Node();
+		Map<GroupAddress, String> names = new HashMap<>();
+		int group = 0;
+		for (Map.Entry<GroupAddress, ? extends Collection<GroupAddress>> entry : additionalGroupAddressesByPrimary
+				.entrySet()) {
+			names.put(entry.getKey(), resolve(root, group++, entry.getKey(), entry.getValue()));
+		}
+		return names;
+	}
+}
@@ -0,0 +1,14 @@
+package io.guw.knxutils.semanticanalyzer;
+
+/**
+ * Categories of devices a group address can be annotated with during analysis.
+ */
+public enum DeviceCategory {
+
+	Light,
+
+	Shutter,
+
+	Heating;
+
+}
@@ -0,0 +1,199 @@
+package io.guw.knxutils.semanticanalyzer;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects issues found during analysis.
+ * <p>
+ * Instead of logging every single issue (which may be thousands in messy
+ * projects) issues are counted per {@link IssueCode}. Only the first few
+ * occurrences of each code are kept as {@link Sample samples} for reporting.
+ * </p>
+ * <p>
+ * This class is thread-safe and lock-free. Reporting an issue is cheap,
+ * especially after the sample buffer of its code is full.
+ * </p>
+ */
+public class Diagnostics {
+
+	/**
+	 * An occurrence of an issue.
+	 */
+	public static class Sample {
+
+		private final Object subject;
+		private final Object detail;
+
+		Sample(Object subject, Object detail) {
+			this.subject = subject;
+			this.detail = detail;
+		}
+
+		/**
+		 * @return additional information (maybe <code>null</code>)
+		 */
+		public Object getDetail() {
+			return detail;
+		}
+
+		/**
+		 * @return the affected object (eg., a GA)
+		 */
+		public Object getSubject() {
+			return subject;
+		}
+
+		@Override
+		public String toString() {
+			return detail != null ? subject + " (" + detail + ")" : String.valueOf(subject);
+		}
+	}
+
+	private static final class Entry {
+		final LongAdder count = new LongAdder();
+		final AtomicInteger sampleCount = new AtomicInteger();
+		final AtomicReferenceArray<Sample> samples;
+
+		Entry(int maxSamples) {
+			samples = new AtomicReferenceArray<>(maxSamples);
+		}
+	}
+
+	/** default number of samples kept per issue code */
+	public static final int DEFAULT_MAX_SAMPLES = 5;
+
+	private final Map<IssueCode, Entry> entries = new EnumMap<>(IssueCode.class);
+	private final int maxSamples;
+
+	public Diagnostics() {
+		this(DEFAULT_MAX_SAMPLES);
+	}
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param maxSamples the number of samples kept per issue code
+	 */
+	public Diagnostics(int maxSamples) {
+		this.maxSamples = maxSamples;
+		// populated upfront so that the map is never modified concurrently
+		for (IssueCode code : IssueCode.values()) {
+			entries.put(code, new Entry(maxSamples));
+		}
+	}
+
+	/**
+	 * @return the number of issues reported for the specified code
+	 */
+	public long getCount(IssueCode code) {
+		return entries.get(code).count.sum();
+	}
+
+	/**
+	 * @return the number of issues reported for all codes which are
+	 *         {@link IssueCode#isProjectDataIssue() project data issues}
+	 */
+	public long getProjectDataIssueCount() {
+		long count = 0;
+		for (IssueCode code : IssueCode.values()) {
+			if (code.isProjectDataIssue()) {
+				count += getCount(code);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return the first reported occurrences of the specified code (at most the
+	 *         configured number of samples)
+	 */
+	public List<Sample> getSamples(IssueCode code) {
+		Entry entry = entries.get(code);
+		int size = Math.min(entry.sampleCount.get(), maxSamples);
+		List<Sample> samples = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			Sample sample = entry.samples.get(i);
+			if (sample != null) {
+				samples.add(sample);
+			}
+		}
+		return samples;
+	}
+
+	/**
+	 * Produces a human readable summary of all reported issues.
+	 *
+	 * @return the summary (one line per issue code and sample, empty if no issues
+	 *         were reported)
+	 */
+	public String getSummary() {
+		StringBuilder summary = new StringBuilder();
+		for (IssueCode code : IssueCode.values()) {
+			long count = getCount(code);
+			if (count == 0) {
+				continue;
+			}
+			summary.append(code).append(": ").append(count).append("x ").append(code.getDescription())
+					.append(System.lineSeparator());
+			for (Sample sample : getSamples(code)) {
+				summary.append("  ").append(sample).append(System.lineSeparator());
+			}
+			if (count > maxSamples) {
+				summary.append("  ...").append(System.lineSeparator());
+			}
+		}
+		return summary.toString();
+	}
+
+	/**
+	 * @return the number of all reported issues
+	 */
+	public long getTotalCount() {
+		long count = 0;
+		for (Entry entry : entries.values()) {
+			count += entry.count.sum();
+		}
+		return count;
+	}
+
+	/**
+	 * Reports an issue.
+	 *
+	 * @param code    the issue code
+	 * @param subject the affected object (eg., a GA)
+	 */
+	public void report(IssueCode code, Object subject) {
+		report(code, subject, null);
+	}
+
+	/**
+	 * Reports an issue.
+	 *
+	 * @param code    the issue code
+	 * @param subject the affected object (eg., a GA)
+	 * @param detail  additional information (maybe <code>null</code>)
+	 */
+	public void report(IssueCode code, Object subject, Object detail) {
+		Entry entry = entries.get(code);
+		entry.count.increment();
+
+		// avoid contention on the index once the buffer is full
+		if (entry.sampleCount.get() < maxSamples) {
+			int index = entry.sampleCount.getAndIncrement();
+			if (index < maxSamples) {
+				entry.samples.set(index, new Sample(subject, detail));
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Diagnostics [" + getTotalCount() + " issues]";
+	}
+}
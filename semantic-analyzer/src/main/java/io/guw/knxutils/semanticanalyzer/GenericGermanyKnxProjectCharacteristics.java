@@ -1,23 +1,39 @@
 package io.guw.knxutils.semanticanalyzer;
 
-import static io.guw.knxutils.knxprojectparser.DatapointType.ControlDimming;
-import static io.guw.knxutils.knxprojectparser.DatapointType.Scaling;
-import static io.guw.knxutils.knxprojectparser.GroupAddress.formatAsThreePartAddress;
 import static io.guw.knxutils.knxprojectparser.GroupAddress.getAddressPart1;
 import static io.guw.knxutils.knxprojectparser.GroupAddress.getAddressPart2;
 import static io.guw.knxutils.knxprojectparser.GroupAddress.getAddressPart3;
-import static java.util.stream.Collectors.joining;
+import static io.guw.knxutils.knxprojectparser.GroupAddress.getCombindedAddress;
+import static io.guw.knxutils.semanticanalyzer.DeviceCategory.Heating;
+import static io.guw.knxutils.semanticanalyzer.DeviceCategory.Light;
+import static io.guw.knxutils.semanticanalyzer.DeviceCategory.Shutter;
+import static io.guw.knxutils.semanticanalyzer.GroupAddressBlock.BLOCK_LENGTH;
+import static io.guw.knxutils.semanticanalyzer.GroupAddressBlock.Role.Dim;
+import static io.guw.knxutils.semanticanalyzer.GroupAddressBlock.Role.StatusOnOff;
+import static io.guw.knxutils.semanticanalyzer.GroupAddressBlock.Role.StatusValue;
+import static io.guw.knxutils.semanticanalyzer.GroupAddressBlock.Role.Value;
 import static java.util.stream.Collectors.toList;
 
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.TokenStream;
@@ -25,9 +41,15 @@ import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.guw.knxutils.knxprojectparser.CommunicationObject;
 import io.guw.knxutils.knxprojectparser.DatapointType;
+import io.guw.knxutils.knxprojectparser.Device;
 import io.guw.knxutils.knxprojectparser.GroupAddress;
 import io.guw.knxutils.knxprojectparser.GroupAddressRange;
+import io.guw.knxutils.semanticanalyzer.GroupAddressBlock.Role;
+import io.guw.knxutils.semanticanalyzer.NameSimilarityEngine.LshIndex;
+import io.guw.knxutils.semanticanalyzer.NameSimilarityEngine.Signature;
+import io.guw.knxutils.semanticanalyzer.StructuralClassifier.Classification;
 import io.guw.knxutils.semanticanalyzer.luceneext.GermanAnalyzerWithDecompounder;
 
 /**
@@ -35,22 +57,148 @@ import io.guw.knxutils.semanticanalyzer.luceneext.GermanAnalyzerWithDecompounder
  * following best practises as published by KNX.org (aka. "KNX
  * Projektrichtlinien").
  */
-public class GenericGermanyKnxProjectCharacteristics extends KnxProjectCharacteristics {
+public class GenericGermanyKnxProjectCharacteristics extends KnxProjectCharacteristics implements Closeable {
 
 	public static class GroupAddressDocument {
 		public Set<String> nameTerms;
+		public Set<DeviceCategory> categories;
+		/** signature of the name for similarity matching */
+		public Signature nameSignature;
+		/** primary switch flag if known from structural classification */
+		public Boolean primarySwitch;
+		/**
+		 * status (<code>true</code>) or control (<code>false</code>) role if known
+		 * without terms (eg., from structural classification)
+		 */
+		public Boolean status;
 	}
 
+	/** the highest possible address of a three-level GA (31/7/255) */
+	private static final int MAX_ADDRESS = 0xFFFF;
+
 	private static final Logger LOG = LoggerFactory.getLogger(GenericGermanyKnxProjectCharacteristics.class);
 
 	private static final Analyzer germanAnalyzer = new GermanAnalyzerWithDecompounder();
 	private static final Set<String> lightIdentifyingTerms = Set.of("licht", "leucht", "beleuchtung", "lamp", "spot",
 			"strahl");
 	private static final List<String> lightIdentifyingPrefixes = List.of("L_", "LD_", "LDA_");
+	private static final Set<String> shutterIdentifyingTerms = Set.of("rollo", "rolllad", "rollad", "jalousi",
+			"beschattung");
+	private static final List<String> shutterIdentifyingPrefixes = List.of("R_");
+	private static final Set<String> heatingIdentifyingTerms = Set.of("heizung", "heizkreis", "heizkorp");
+	private static final List<String> heatingIdentifyingPrefixes = List.of("H_");
+
+	/** functional qualifiers which don't identify a device (ignored for name similarity) */
+	private static final Set<String> roleQualifiers = Set.of("status", "ruckmeldung", "rm", "ein", "aus", "an", "e",
+			"a", "schalten", "dimmen", "dim", "wert", "helligkeit", "helligkeitswert", "hell", "dunkel", "heller",
+			"dunkler", "relativ", "absolut");
+	private static final NameSimilarityEngine similarityEngine = new NameSimilarityEngine(roleQualifiers);
+	// TODO: this should be configurable
+	private static final float NAME_SIMILARITY_THRESHOLD = 0.75F;
+
+	/** the number of candidates kept per role when ranking */
+	private static final int MAX_RANKED_CANDIDATES = 3;
+	private static final Set<Role> RANKED_ROLES = EnumSet.of(Dim, Value, StatusOnOff, StatusValue);
+
+	private static final DeviceCategory[] CATEGORIES = DeviceCategory.values();
+	private static final Role[] ROLES = Role.values();
+
+	private static final CategoryMatcher categoryMatcher = new CategoryMatcher(
+			Map.of(Light, lightIdentifyingTerms, Shutter, shutterIdentifyingTerms, Heating, heatingIdentifyingTerms),
+			Map.of(Light, lightIdentifyingPrefixes, Shutter, shutterIdentifyingPrefixes, Heating,
+					heatingIdentifyingPrefixes),
+			Map.of(Light, List.of("[Licht]"), Shutter, List.of("[Rollo]"), Heating, List.of("[Heizung]")));
+
+	/**
+	 * Cheap check of a raw name for status words (used instead of the terms if
+	 * the name was not analyzed).
+	 */
+	private static boolean containsStatusWord(String name) {
+		if (name == null) {
+			return false;
+		}
+		String lowerCaseName = name.toLowerCase(Locale.ROOT);
+		if (lowerCaseName.contains("status") || lowerCaseName.contains("rückmeld")
+				|| lowerCaseName.contains("rueckmeld") || lowerCaseName.contains("ruckmeld")) {
+			return true;
+		}
+		for (String word : lowerCaseName.split("[^\\p{L}\\p{N}]+")) {
+			if (word.equals("rm")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String getRangeKey(GroupAddressRange range) {
+		if (range.getId() != null) {
+			return range.getId();
+		}
+		return range.getStart() + "-" + range.getEnd() + " " + range.getName();
+	}
+
+	private static Boolean readFlag(DataInput in) throws IOException {
+		int flag = in.readByte();
+		return flag < 0 ? null : flag == 1;
+	}
+
+	private static Set<String> readTerms(DataInput in) throws IOException {
+		int count = in.readUnsignedShort();
+		if (count == 0) {
+			return Collections.emptySet();
+		}
+		Set<String> terms = new LinkedHashSet<>();
+		for (int i = 0; i < count; i++) {
+			terms.add(in.readUTF());
+		}
+		return terms;
+	}
+
+	private static void writeFlag(DataOutput out, Boolean flag) throws IOException {
+		out.writeByte(flag == null ? -1 : flag ? 1 : 0);
+	}
+
+	private static void writeTerms(DataOutput out, Set<String> terms) throws IOException {
+		out.writeShort(terms.size());
+		for (String term : terms) {
+			out.writeUTF(term);
+		}
+	}
 
 	private final Map<GroupAddress, GroupAddressDocument> groupAddressIndex = new HashMap<>();
 	private final Map<GroupAddressRange, GroupAddressDocument> groupAddressRangeIndex = new HashMap<>();
 	private final Map<String, GroupAddress> groupAddressByThreePartAddress = new HashMap<>();
+	private final Map<GroupAddress, GroupAddressBlock> blockByPrimaryGroupAddress = new HashMap<>();
+	private GroupAddress[] groupAddressByAddressInt;
+	private List<GroupAddressRange> statusRanges = List.of();
+	private LshIndex<GroupAddress> stateGroupAddressesBySignature = new LshIndex<>();
+	private LshIndex<GroupAddress> primaryGroupAddressesBySignature = new LshIndex<>();
+	private final StructuralClassifier structuralClassifier = new StructuralClassifier();
+	private int structurallyClassifiedCount;
+	private final LongAdder tokenCount = new LongAdder();
+	private final Set<GroupAddress> unresolvedIndexes = new HashSet<>();
+	private final Set<GroupAddress> unresolvedBlocks = new HashSet<>();
+	private Path searchIndexDirectory;
+	private GroupAddressSearchIndex searchIndex;
+
+	/**
+	 * Builds lookup structures derived from the index (address array, status
+	 * ranges and signature indexes).
+	 */
+	private void buildLookups() {
+		groupAddressByAddressInt = new GroupAddress[MAX_ADDRESS + 1];
+		for (GroupAddress ga : groupAddressIndex.keySet()) {
+			groupAddressByAddressInt[ga.getAddressInt()] = ga;
+		}
+
+		updateStatusRanges();
+
+		stateGroupAddressesBySignature = new LshIndex<>();
+		primaryGroupAddressesBySignature = new LshIndex<>();
+		for (Entry<GroupAddress, GroupAddressDocument> e : groupAddressIndex.entrySet()) {
+			addToSignatureIndexes(e.getKey(), e.getValue());
+		}
+	}
 
 	float calculatePrefixMatchRatio(String candidateName, String primaryName) {
 		// simple heuristic based on prefix matching
@@ -64,122 +212,177 @@ public class GenericGermanyKnxProjectCharacteristics extends KnxProjectCharacter
 		return (float) commonPrefixLength / (float) minLength;
 	}
 
+	@Override
+	public void close() throws IOException {
+		if (searchIndex != null) {
+			searchIndex.close();
+			searchIndex = null;
+		}
+	}
+
 	private boolean containsStatusTerm(Set<String> terms) {
 		return terms.contains("status") || terms.contains("ruckmeldung");
 	}
 
-	private boolean descriptionContainsTag(GroupAddress ga, String tag) {
-		return (ga.getDescription() != null) && ga.getDescription().contains(tag);
+	private void addIfPresent(Collection<GroupAddress> groupAddresses, int address) {
+		if (groupAddressByAddressInt[address] != null) {
+			groupAddresses.add(groupAddressByAddressInt[address]);
+		}
+	}
+
+	private void addToSignatureIndexes(GroupAddress ga, GroupAddressDocument doc) {
+		if (DatapointType.findByKnxProjectValue(ga.getDatapointType()) == DatapointType.State) {
+			stateGroupAddressesBySignature.put(doc.nameSignature, ga);
+		}
+		if (super.isPrimarySwitch(ga)) {
+			primaryGroupAddressesBySignature.put(doc.nameSignature, ga);
+		}
 	}
 
 	/**
-	 * Returns potential candidates of a block.
+	 * Detects the block of a primary GA.
 	 * <p>
-	 * Note, the returned list does not include the
-	 * <code>startingGroupAddress</code>. Thus, it is guaranteed to has a maximum
-	 * size of <code>blockLength - 1</code>. For example is start address is
-	 * <code>1/0/0</code>,
-	 * the result will contain <code>1/0/1</code>, <code>1/0/2</code>,
-	 * <code>1/0/3</code> and <code>1/0/4</code>, assuming their names
-	 * are similar enough.
+	 * A single pool of candidates is collected per primary: the GAs following
+	 * the primary within block distance, the GAs at the same position in status
+	 * ranges and status GAs with a similar name (in scope). The pool is ranked
+	 * once for every role and all members are selected from the ranking.
 	 * </p>
-	 *
-	 * @param startingGroupAddress a start address
-	 * @param blockLength          the block length
-	 * @return the candidates of a potential block with maximum block length as
-	 *         specified, excluding the given start address
 	 */
-	private List<GroupAddress> findGroupAddressBlockCandidates(GroupAddress startingGroupAddress, int blockLength) {
-		List<GroupAddress> block = new ArrayList<>(blockLength);
-		for (int i = 1; i < blockLength; i++) {
-			GroupAddress candidate = groupAddressByThreePartAddress
-					.get(GroupAddress.formatAsThreePartAddress(startingGroupAddress.getAddressInt() + i));
-			if (candidate != null) {
-				if (!isMatchOnName(candidate, startingGroupAddress)) {
-					LOG.debug(
-							"Project doesn't seem to use expected block structure. Insignificant name matching for GA {} (with name '{}') and candidate GA {} with name '{}'.",
-							startingGroupAddress, startingGroupAddress.getName(), candidate, candidate.getName());
-					return block;
+	private GroupAddressBlock detectBlock(GroupAddress primary) {
+		GroupAddressBlock block = new GroupAddressBlock(primary);
+
+		// pattern 1: assume GAs a created as blocks of 5 GAs (0=OnOff, 1=Dim, 2=Value, 3=StatusOnOff, 4=StatusValue)
+		// TODO: this should be configurable
+		Set<GroupAddress> candidatePool = new LinkedHashSet<>();
+		for (int i = 1; i < BLOCK_LENGTH; i++) {
+			int address = primary.getAddressInt() + i;
+			if (address <= MAX_ADDRESS) {
+				addIfPresent(candidatePool, address);
+			}
+		}
+
+		if (getBudget().isExhausted()) {
+			// block structure only (no similarity matching)
+			unresolvedBlocks.add(primary);
+		} else {
+			getBudget().consume(1);
+			unresolvedBlocks.remove(primary);
+
+			// pattern 2: status GA is in a different range
+			candidatePool.addAll(findStatusRangeCandidates(primary));
+
+			// pattern 3: status GA with a similar name elsewhere (but in scope)
+			for (GroupAddress candidate : stateGroupAddressesBySignature
+					.findCandidates(groupAddressIndex.get(primary).nameSignature)) {
+				if (isInSimilarNameScope(candidate, primary)) {
+					candidatePool.add(candidate);
 				}
-				block.add(candidate);
 			}
 		}
+
+		// a candidate only qualifies for the role it scores best for
+		Map<GroupAddress, Float> bestScoreByCandidate = new HashMap<>();
+		Map<GroupAddress, Role> bestRoleByCandidate = new HashMap<>();
+		for (Role role : RANKED_ROLES) {
+			List<ScoredCandidate> rankedCandidates = rankCandidates(primary, candidatePool, role);
+			block.setCandidates(role, rankedCandidates);
+			for (ScoredCandidate candidate : rankedCandidates) {
+				Float bestScore = bestScoreByCandidate.get(candidate.getGroupAddress());
+				if ((bestScore == null) || (candidate.getScore() > bestScore)) {
+					bestScoreByCandidate.put(candidate.getGroupAddress(), candidate.getScore());
+					bestRoleByCandidate.put(candidate.getGroupAddress(), role);
+				} else if (candidate.getScore() == bestScore) {
+					bestRoleByCandidate.put(candidate.getGroupAddress(), null);
+				}
+			}
+		}
+		for (Role role : RANKED_ROLES) {
+			block.set(role, selectBestCandidate(primary, role, block.getCandidates(role), bestRoleByCandidate));
+		}
 		return block;
 	}
 
-	@Override
-	public GroupAddress findMatchingBrightnessGroupAddress(GroupAddress primarySwitchGroupAddress) {
-		// pattern 1: assume GAs a created as blocks of 5 GAs (0=OnOff, 1=Dim, 2=Value, 3=StatusOnOff, 4=StatusValue)
-		// TODO: this should be configurable
-		GroupAddress candidate = groupAddressByThreePartAddress
-				.get(GroupAddress.formatAsThreePartAddress(primarySwitchGroupAddress.getAddressInt() + 2));
-		if (candidate != null) {
-			LOG.debug("Evaluating potential candidate for GA {}: {}", primarySwitchGroupAddress, candidate);
-			if (isMatchOnNameAndDpt(candidate, primarySwitchGroupAddress, Scaling)) {
-				return candidate;
+	/**
+	 * Segments all learned GAs into blocks.
+	 * <p>
+	 * This is a single pass over all potential primary GAs. Each pass ranks a
+	 * small pool of candidates (the block length, one candidate per status range
+	 * and the status GAs sharing a signature band). The result is used by the
+	 * <code>find...</code> methods as a simple lookup.
+	 * </p>
+	 */
+	private void detectBlocks() {
+		buildLookups();
+
+		blockByPrimaryGroupAddress.clear();
+		for (GroupAddress ga : groupAddressIndex.keySet()) {
+			if (super.isPrimarySwitch(ga)) {
+				blockByPrimaryGroupAddress.put(ga, detectBlock(ga));
 			}
 		}
+		LOG.debug("Detected {} blocks for {} GAs", blockByPrimaryGroupAddress.size(), groupAddressIndex.size());
+	}
+
+	/**
+	 * Returns the block detected for a primary GA.
+	 * <p>
+	 * In order for this method to return anything at all, all group addresses
+	 * must be made available to the characteristics by calling
+	 * {@link #learn(List)}.
+	 * </p>
+	 *
+	 * @param primarySwitchGroupAddress the switch GA (as identified by
+	 *                                  {@link #isPrimarySwitch(GroupAddress)}
+	 * @return the block (maybe <code>null</code> if the GA is not a potential
+	 *         primary)
+	 */
+	public GroupAddressBlock findBlock(GroupAddress primarySwitchGroupAddress) {
+		return blockByPrimaryGroupAddress.get(primarySwitchGroupAddress);
+	}
 
-		// give up
-		return null;
+	private GroupAddress findBlockMember(GroupAddress primarySwitchGroupAddress, Role role) {
+		GroupAddressBlock block = blockByPrimaryGroupAddress.get(primarySwitchGroupAddress);
+		return block != null ? block.get(role) : null;
 	}
 
 	@Override
-	public GroupAddress findMatchingBrightnessStatusGroupAddress(GroupAddress primarySwitchGroupAddress) {
-		// pattern 1: assume GAs a created as blocks of 5 GAs (0=OnOff, 1=Dim, 2=Value, 3=StatusOnOff, 4=StatusValue)
-		// TODO: this should be configurable
-		GroupAddress candidate = groupAddressByThreePartAddress
-				.get(GroupAddress.formatAsThreePartAddress(primarySwitchGroupAddress.getAddressInt() + 4));
-		if (candidate != null) {
-			LOG.debug("Evaluating potential candidate for GA {}: {}", primarySwitchGroupAddress, candidate);
-			if (isMatchOnNameAndDpt(candidate, primarySwitchGroupAddress, Scaling)) {
-				return candidate;
-			}
-		}
+	public GroupAddress findMatchingBrightnessGroupAddress(GroupAddress primarySwitchGroupAddress) {
+		return findBlockMember(primarySwitchGroupAddress, Value);
+	}
 
-		// give up
-		return null;
+	@Override
+	public GroupAddress findMatchingBrightnessStatusGroupAddress(GroupAddress primarySwitchGroupAddress) {
+		return findBlockMember(primarySwitchGroupAddress, StatusValue);
 	}
 
 	@Override
 	public GroupAddress findMatchingDimGroupAddress(GroupAddress primarySwitchGroupAddress) {
-		// pattern 1: assume GAs a created as blocks of 5 GAs (0=OnOff, 1=Dim, 2=Value, 3=StatusOnOff, 4=StatusValue)
-		// TODO: this should be configurable
-		GroupAddress candidate = groupAddressByThreePartAddress
-				.get(GroupAddress.formatAsThreePartAddress(primarySwitchGroupAddress.getAddressInt() + 1));
-		if (candidate != null) {
-			LOG.debug("Evaluating potential candidate for GA {}: {}", primarySwitchGroupAddress, candidate);
-			if (isMatchOnNameAndDpt(candidate, primarySwitchGroupAddress, ControlDimming)) {
-				return candidate;
-			}
-		}
-
-		// give up
-		return null;
+		return findBlockMember(primarySwitchGroupAddress, Dim);
 	}
 
 	@Override
 	public GroupAddress findMatchingStatusGroupAddress(GroupAddress primarySwitchGroupAddress) {
-		// preselect based on common patterns
-		List<GroupAddress> candidates = findGroupAddressBlockCandidates(primarySwitchGroupAddress, 5).stream()
-				.filter(ga -> DatapointType.findByKnxProjectValue(ga.getDatapointType()) == DatapointType.State)
-				.collect(toList());
-		if (!candidates.isEmpty()) {
-			if (candidates.size() == 1) {
-				GroupAddress candidate = candidates.get(0);
-				LOG.debug("Found matching status for GA {}: {}", primarySwitchGroupAddress, candidate);
-				return candidate;
-			}
-			LOG.warn("Project is ambiguous. Found multiple matches with DPT {} for GA {}: {}", DatapointType.State,
-					primarySwitchGroupAddress, candidates.stream().map(GroupAddress::toString).collect(joining(", ")));
-		} else {
-			LOG.debug("No candidate indentified with DPT {} based on block pattern for GA {}", DatapointType.State,
-					primarySwitchGroupAddress);
-		}
+		return findBlockMember(primarySwitchGroupAddress, StatusOnOff);
+	}
 
-		// pattern 2: status GA is in a different range
-		List<GroupAddressRange> statusRanges = groupAddressRangeIndex.entrySet().stream()
-				.filter((e) -> containsStatusTerm(e.getValue().nameTerms)).map(Entry::getKey).collect(toList());
+	@Override
+	public String findName(GroupAddress primaryGroupAddress, GroupAddress... additionalGroupAddresses) {
+		return new CommonNameResolver().resolve(primaryGroupAddress,
+				additionalGroupAddresses != null ? Arrays.asList(additionalGroupAddresses) : List.of());
+	}
+
+	@Override
+	public Map<GroupAddress, String> findNames(
+			Map<GroupAddress, ? extends Collection<GroupAddress>> additionalGroupAddressesByPrimary) {
+		return new CommonNameResolver().resolveAll(additionalGroupAddressesByPrimary);
+	}
+
+	/**
+	 * Returns GAs at the same position as the primary GA in all ranges known to
+	 * contain status GAs.
+	 */
+	private List<GroupAddress> findStatusRangeCandidates(GroupAddress primarySwitchGroupAddress) {
+		List<GroupAddress> candidates = new ArrayList<>(statusRanges.size());
 		for (GroupAddressRange statusRange : statusRanges) {
 			int part1, part2, part3;
 			if (statusRange.getParent() == null) {
@@ -191,42 +394,92 @@ public class GenericGermanyKnxProjectCharacteristics extends KnxProjectCharacter
 				part2 = getAddressPart2(statusRange.getStartInt());
 				part3 = getAddressPart3(primarySwitchGroupAddress.getAddressInt());
 			}
-			String potentialStatusGa = formatAsThreePartAddress(part1, part2, part3);
-			GroupAddress candidate = groupAddressByThreePartAddress.get(potentialStatusGa);
+			GroupAddress candidate = groupAddressByAddressInt[getCombindedAddress(part1, part2, part3)];
 			if (candidate != null) {
-				LOG.debug("Evaluating potential candidate for GA {}: {}", primarySwitchGroupAddress, candidate);
-				if (isMatchOnNameAndDpt(candidate, primarySwitchGroupAddress, DatapointType.State)) {
-					LOG.debug("Found matching status for GA {}: {}", primarySwitchGroupAddress, candidate);
-					return candidate;
-				}
+				candidates.add(candidate);
 			}
 		}
-
-		// give up
-		return null;
+		return candidates;
 	}
 
-	@Override
-	public String findName(GroupAddress primaryGroupAddress, GroupAddress... additionalGroupAddresses) {
-		String name = primaryGroupAddress.getName();
-		START_AGAIN: if (additionalGroupAddresses != null) {
-			for (GroupAddress ga : additionalGroupAddresses) {
-				if (!ga.getName().startsWith(name)) {
-					int lastSpace = name.lastIndexOf(' ');
-					if (lastSpace > 0) {
-						name = name.substring(0, lastSpace);
-						break START_AGAIN;
-					} else if (name.length() > 0) {
-						name = name.substring(0, name.length() - 1);
-						break START_AGAIN;
-					} else {
-						// give up, no common name
-						return primaryGroupAddress.getName();
-					}
+	/**
+	 * Inverse of {@link #findStatusRangeCandidates(GroupAddress)}, i.e. returns
+	 * all GAs which would consider the specified GA as a candidate because it is
+	 * located in a status range.
+	 */
+	private List<GroupAddress> findStatusRangeMirrors(GroupAddress statusCandidate) {
+		List<GroupAddress> mirrors = new ArrayList<>();
+		int address = statusCandidate.getAddressInt();
+		for (GroupAddressRange statusRange : statusRanges) {
+			if ((address < statusRange.getStartInt()) || (address > statusRange.getEndInt())) {
+				continue;
+			}
+			if (statusRange.getParent() == null) {
+				for (int part1 = 0; part1 <= getAddressPart1(MAX_ADDRESS); part1++) {
+					addIfPresent(mirrors,
+							getCombindedAddress(part1, getAddressPart2(address), getAddressPart3(address)));
+				}
+			} else {
+				for (int part2 = 0; part2 <= getAddressPart2(MAX_ADDRESS); part2++) {
+					addIfPresent(mirrors,
+							getCombindedAddress(getAddressPart1(address), part2, getAddressPart3(address)));
 				}
 			}
 		}
-		return name;
+		return mirrors;
+	}
+
+	@Override
+	public Set<DeviceCategory> getCategories(GroupAddress ga) {
+		GroupAddressDocument doc = groupAddressIndex.get(ga);
+		if (doc == null) {
+			LOG.debug("No index available for GA: {}", ga);
+			getDiagnostics().report(IssueCode.MissingIndex, ga);
+			return Collections.emptySet();
+		}
+
+		return doc.categories;
+	}
+
+	private Set<Device> getDevices(GroupAddress ga) {
+		Set<Device> devices = new HashSet<>();
+		for (CommunicationObject co : ga.getWritingCommunicationObjects()) {
+			devices.add(co.getDevice());
+		}
+		for (CommunicationObject co : ga.getListeningCommunicationObjects()) {
+			devices.add(co.getDevice());
+		}
+		return devices;
+	}
+
+	private DatapointType getExpectedDatapointType(Role role) {
+		switch (role) {
+		case OnOff:
+			return DatapointType.Switch;
+		case Dim:
+			return DatapointType.ControlDimming;
+		case StatusOnOff:
+			return DatapointType.State;
+		default:
+			return DatapointType.Scaling;
+		}
+	}
+
+	/**
+	 * @return the persistent search index (maybe <code>null</code> if no
+	 *         {@link #setSearchIndexDirectory(Path) directory} was set or nothing
+	 *         was learned yet)
+	 */
+	public GroupAddressSearchIndex getSearchIndex() {
+		return searchIndex;
+	}
+
+	/**
+	 * @return the number of learned GAs which were classified structurally (i.e.
+	 *         without text analysis)
+	 */
+	public int getStructurallyClassifiedCount() {
+		return structurallyClassifiedCount;
 	}
 
 	Set<String> getTerms(String text) throws IOException {
@@ -234,18 +487,70 @@ public class GenericGermanyKnxProjectCharacteristics extends KnxProjectCharacter
 		try (TokenStream ts = germanAnalyzer.tokenStream("", text)) {
 			CharTermAttribute charTermAttribute = ts.addAttribute(CharTermAttribute.class);
 			ts.reset();
+			int tokens = 0;
 			while (ts.incrementToken()) {
 				terms.add(charTermAttribute.toString());
+				tokens++;
 			}
 			ts.end();
+			tokenCount.add(tokens);
 		}
 		return terms;
 	}
 
-	private void index(GroupAddress ga) {
+	/**
+	 * @return the number of tokens produced by text analysis so far
+	 */
+	long getTokenCount() {
+		return tokenCount.sum();
+	}
+
+	@Override
+	public Set<GroupAddress> getUnresolvedGroupAddresses() {
+		Set<GroupAddress> unresolved = new HashSet<>(unresolvedIndexes);
+		unresolved.addAll(unresolvedBlocks);
+		return unresolved;
+	}
+
+	/**
+	 * @param analyzedDocument terms and categories of the GA read from the
+	 *                         search index (maybe <code>null</code>)
+	 */
+	private void index(GroupAddress ga, Classification structuralClassification,
+			GroupAddressDocument analyzedDocument) {
 		try {
 			GroupAddressDocument doc = new GroupAddressDocument();
-			doc.nameTerms = getTerms(ga.getName());
+			if (structuralClassification != null) {
+				// no need for text analysis
+				doc.nameTerms = Collections.emptySet();
+				doc.categories = EnumSet.of(Light);
+				doc.primarySwitch = structuralClassification == Classification.LightPrimary;
+				doc.status = structuralClassification == Classification.LightStatus;
+				doc.nameSignature = similarityEngine.createSignature(ga.getName());
+				unresolvedIndexes.remove(ga);
+			} else if (analyzedDocument != null) {
+				// analyzed in a previous run
+				doc.nameTerms = analyzedDocument.nameTerms;
+				doc.categories = analyzedDocument.categories;
+				doc.status = analyzedDocument.status;
+				doc.primarySwitch = analyzedDocument.primarySwitch;
+				doc.nameSignature = similarityEngine.createSignature(ga.getName());
+				unresolvedIndexes.remove(ga);
+			} else if (getBudget().isExhausted()) {
+				// prefixes and tags only (no text analysis)
+				doc.nameTerms = Collections.emptySet();
+				doc.categories = categoryMatcher.match(doc.nameTerms, ga.getName(), ga.getDescription());
+				// without terms a status GA would pass as primary
+				doc.status = containsStatusWord(ga.getName());
+				doc.nameSignature = similarityEngine.createSignature(null);
+				unresolvedIndexes.add(ga);
+			} else {
+				doc.nameTerms = getTerms(ga.getName());
+				doc.categories = categoryMatcher.match(doc.nameTerms, ga.getName(), ga.getDescription());
+				doc.nameSignature = similarityEngine.createSignature(ga.getName());
+				unresolvedIndexes.remove(ga);
+				getBudget().consume(1);
+			}
 			groupAddressIndex.put(ga, doc);
 
 			GroupAddressRange range = ga.getGroupAddressRange();
@@ -254,7 +559,8 @@ public class GenericGermanyKnxProjectCharacteristics extends KnxProjectCharacter
 				range = range.getParent();
 			}
 		} catch (IOException e) {
-			LOG.warn("Caught exception indexing GA {}", ga, e);
+			LOG.debug("Caught exception indexing GA {}", ga, e);
+			getDiagnostics().report(IssueCode.IndexingFailed, ga, e);
 		}
 	}
 
@@ -264,25 +570,56 @@ public class GenericGermanyKnxProjectCharacteristics extends KnxProjectCharacter
 			rangeDoc.nameTerms = getTerms(range.getName());
 			groupAddressRangeIndex.put(range, rangeDoc);
 		} catch (IOException e) {
-			LOG.warn("Caught exception indexing group address range {}", range, e);
+			LOG.debug("Caught exception indexing group address range {}", range, e);
+			getDiagnostics().report(IssueCode.IndexingFailed, range, e);
 		}
 	}
 
+	private boolean isInStatusRange(GroupAddress ga) {
+		for (GroupAddressRange range = ga.getGroupAddressRange(); range != null; range = range.getParent()) {
+			GroupAddressDocument rangeDoc = groupAddressRangeIndex.get(range);
+			if ((rangeDoc != null) && containsStatusTerm(rangeDoc.nameTerms)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Candidates found by name only must be in the same main group as the primary
+	 * GA, at the same position in another main group (eg., a main group for
+	 * status GAs) or in a status range. Names are not unique across the project
+	 * (eg., the same room names used per building).
+	 */
+	private boolean isInSimilarNameScope(GroupAddress candidate, GroupAddress primary) {
+		int candidateAddress = candidate.getAddressInt();
+		int primaryAddress = primary.getAddressInt();
+		if (getAddressPart1(candidateAddress) == getAddressPart1(primaryAddress)) {
+			return true;
+		}
+		if ((getAddressPart2(candidateAddress) == getAddressPart2(primaryAddress))
+				&& (getAddressPart3(candidateAddress) == getAddressPart3(primaryAddress))) {
+			return true;
+		}
+		return isInStatusRange(candidate);
+	}
+
 	@Override
 	public boolean isLight(GroupAddress ga) {
 		if ((null == ga.getName()) || ga.getName().isBlank()) {
-			LOG.warn("GA with blank/empty name should be fixed: {}", ga);
+			LOG.debug("GA with blank/empty name should be fixed: {}", ga);
+			getDiagnostics().report(IssueCode.BlankName, ga);
 			return false;
 		}
 
 		GroupAddressDocument doc = groupAddressIndex.get(ga);
 		if (doc == null) {
-			LOG.warn("No index available for GA: {}", ga);
+			LOG.debug("No index available for GA: {}", ga);
+			getDiagnostics().report(IssueCode.MissingIndex, ga);
 			return false;
 		}
 
-		return nameContainsTerms(doc, lightIdentifyingTerms) || nameStartsWith(ga, lightIdentifyingPrefixes)
-				|| descriptionContainsTag(ga, "[Licht]");
+		return doc.categories.contains(Light);
 	}
 
 	boolean isMatchOnName(GroupAddress candidate, GroupAddress ga) {
@@ -299,23 +636,6 @@ public class GenericGermanyKnxProjectCharacteristics extends KnxProjectCharacter
 		return true;
 	}
 
-	boolean isMatchOnNameAndDpt(GroupAddress candidate, GroupAddress primarySwitchGroupAddress, DatapointType dpt,
-			DatapointType... dpts) {
-		// prefix match
-		if (!isMatchOnName(candidate, primarySwitchGroupAddress)) {
-			return false;
-		}
-
-		// DPT match
-		if ((candidate.getDatapointType() == null) || candidate.getDatapointType().isBlank()) {
-			// TODO: this should be configurable
-			LOG.warn("Accepting candidate with missing DPT {}", candidate);
-			return true;
-		}
-		DatapointType candidateDpt = DatapointType.findByKnxProjectValue(candidate.getDatapointType());
-		return (dpt == candidateDpt) || ((null != dpts) && (Arrays.stream(dpts).anyMatch((d) -> candidateDpt == d)));
-	}
-
 	@Override
 	public boolean isPrimarySwitch(GroupAddress ga) {
 		// pre-select based on DPT
@@ -328,27 +648,558 @@ public class GenericGermanyKnxProjectCharacteristics extends KnxProjectCharacter
 		// filter out addresses with similar name but not primary purpose (eg., status)
 		GroupAddressDocument doc = groupAddressIndex.get(ga);
 		if (doc == null) {
-			LOG.warn("No index available for GA: {}", ga);
+			LOG.debug("No index available for GA: {}", ga);
+			getDiagnostics().report(IssueCode.MissingIndex, ga);
+			return false;
+		}
+
+		if (doc.primarySwitch != null) {
+			return doc.primarySwitch;
+		}
+
+		return !isStatus(doc);
+	}
+
+	private boolean isReferencingAny(GroupAddressBlock block, Set<GroupAddress> groupAddresses) {
+		for (GroupAddress member : block.getMembers().values()) {
+			if (groupAddresses.contains(member)) {
+				return true;
+			}
+		}
+		for (Role role : RANKED_ROLES) {
+			for (ScoredCandidate candidate : block.getCandidates(role)) {
+				if (groupAddresses.contains(candidate.getGroupAddress())) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Compares names based on their precomputed signatures.
+	 * <p>
+	 * In contrast to {@link #isMatchOnName(GroupAddress, GroupAddress)} this
+	 * tolerates typos, spelling variants and re-ordered words. Functional
+	 * qualifiers (eg., <code>Status</code>) are ignored.
+	 * </p>
+	 */
+	boolean isSimilarName(GroupAddress candidate, GroupAddress ga) {
+		float similarity = similarityEngine.similarity(groupAddressIndex.get(candidate).nameSignature,
+				groupAddressIndex.get(ga).nameSignature);
+		if (similarity < NAME_SIMILARITY_THRESHOLD) {
+			LOG.debug("Name of candidate {} ('{}') not similar to {} ('{}') (similarity {})", candidate,
+					candidate.getName(), ga, ga.getName(), similarity);
 			return false;
 		}
 
-		return !containsStatusTerm(doc.nameTerms);
+		return true;
+	}
+
+	/**
+	 * @return the known role of the GA or whether its terms indicate a status
+	 */
+	private boolean isStatus(GroupAddressDocument doc) {
+		return doc.status != null ? doc.status : containsStatusTerm(doc.nameTerms);
 	}
 
 	@Override
 	public void learn(List<GroupAddress> groupAddresses) {
+		// classify structurally first so that only ambiguous GAs need text analysis
+		Map<GroupAddress, Classification> structuralClassifications;
+		try (var phase = getTimer().start("classify")) {
+			structuralClassifications = structuralClassifier.classify(groupAddresses, groupAddressIndex.keySet());
+			phase.setCount(structuralClassifications.size(), "GAs");
+		}
+		structurallyClassifiedCount += structuralClassifications.size();
+		if (!groupAddresses.isEmpty()) {
+			LOG.info("Classified {} of {} GAs ({}%) structurally without text analysis",
+					structuralClassifications.size(), groupAddresses.size(),
+					(structuralClassifications.size() * 100) / groupAddresses.size());
+		}
+
+		Map<String, GroupAddressDocument> analyzedDocuments = Map.of();
+		if (searchIndexDirectory != null) {
+			analyzedDocuments = readSearchIndex(groupAddresses);
+		}
+
+		try (var phase = getTimer().start("index")) {
+			long tokensAtStart = tokenCount.sum();
+			for (GroupAddress ga : groupAddresses) {
+				index(ga, structuralClassifications.get(ga), analyzedDocuments.get(ga.getAddress()));
+				groupAddressByThreePartAddress.put(ga.getAddress(), ga);
+			}
+			phase.setCount(tokenCount.sum() - tokensAtStart, "tokens");
+		}
+
+		try (var phase = getTimer().start("blocks")) {
+			detectBlocks();
+			phase.setCount(blockByPrimaryGroupAddress.size(), "blocks");
+		}
+
+		if (searchIndexDirectory != null) {
+			try (var phase = getTimer().start("search index")) {
+				updateSearchIndex(null);
+				phase.setCount(groupAddressIndex.size(), "GAs");
+			}
+		}
+	}
+
+	/**
+	 * Ranks candidates for a role using a bounded min-heap.
+	 *
+	 * @return the top {@value #MAX_RANKED_CANDIDATES} candidates (best first)
+	 */
+	private List<ScoredCandidate> rankCandidates(GroupAddress primary, Collection<GroupAddress> candidatePool,
+			Role role) {
+		PriorityQueue<ScoredCandidate> topCandidates = new PriorityQueue<>(MAX_RANKED_CANDIDATES + 1,
+				ScoredCandidate.BEST_FIRST.reversed());
+		Set<Device> primaryDevices = getDevices(primary);
+		for (GroupAddress candidate : candidatePool) {
+			float score = score(primary, primaryDevices, candidate, role);
+			if (Float.isNaN(score)) {
+				continue;
+			}
+			topCandidates.offer(new ScoredCandidate(candidate, score));
+			if (topCandidates.size() > MAX_RANKED_CANDIDATES) {
+				topCandidates.poll();
+			}
+		}
+
+		List<ScoredCandidate> ranked = new ArrayList<>(topCandidates);
+		ranked.sort(ScoredCandidate.BEST_FIRST);
+		return ranked;
+	}
+
+	/**
+	 * Updates the index and blocks for changed GAs only.
+	 * <p>
+	 * Besides the changed GAs, their neighbours within block distance are
+	 * re-indexed (their structural classification may depend on the changed
+	 * GAs). Blocks are re-detected for all primaries which may be affected: the
+	 * primaries within block distance, primaries mirroring a changed GA in a
+	 * status range, primaries with a similar name as a changed status GA and
+	 * primaries whose block references a changed GA.
+	 * </p>
+	 * <p>
+	 * A changed GA which is a different instance than the one learned before for
+	 * the same address replaces the previous one.
+	 * </p>
+	 */
+	@Override
+	public Set<GroupAddress> relearn(Collection<GroupAddress> changedGroupAddresses) {
+		if (groupAddressByAddressInt == null) {
+			// nothing learned yet
+			learn(new ArrayList<>(changedGroupAddresses));
+			return new HashSet<>(blockByPrimaryGroupAddress.keySet());
+		}
+
+		Set<GroupAddress> affectedPrimaries = new LinkedHashSet<>();
+		Set<GroupAddress> outdated = new HashSet<>(changedGroupAddresses);
+		for (GroupAddress ga : changedGroupAddresses) {
+			GroupAddress previous = groupAddressByAddressInt[ga.getAddressInt()];
+			if ((previous != null) && (previous != ga)) {
+				LOG.debug("Replacing GA {} with changed instance", previous);
+				removeFromSignatureIndexes(previous, groupAddressIndex.remove(previous));
+				if (blockByPrimaryGroupAddress.remove(previous) != null) {
+					affectedPrimaries.add(ga);
+				}
+				outdated.add(previous);
+			}
+			groupAddressByAddressInt[ga.getAddressInt()] = ga;
+			groupAddressByThreePartAddress.put(ga.getAddress(), ga);
+		}
+
+		// neighbours within block distance
+		Set<GroupAddress> reindex = new LinkedHashSet<>(changedGroupAddresses);
+		for (GroupAddress ga : changedGroupAddresses) {
+			for (int i = -(BLOCK_LENGTH - 1); i < BLOCK_LENGTH; i++) {
+				int address = ga.getAddressInt() + i;
+				if ((address >= 0) && (address <= MAX_ADDRESS) && (groupAddressByAddressInt[address] != null)) {
+					reindex.add(groupAddressByAddressInt[address]);
+				}
+			}
+		}
+
+		// blocks referencing outdated information
+		for (GroupAddressBlock block : blockByPrimaryGroupAddress.values()) {
+			if (isReferencingAny(block, outdated)) {
+				affectedPrimaries.add(block.getPrimaryGroupAddress());
+			}
+		}
+
+		Map<GroupAddress, Classification> structuralClassifications = structuralClassifier.classify(reindex,
+				groupAddressIndex.keySet());
+		for (GroupAddress ga : reindex) {
+			removeFromSignatureIndexes(ga, groupAddressIndex.get(ga));
+			index(ga, structuralClassifications.get(ga), null);
+			addToSignatureIndexes(ga, groupAddressIndex.get(ga));
+		}
+		updateStatusRanges();
+
+		for (GroupAddress ga : reindex) {
+			for (int i = -(BLOCK_LENGTH - 1); i <= 0; i++) {
+				int address = ga.getAddressInt() + i;
+				if ((address >= 0) && (groupAddressByAddressInt[address] != null)) {
+					affectedPrimaries.add(groupAddressByAddressInt[address]);
+				}
+			}
+			affectedPrimaries.addAll(findStatusRangeMirrors(ga));
+			Signature signature = groupAddressIndex.get(ga).nameSignature;
+			for (GroupAddress similar : primaryGroupAddressesBySignature.findCandidates(signature)) {
+				if (similarityEngine.similarity(groupAddressIndex.get(similar).nameSignature,
+						signature) >= NAME_SIMILARITY_THRESHOLD) {
+					affectedPrimaries.add(similar);
+				}
+			}
+		}
+
+		// re-detect blocks
+		for (GroupAddress ga : affectedPrimaries) {
+			if (groupAddressIndex.containsKey(ga) && super.isPrimarySwitch(ga)) {
+				blockByPrimaryGroupAddress.put(ga, detectBlock(ga));
+			} else {
+				blockByPrimaryGroupAddress.remove(ga);
+			}
+		}
+		LOG.debug("Re-indexed {} GAs for {} changed GAs affecting {} potential primaries", reindex.size(),
+				changedGroupAddresses.size(), affectedPrimaries.size());
+
+		if (searchIndexDirectory != null) {
+			updateSearchIndex(reindex);
+		}
+		return affectedPrimaries;
+	}
+
+	/**
+	 * Reads analyzed GAs from the search index if it is current for the project
+	 * after learning the specified GAs.
+	 */
+	private Map<String, GroupAddressDocument> readSearchIndex(List<GroupAddress> groupAddresses) {
+		try {
+			if (searchIndex == null) {
+				searchIndex = GroupAddressSearchIndex.open(searchIndexDirectory, germanAnalyzer);
+			}
+
+			Set<GroupAddress> learned = new HashSet<>(groupAddressIndex.keySet());
+			learned.addAll(groupAddresses);
+			if (!searchIndex.isCurrent(ProjectSnapshot.hash(learned))) {
+				return Map.of();
+			}
+
+			Map<String, GroupAddressDocument> analyzedDocuments = searchIndex.readAnalyzedGroupAddresses();
+			LOG.debug("Read {} analyzed GAs from search index at {}", analyzedDocuments.size(), searchIndexDirectory);
+			return analyzedDocuments;
+		} catch (IOException e) {
+			LOG.warn("Caught exception reading search index at {}", searchIndexDirectory, e);
+			return Map.of();
+		}
+	}
+
+	private void removeFromSignatureIndexes(GroupAddress ga, GroupAddressDocument doc) {
+		if (doc != null) {
+			stateGroupAddressesBySignature.remove(doc.nameSignature, ga);
+			primaryGroupAddressesBySignature.remove(doc.nameSignature, ga);
+		}
+	}
+
+	/**
+	 * Restores the state written by {@link #saveState(DataOutput)}.
+	 * <p>
+	 * The state contains the analyzed terms, categories and name signatures of
+	 * all GAs and ranges as well as the detected blocks. GAs are identified by
+	 * address and ranges by id.
+	 * </p>
+	 */
+	@Override
+	public boolean restoreState(DataInput in, List<GroupAddress> groupAddresses) throws IOException {
+		Map<Integer, GroupAddress> groupAddressByAddress = new HashMap<>();
+		Map<String, GroupAddressRange> rangeByKey = new HashMap<>();
 		for (GroupAddress ga : groupAddresses) {
-			index(ga);
+			groupAddressByAddress.put(ga.getAddressInt(), ga);
+			for (GroupAddressRange range = ga.getGroupAddressRange(); range != null; range = range.getParent()) {
+				rangeByKey.putIfAbsent(getRangeKey(range), range);
+			}
+		}
+
+		int restoredStructurallyClassifiedCount = in.readInt();
+
+		Map<GroupAddressRange, GroupAddressDocument> rangeDocs = new HashMap<>();
+		int rangeCount = in.readInt();
+		for (int i = 0; i < rangeCount; i++) {
+			GroupAddressRange range = rangeByKey.get(in.readUTF());
+			GroupAddressDocument rangeDoc = new GroupAddressDocument();
+			rangeDoc.nameTerms = readTerms(in);
+			if (range == null) {
+				LOG.debug("State does not match project (unknown range)");
+				return false;
+			}
+			rangeDocs.put(range, rangeDoc);
+		}
+
+		Map<GroupAddress, GroupAddressDocument> docs = new HashMap<>();
+		int groupAddressCount = in.readInt();
+		for (int i = 0; i < groupAddressCount; i++) {
+			GroupAddress ga = groupAddressByAddress.get(in.readUnsignedShort());
+			GroupAddressDocument doc = new GroupAddressDocument();
+			doc.nameTerms = readTerms(in);
+			doc.categories = EnumSet.noneOf(DeviceCategory.class);
+			int categoryBits = in.readUnsignedByte();
+			for (DeviceCategory category : CATEGORIES) {
+				if ((categoryBits & (1 << category.ordinal())) != 0) {
+					doc.categories.add(category);
+				}
+			}
+			doc.primarySwitch = readFlag(in);
+			doc.status = readFlag(in);
+			doc.nameSignature = Signature.read(in);
+			if (ga == null) {
+				LOG.debug("State does not match project (unknown GA)");
+				return false;
+			}
+			docs.put(ga, doc);
+		}
+
+		Map<GroupAddress, GroupAddressBlock> blocks = new HashMap<>();
+		int blockCount = in.readInt();
+		for (int i = 0; i < blockCount; i++) {
+			GroupAddress primary = groupAddressByAddress.get(in.readUnsignedShort());
+			if (primary == null) {
+				LOG.debug("State does not match project (unknown primary GA of block)");
+				return false;
+			}
+			GroupAddressBlock block = new GroupAddressBlock(primary);
+			int memberCount = in.readUnsignedByte();
+			for (int m = 0; m < memberCount; m++) {
+				Role role = ROLES[in.readUnsignedByte()];
+				GroupAddress member = groupAddressByAddress.get(in.readUnsignedShort());
+				if (member == null) {
+					LOG.debug("State does not match project (unknown member GA of block)");
+					return false;
+				}
+				block.set(role, member);
+			}
+			for (Role role : RANKED_ROLES) {
+				List<ScoredCandidate> candidates = new ArrayList<>();
+				int candidateCount = in.readUnsignedByte();
+				for (int c = 0; c < candidateCount; c++) {
+					GroupAddress candidate = groupAddressByAddress.get(in.readUnsignedShort());
+					float score = in.readFloat();
+					if (candidate == null) {
+						LOG.debug("State does not match project (unknown candidate GA of block)");
+						return false;
+					}
+					candidates.add(new ScoredCandidate(candidate, score));
+				}
+				block.setCandidates(role, candidates);
+			}
+			blocks.put(block.getPrimaryGroupAddress(), block);
+		}
+
+		groupAddressIndex.clear();
+		groupAddressIndex.putAll(docs);
+		groupAddressRangeIndex.clear();
+		groupAddressRangeIndex.putAll(rangeDocs);
+		groupAddressByThreePartAddress.clear();
+		for (GroupAddress ga : docs.keySet()) {
 			groupAddressByThreePartAddress.put(ga.getAddress(), ga);
 		}
+		structurallyClassifiedCount = restoredStructurallyClassifiedCount;
+		buildLookups();
+		blockByPrimaryGroupAddress.clear();
+		blockByPrimaryGroupAddress.putAll(blocks);
+		LOG.debug("Restored state of {} GAs and {} blocks", docs.size(), blocks.size());
+
+		if (searchIndexDirectory != null) {
+			updateSearchIndex(null);
+		}
+		return true;
 	}
 
-	private boolean nameContainsTerms(GroupAddressDocument doc, Set<String> terms) {
-		return doc.nameTerms.parallelStream().filter((s) -> terms.contains(s)).findAny().isPresent();
+	@Override
+	public boolean saveState(DataOutput out) throws IOException {
+		out.writeInt(structurallyClassifiedCount);
+
+		out.writeInt(groupAddressRangeIndex.size());
+		for (Entry<GroupAddressRange, GroupAddressDocument> e : groupAddressRangeIndex.entrySet()) {
+			out.writeUTF(getRangeKey(e.getKey()));
+			writeTerms(out, e.getValue().nameTerms);
+		}
+
+		out.writeInt(groupAddressIndex.size());
+		for (Entry<GroupAddress, GroupAddressDocument> e : groupAddressIndex.entrySet()) {
+			GroupAddressDocument doc = e.getValue();
+			out.writeShort(e.getKey().getAddressInt());
+			writeTerms(out, doc.nameTerms);
+			int categoryBits = 0;
+			for (DeviceCategory category : doc.categories) {
+				categoryBits |= 1 << category.ordinal();
+			}
+			out.writeByte(categoryBits);
+			writeFlag(out, doc.primarySwitch);
+			writeFlag(out, doc.status);
+			doc.nameSignature.write(out);
+		}
+
+		out.writeInt(blockByPrimaryGroupAddress.size());
+		for (GroupAddressBlock block : blockByPrimaryGroupAddress.values()) {
+			out.writeShort(block.getPrimaryGroupAddress().getAddressInt());
+			Map<Role, GroupAddress> members = block.getMembers();
+			out.writeByte(members.size());
+			for (Entry<Role, GroupAddress> member : members.entrySet()) {
+				out.writeByte(member.getKey().ordinal());
+				out.writeShort(member.getValue().getAddressInt());
+			}
+			for (Role role : RANKED_ROLES) {
+				List<ScoredCandidate> candidates = block.getCandidates(role);
+				out.writeByte(candidates.size());
+				for (ScoredCandidate candidate : candidates) {
+					out.writeShort(candidate.getGroupAddress().getAddressInt());
+					out.writeFloat(candidate.getScore());
+				}
+			}
+		}
+		return true;
 	}
 
-	private boolean nameStartsWith(GroupAddress ga, List<String> prefix) {
-		return prefix.parallelStream().filter((p) -> ga.getName().startsWith(p)).findAny().isPresent();
+	/**
+	 * Scores a candidate for a role.
+	 * <p>
+	 * Features (and weights) are: matching DPT (3, or 1 if unknown), expected
+	 * block position (2, or 0.5 anywhere else within the block), name similarity
+	 * (up to 2), status term or status range matching the role (1, or -1 if
+	 * contradicting), same range (0.5) and sharing a device via communication
+	 * objects (1).
+	 * </p>
+	 *
+	 * @return the score or {@link Float#NaN} if the candidate does not qualify
+	 *         (wrong DPT)
+	 */
+	private float score(GroupAddress primary, Set<Device> primaryDevices, GroupAddress candidate, Role role) {
+		float score;
+		if ((candidate.getDatapointType() == null) || candidate.getDatapointType().isBlank()) {
+			// TODO: this should be configurable
+			LOG.debug("Accepting candidate with missing DPT {}", candidate);
+			getDiagnostics().report(IssueCode.MissingDatapointType, candidate);
+			score = 1F;
+		} else if (DatapointType.findByKnxProjectValue(candidate.getDatapointType()) == getExpectedDatapointType(
+				role)) {
+			score = 3F;
+		} else {
+			return Float.NaN;
+		}
+
+		int offset = candidate.getAddressInt() - primary.getAddressInt();
+		if (offset == role.getBlockOffset()) {
+			score += 2F;
+		} else if ((offset > 0) && (offset < BLOCK_LENGTH)) {
+			score += 0.5F;
+		}
+
+		GroupAddressDocument candidateDoc = groupAddressIndex.get(candidate);
+		score += 2F * similarityEngine.similarity(candidateDoc.nameSignature,
+				groupAddressIndex.get(primary).nameSignature);
+
+		boolean status = isStatus(candidateDoc) || isInStatusRange(candidate);
+		if (status) {
+			score += ((role == StatusOnOff) || (role == StatusValue)) ? 1F : -1F;
+		}
+
+		if ((candidate.getGroupAddressRange() != null)
+				&& candidate.getGroupAddressRange().equals(primary.getGroupAddressRange())) {
+			score += 0.5F;
+		}
+
+		for (CommunicationObject co : candidate.getWritingCommunicationObjects()) {
+			if (primaryDevices.contains(co.getDevice())) {
+				score += 1F;
+				break;
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * Selects the best ranked candidate for a role if it is unambiguous (i.e.
+	 * scores higher than the runner-up), fits this role better than any other
+	 * role and has a matching name (by prefix or similarity).
+	 */
+	private GroupAddress selectBestCandidate(GroupAddress primary, Role role, List<ScoredCandidate> rankedCandidates,
+			Map<GroupAddress, Role> bestRoleByCandidate) {
+		if (rankedCandidates.isEmpty()) {
+			return null;
+		}
+		ScoredCandidate best = rankedCandidates.get(0);
+		if ((rankedCandidates.size() > 1) && (rankedCandidates.get(1).getScore() >= best.getScore())) {
+			LOG.debug("Ranking is ambiguous for role {} of GA {}: {}", role, primary, rankedCandidates);
+			if (role == StatusOnOff) {
+				getDiagnostics().report(IssueCode.AmbiguousStatus, primary,
+						rankedCandidates.stream().map(ScoredCandidate::getGroupAddress).collect(toList()));
+			}
+			return null;
+		}
+		GroupAddress candidate = best.getGroupAddress();
+		if (bestRoleByCandidate.get(candidate) != role) {
+			LOG.debug("Candidate {} fits role {} of GA {} not best", candidate, role, primary);
+			return null;
+		}
+		if (!isMatchOnName(candidate, primary) && !isSimilarName(candidate, primary)) {
+			return null;
+		}
+		LOG.debug("Selected best ranked candidate for role {} of GA {}: {}", role, primary, best);
+		return candidate;
+	}
+
+	/**
+	 * Enables writing all learned GAs and ranges into a persistent search index.
+	 * <p>
+	 * The index will be (re-)built by {@link #learn(List)} unless an index for the
+	 * same {@link ProjectSnapshot project snapshot} is already present in the
+	 * directory. In that case the terms and categories of GAs are read from the
+	 * index instead of analyzing their names again.
+	 * </p>
+	 *
+	 * @param searchIndexDirectory the directory for storing the index (maybe
+	 *                             <code>null</code> to disable)
+	 */
+	public void setSearchIndexDirectory(Path searchIndexDirectory) {
+		this.searchIndexDirectory = searchIndexDirectory;
+	}
+
+	/**
+	 * @param changedGroupAddresses the GAs to update (<code>null</code> to
+	 *                              rebuild everything)
+	 */
+	private void updateSearchIndex(Collection<GroupAddress> changedGroupAddresses) {
+		try {
+			boolean rebuild = (searchIndex == null) || (changedGroupAddresses == null);
+			if (searchIndex == null) {
+				searchIndex = GroupAddressSearchIndex.open(searchIndexDirectory, germanAnalyzer);
+			}
+
+			Set<GroupAddress> groupAddresses = groupAddressIndex.keySet();
+			String snapshotHash = ProjectSnapshot.hash(groupAddresses);
+			if (searchIndex.isCurrent(snapshotHash)) {
+				LOG.debug("Re-using search index at {}", searchIndexDirectory);
+				return;
+			}
+
+			if (!rebuild) {
+				LOG.debug("Updating search index at {}", searchIndexDirectory);
+				searchIndex.update(changedGroupAddresses, groupAddressIndex::get, snapshotHash);
+				return;
+			}
+
+			LOG.debug("Building search index at {}", searchIndexDirectory);
+			searchIndex.rebuild(groupAddresses, groupAddressIndex::get, snapshotHash);
+		} catch (IOException e) {
+			LOG.warn("Caught exception updating search index at {}", searchIndexDirectory, e);
+		}
+	}
+
+	private void updateStatusRanges() {
+		statusRanges = groupAddressRangeIndex.entrySet().stream()
+				.filter((e) -> containsStatusTerm(e.getValue().nameTerms)).map(Entry::getKey).collect(toList());
 	}
 
 }
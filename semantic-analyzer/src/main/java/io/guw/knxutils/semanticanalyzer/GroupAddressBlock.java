@@ -0,0 +1,112 @@
+package io.guw.knxutils.semanticanalyzer;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+
+/**
+ * A block of related GAs detected for a primary GA.
+ * <p>
+ * As per recommendation of KNX.org GAs are created as blocks (eg., for a light
+ * <code>x/y/z</code> to <code>x/y/z+4</code>). A block captures the role each
+ * related GA plays with respect to the primary GA. Members don't necessarily
+ * need to be part of the same range (eg., status GAs may be collected in a
+ * separate range).
+ * </p>
+ * <p>
+ * In addition to the selected members a block carries the best
+ * {@link ScoredCandidate candidates} for each role. They are ranked once when
+ * the block is detected.
+ * </p>
+ */
+public class GroupAddressBlock {
+
+	/**
+	 * The roles of GAs within a block.
+	 */
+	public enum Role {
+
+		OnOff(0),
+
+		Dim(1),
+
+		Value(2),
+
+		StatusOnOff(3),
+
+		StatusValue(4);
+
+		private final int blockOffset;
+
+		private Role(int blockOffset) {
+			this.blockOffset = blockOffset;
+		}
+
+		/**
+		 * @return the offset of the role relative to the primary GA when following
+		 *         the recommended block pattern
+		 */
+		public int getBlockOffset() {
+			return blockOffset;
+		}
+	}
+
+	/** the length of a block following the recommended block pattern */
+	public static final int BLOCK_LENGTH = Role.values().length;
+
+	private final Map<Role, GroupAddress> members = new EnumMap<>(Role.class);
+	private final Map<Role, List<ScoredCandidate>> candidates = new EnumMap<>(Role.class);
+
+	public GroupAddressBlock(GroupAddress primaryGroupAddress) {
+		members.put(Role.OnOff, primaryGroupAddress);
+	}
+
+	/**
+	 * @param role the role
+	 * @return the GA having the specified role (maybe <code>null</code>)
+	 */
+	public GroupAddress get(Role role) {
+		return members.get(role);
+	}
+
+	/**
+	 * @param role the role
+	 * @return the best candidates for the role ordered by
+	 *         {@link ScoredCandidate#BEST_FIRST score} (maybe empty but never
+	 *         <code>null</code>)
+	 */
+	public List<ScoredCandidate> getCandidates(Role role) {
+		return candidates.getOrDefault(role, List.of());
+	}
+
+	/**
+	 * @return an unmodifiable view of all members of the block by their role
+	 */
+	public Map<Role, GroupAddress> getMembers() {
+		return Collections.unmodifiableMap(members);
+	}
+
+	public GroupAddress getPrimaryGroupAddress() {
+		return members.get(Role.OnOff);
+	}
+
+	void set(Role role, GroupAddress ga) {
+		if (ga == null) {
+			members.remove(role);
+		} else {
+			members.put(role, ga);
+		}
+	}
+
+	void setCandidates(Role role, List<ScoredCandidate> rankedCandidates) {
+		candidates.put(role, List.copyOf(rankedCandidates));
+	}
+
+	@Override
+	public String toString() {
+		return "GroupAddressBlock " + members;
+	}
+}
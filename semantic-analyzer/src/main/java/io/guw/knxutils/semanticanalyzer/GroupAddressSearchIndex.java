@@ -0,0 +1,333 @@
+package io.guw.knxutils.semanticanalyzer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexWriterConfig.OpenMode;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.MMapDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+import io.guw.knxutils.knxprojectparser.GroupAddressRange;
+import io.guw.knxutils.semanticanalyzer.GenericGermanyKnxProjectCharacteristics.GroupAddressDocument;
+
+/**
+ * A persistent Lucene index of GA and range names.
+ * <p>
+ * The index is stored on disk using a {@link MMapDirectory}. It is tied to a
+ * {@link ProjectSnapshot snapshot} of the project. When opened on a later run
+ * for an unchanged project, the existing index is re-used as is. The analyzed
+ * terms and categories of GAs are stored in the index so that they can be
+ * {@link #readAnalyzedGroupAddresses() read} instead of analyzing all names
+ * again.
+ * </p>
+ * <p>
+ * The name, description, range path, DPT, address and category fields are
+ * indexed for tools querying the index with Lucene directly. The analyzer
+ * itself matches candidates in memory and uses the index as a cache of
+ * analysis results only.
+ * </p>
+ */
+public class GroupAddressSearchIndex implements Closeable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(GroupAddressSearchIndex.class);
+
+	public static final String FIELD_TYPE = "type";
+	public static final String FIELD_NAME = "name";
+	public static final String FIELD_DESCRIPTION = "description";
+	public static final String FIELD_RANGE_PATH = "rangePath";
+	public static final String FIELD_DPT = "dpt";
+	public static final String FIELD_ADDRESS = "address";
+	public static final String FIELD_CATEGORY = "category";
+	public static final String FIELD_TERMS = "terms";
+	/** role of a GA if known without terms (<code>true</code> for status) */
+	public static final String FIELD_STATUS = "status";
+	/** primary switch flag of a GA if known from structural classification */
+	public static final String FIELD_PRIMARY_SWITCH = "primarySwitch";
+	/** unique key of a range (the start address is shared by nested ranges) */
+	public static final String FIELD_RANGE_KEY = "rangeKey";
+
+	public static final String TYPE_GROUP_ADDRESS = "ga";
+	public static final String TYPE_RANGE = "range";
+
+	private static final String SNAPSHOT_KEY = "snapshot";
+
+	private static String getRangeKey(GroupAddressRange range) {
+		if (range.getId() != null) {
+			return range.getId();
+		}
+		return range.getStart() + "-" + range.getEnd();
+	}
+
+	private static String getRangePath(GroupAddressRange range) {
+		StringBuilder path = new StringBuilder();
+		for (GroupAddressRange r = range; r != null; r = r.getParent()) {
+			if (path.length() > 0) {
+				path.insert(0, " / ");
+			}
+			path.insert(0, r.getName() != null ? r.getName() : "");
+		}
+		return path.toString();
+	}
+
+	/**
+	 * Opens an index stored in the specified directory.
+	 * <p>
+	 * The directory will be created if necessary. An existing index will be
+	 * re-used until {@link #rebuild(Collection, Function, String)} is called.
+	 * </p>
+	 *
+	 * @param directory the directory
+	 * @param analyzer  the analyzer to use for text fields and queries
+	 * @return the index
+	 * @throws IOException in case of errors opening the index
+	 */
+	public static GroupAddressSearchIndex open(Path directory, Analyzer analyzer) throws IOException {
+		return new GroupAddressSearchIndex(new MMapDirectory(directory), analyzer);
+	}
+
+	private final MMapDirectory directory;
+	private final Analyzer analyzer;
+	private DirectoryReader reader;
+	private IndexSearcher searcher;
+
+	private GroupAddressSearchIndex(MMapDirectory directory, Analyzer analyzer) throws IOException {
+		this.directory = directory;
+		this.analyzer = analyzer;
+		if (DirectoryReader.indexExists(directory)) {
+			openReader();
+		}
+	}
+
+	private void addFlag(Document doc, String field, Boolean value) {
+		if (value != null) {
+			doc.add(new StringField(field, value.toString(), Field.Store.YES));
+		}
+	}
+
+	private void addOptional(Document doc, String field, String value) {
+		if ((value != null) && !value.isBlank()) {
+			doc.add(new TextField(field, value, Field.Store.NO));
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (reader != null) {
+			reader.close();
+			reader = null;
+			searcher = null;
+		}
+		directory.close();
+	}
+
+	private Document createDocument(GroupAddress ga, GroupAddressDocument analyzed) {
+		Document doc = new Document();
+		doc.add(new StringField(FIELD_TYPE, TYPE_GROUP_ADDRESS, Field.Store.YES));
+		doc.add(new StringField(FIELD_ADDRESS, ga.getAddress(), Field.Store.YES));
+		if (ga.getDatapointType() != null) {
+			doc.add(new StringField(FIELD_DPT, ga.getDatapointType(), Field.Store.YES));
+		}
+		addOptional(doc, FIELD_NAME, ga.getName());
+		addOptional(doc, FIELD_DESCRIPTION, ga.getDescription());
+		addOptional(doc, FIELD_RANGE_PATH, getRangePath(ga.getGroupAddressRange()));
+		if (analyzed != null) {
+			for (DeviceCategory category : analyzed.categories) {
+				doc.add(new StringField(FIELD_CATEGORY, category.name(), Field.Store.YES));
+			}
+			for (String term : analyzed.nameTerms) {
+				doc.add(new StoredField(FIELD_TERMS, term));
+			}
+			addFlag(doc, FIELD_STATUS, analyzed.status);
+			addFlag(doc, FIELD_PRIMARY_SWITCH, analyzed.primarySwitch);
+		}
+		return doc;
+	}
+
+	private Document createDocument(GroupAddressRange range) {
+		Document doc = new Document();
+		doc.add(new StringField(FIELD_TYPE, TYPE_RANGE, Field.Store.YES));
+		doc.add(new StringField(FIELD_ADDRESS, range.getStart(), Field.Store.YES));
+		doc.add(new StringField(FIELD_RANGE_KEY, getRangeKey(range), Field.Store.NO));
+		doc.add(new StoredField("end", range.getEnd()));
+		addOptional(doc, FIELD_NAME, range.getName());
+		addOptional(doc, FIELD_DESCRIPTION, range.getDescription());
+		addOptional(doc, FIELD_RANGE_PATH, getRangePath(range.getParent()));
+		return doc;
+	}
+
+	private Query createDocumentQuery(String type, String address) {
+		return new BooleanQuery.Builder().add(new TermQuery(new Term(FIELD_TYPE, type)), Occur.FILTER)
+				.add(new TermQuery(new Term(FIELD_ADDRESS, address)), Occur.FILTER).build();
+	}
+
+	private Boolean getFlag(Document doc, String field) {
+		String value = doc.get(field);
+		return value != null ? Boolean.valueOf(value) : null;
+	}
+
+	/**
+	 * Indicates if the index is available and was built for the specified
+	 * snapshot.
+	 *
+	 * @param snapshotHash the {@link ProjectSnapshot#hash(Collection) snapshot
+	 *                     hash}
+	 * @return <code>true</code> if the index can be re-used as is
+	 */
+	public synchronized boolean isCurrent(String snapshotHash) {
+		if (reader == null) {
+			return false;
+		}
+		return snapshotHash.equals(getUserData().get(SNAPSHOT_KEY));
+	}
+
+	private Map<String, String> getUserData() {
+		try {
+			return reader.getIndexCommit().getUserData();
+		} catch (IOException e) {
+			LOG.warn("Unable to read commit data of index {}", directory.getDirectory(), e);
+			return Map.of();
+		}
+	}
+
+	private void openReader() throws IOException {
+		if (reader != null) {
+			reader.close();
+		}
+		reader = DirectoryReader.open(directory);
+		searcher = new IndexSearcher(reader);
+	}
+
+	/**
+	 * Reads the analyzed terms, categories and flags of all GAs from the index.
+	 * <p>
+	 * Only GAs with at least one stored term are returned, i.e. GAs which were
+	 * not analyzed (eg., due to an exhausted budget) must be analyzed again.
+	 * </p>
+	 *
+	 * @return documents with terms and categories by three-part address (empty
+	 *         if the index was not built yet)
+	 * @throws IOException in case of errors reading the index
+	 */
+	public synchronized Map<String, GroupAddressDocument> readAnalyzedGroupAddresses() throws IOException {
+		if (searcher == null) {
+			return Map.of();
+		}
+		Map<String, GroupAddressDocument> documents = new HashMap<>();
+		Query query = new TermQuery(new Term(FIELD_TYPE, TYPE_GROUP_ADDRESS));
+		for (ScoreDoc scoreDoc : searcher.search(query, Math.max(1, reader.numDocs())).scoreDocs) {
+			Document doc = searcher.doc(scoreDoc.doc);
+			String[] terms = doc.getValues(FIELD_TERMS);
+			if (terms.length == 0) {
+				continue;
+			}
+			GroupAddressDocument analyzed = new GroupAddressDocument();
+			analyzed.nameTerms = new LinkedHashSet<>(List.of(terms));
+			analyzed.categories = EnumSet.noneOf(DeviceCategory.class);
+			for (String category : doc.getValues(FIELD_CATEGORY)) {
+				analyzed.categories.add(DeviceCategory.valueOf(category));
+			}
+			analyzed.status = getFlag(doc, FIELD_STATUS);
+			analyzed.primarySwitch = getFlag(doc, FIELD_PRIMARY_SWITCH);
+			documents.put(doc.get(FIELD_ADDRESS), analyzed);
+		}
+		return documents;
+	}
+
+	/**
+	 * Replaces the content of the index with the specified GAs and their ranges.
+	 *
+	 * @param groupAddresses the GAs
+	 * @param documents      function for obtaining the analyzed document of a GA
+	 * @param snapshotHash   the {@link ProjectSnapshot#hash(Collection) snapshot
+	 *                       hash} of the project
+	 * @throws IOException in case of errors writing the index
+	 */
+	public synchronized void rebuild(Collection<GroupAddress> groupAddresses,
+			Function<GroupAddress, GroupAddressDocument> documents, String snapshotHash) throws IOException {
+		IndexWriterConfig config = new IndexWriterConfig(analyzer);
+		config.setOpenMode(OpenMode.CREATE);
+		try (IndexWriter writer = new IndexWriter(directory, config)) {
+			Set<GroupAddressRange> ranges = new LinkedHashSet<>();
+			for (GroupAddress ga : groupAddresses) {
+				writer.addDocument(createDocument(ga, documents.apply(ga)));
+				for (GroupAddressRange range = ga.getGroupAddressRange(); range != null; range = range.getParent()) {
+					ranges.add(range);
+				}
+			}
+			for (GroupAddressRange range : ranges) {
+				writer.addDocument(createDocument(range));
+			}
+			writer.setLiveCommitData(Map.of(SNAPSHOT_KEY, snapshotHash).entrySet());
+			writer.commit();
+			LOG.debug("Indexed {} GAs and {} ranges into {}", groupAddresses.size(), ranges.size(),
+					directory.getDirectory());
+		}
+		openReader();
+	}
+
+	/**
+	 * Updates the documents of the specified GAs and their ranges.
+	 * <p>
+	 * Existing documents of GAs with the same address and of the same ranges are
+	 * replaced. Other documents are not touched. The index must have been
+	 * {@link #rebuild(Collection, Function, String) built} before.
+	 * </p>
+	 *
+	 * @param groupAddresses the changed GAs
+	 * @param documents      function for obtaining the analyzed document of a GA
+	 * @param snapshotHash   the {@link ProjectSnapshot#hash(Collection) snapshot
+	 *                       hash} of the project after the change
+	 * @throws IOException in case of errors writing the index
+	 */
+	public synchronized void update(Collection<GroupAddress> groupAddresses,
+			Function<GroupAddress, GroupAddressDocument> documents, String snapshotHash) throws IOException {
+		IndexWriterConfig config = new IndexWriterConfig(analyzer);
+		config.setOpenMode(OpenMode.APPEND);
+		try (IndexWriter writer = new IndexWriter(directory, config)) {
+			Set<GroupAddressRange> ranges = new LinkedHashSet<>();
+			for (GroupAddress ga : groupAddresses) {
+				writer.deleteDocuments(createDocumentQuery(TYPE_GROUP_ADDRESS, ga.getAddress()));
+				writer.addDocument(createDocument(ga, documents.apply(ga)));
+				for (GroupAddressRange range = ga.getGroupAddressRange(); range != null; range = range.getParent()) {
+					ranges.add(range);
+				}
+			}
+			for (GroupAddressRange range : ranges) {
+				writer.deleteDocuments(new Term(FIELD_RANGE_KEY, getRangeKey(range)));
+				writer.addDocument(createDocument(range));
+			}
+			writer.setLiveCommitData(Map.of(SNAPSHOT_KEY, snapshotHash).entrySet());
+			writer.commit();
+			LOG.debug("Updated {} GAs and {} ranges in {}", groupAddresses.size(), ranges.size(),
+					directory.getDirectory());
+		}
+		openReader();
+	}
+}
@@ -0,0 +1,50 @@
+package io.guw.knxutils.semanticanalyzer;
+
+/**
+ * Types of issues found during analysis.
+ *
+ * @see Diagnostics
+ */
+public enum IssueCode {
+
+	/** a communication object linked to a GA has a different DPT */
+	DatapointTypeMismatch("communication object with DPT differing from GA", true),
+
+	/** a communication object linked to a GA has no DPT */
+	CommunicationObjectWithoutDatapointType("communication object without DPT", true),
+
+	/** a GA has no name (and none could be filled in) */
+	BlankName("GA with blank/empty name", true),
+
+	/** a GA without DPT was accepted as candidate */
+	MissingDatapointType("candidate GA without DPT accepted", true),
+
+	/** multiple candidates qualified for a status GA */
+	AmbiguousStatus("ambiguous status candidates", false),
+
+	/** a GA was queried which was not learned */
+	MissingIndex("GA not learned (no index available)", false),
+
+	/** indexing of a GA or range failed */
+	IndexingFailed("indexing failed", false);
+
+	private final String description;
+	private final boolean projectDataIssue;
+
+	private IssueCode(String description, boolean projectDataIssue) {
+		this.description = description;
+		this.projectDataIssue = projectDataIssue;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * @return <code>true</code> if the issue is caused by incomplete or
+	 *         inconsistent ETS data (and can be fixed there)
+	 */
+	public boolean isProjectDataIssue() {
+		return projectDataIssue;
+	}
+}
@@ -1,23 +1,215 @@
 package io.guw.knxutils.semanticanalyzer;
 
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toConcurrentMap;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.guw.knxutils.knxprojectparser.CommunicationObject;
 import io.guw.knxutils.knxprojectparser.GroupAddress;
 import io.guw.knxutils.knxprojectparser.KnxProjectFile;
+import io.guw.knxutils.knxprojectparser.PhaseTimer;
 
 public class KnxProjectAnalyzer {
 
+	/**
+	 * GAs of a light found during analysis (before its name is resolved).
+	 */
+	private static final class LightGroupAddresses {
+		final GroupAddress ga, statusGa, dimGa, brightnessGa, brightnessStatusGa;
+
+		LightGroupAddresses(GroupAddress ga, GroupAddress statusGa, GroupAddress dimGa, GroupAddress brightnessGa,
+				GroupAddress brightnessStatusGa) {
+			this.ga = ga;
+			this.statusGa = statusGa;
+			this.dimGa = dimGa;
+			this.brightnessGa = brightnessGa;
+			this.brightnessStatusGa = brightnessStatusGa;
+		}
+
+		List<GroupAddress> getAdditionalGroupAddresses() {
+			if (isDimmable()) {
+				return List.of(statusGa, dimGa, brightnessGa, brightnessStatusGa);
+			}
+			return List.of(statusGa);
+		}
+
+		boolean isDimmable() {
+			return (dimGa != null) && (brightnessGa != null) && (brightnessStatusGa != null);
+		}
+
+		Light toLight(String name) {
+			if (isDimmable()) {
+				// use dimmable light
+				return new DimmableLight(name, ga, statusGa, dimGa, brightnessGa, brightnessStatusGa);
+			}
+			// go with simple light
+			return new Light(name, ga, statusGa);
+		}
+	}
+
 	private static final Logger LOG = LoggerFactory.getLogger(KnxProjectAnalyzer.class);
 
+	private static final int STATE_MAGIC = 0x4B4E5853; // KNXS
+	private static final int STATE_VERSION = 3;
+
+	/**
+	 * Analyzes a project with several characteristics and selects the best fit.
+	 * <p>
+	 * Same as
+	 * {@link #analyzeBestFit(KnxProjectFile, List, Consumer, PhaseTimer)}
+	 * without any further configuration of the candidates.
+	 * </p>
+	 */
+	public static KnxProjectAnalyzer analyzeBestFit(KnxProjectFile knxProjectFile,
+			List<? extends KnxProjectCharacteristics> characteristics, PhaseTimer timer) {
+		return analyzeBestFit(knxProjectFile, characteristics, (analyzer) -> {
+		}, timer);
+	}
+
+	/**
+	 * Analyzes a project with several characteristics and selects the best fit.
+	 * <p>
+	 * The project data is treated as read-only while all characteristics are
+	 * evaluated concurrently. The analyzer with the highest
+	 * {@link #getCoverage() coverage} is selected. Ties are resolved in favor of
+	 * the characteristics listed first. Missing information is filled in
+	 * afterwards using the selected characteristics. GAs changed by filling in
+	 * are re-analyzed {@link #analyzeIncrementally(Collection, Collection)
+	 * incrementally}.
+	 * </p>
+	 * <p>
+	 * Thus, the candidates are compared on the data as exported (filling in
+	 * modifies the shared GAs and differs between characteristics). The coverage
+	 * of the returned analyzer includes the filled in information and may be
+	 * higher than the coverage it was selected by.
+	 * </p>
+	 * <p>
+	 * Characteristics must not modify GAs other than in
+	 * {@link KnxProjectCharacteristics#fillInMissingInformation(GroupAddress)}.
+	 * Each candidate needs its own state file and budget (if any).
+	 * </p>
+	 *
+	 * @param knxProjectFile  the project
+	 * @param characteristics the characteristics to evaluate (at least one)
+	 * @param configuration   called for each candidate analyzer before
+	 *                        analyzing (eg., to set a
+	 *                        {@link #setStateFile(Path) state file} or
+	 *                        {@link #setBudget(AnalysisBudget) budget})
+	 * @param timer           the timer for recording phases (must not be
+	 *                        <code>null</code>)
+	 * @return the analyzer using the best fitting characteristics (already
+	 *         analyzed)
+	 */
+	public static KnxProjectAnalyzer analyzeBestFit(KnxProjectFile knxProjectFile,
+			List<? extends KnxProjectCharacteristics> characteristics, Consumer<KnxProjectAnalyzer> configuration,
+			PhaseTimer timer) {
+		if (characteristics.isEmpty()) {
+			throw new IllegalArgumentException("At least one characteristics required.");
+		}
+		List<GroupAddress> groupAddresses = knxProjectFile.getGroupAddresses();
+		if (groupAddresses.isEmpty()) {
+			throw new IllegalStateException("The project does not contain any Group Address.");
+		}
+
+		List<KnxProjectAnalyzer> analyzers = new ArrayList<>(characteristics.size());
+		for (KnxProjectCharacteristics c : characteristics) {
+			KnxProjectAnalyzer analyzer = new KnxProjectAnalyzer(knxProjectFile, c);
+			configuration.accept(analyzer);
+			analyzer.setTimer(timer);
+			analyzers.add(analyzer);
+		}
+		try (var bestFitPhase = timer.start("best fit")) {
+			// phases of the candidates run in worker threads, i.e. the parent must be passed explicitly
+			analyzers.parallelStream().forEach((analyzer) -> {
+				try (var phase = timer.start(bestFitPhase, getName(analyzer.getCharacteristics()))) {
+					analyzer.analyze(groupAddresses, null);
+					phase.setCount(analyzer.getLights().size(), "lights");
+				}
+			});
+			bestFitPhase.setCount(analyzers.size(), "characteristics");
+		}
+
+		KnxProjectAnalyzer bestFit = analyzers.get(0);
+		for (KnxProjectAnalyzer analyzer : analyzers) {
+			LOG.info("Coverage of {}: {}", getName(analyzer.getCharacteristics()), analyzer.getCoverage());
+			if (analyzer.getCoverage() > bestFit.getCoverage()) {
+				bestFit = analyzer;
+			}
+		}
+		LOG.info("Selected {}", getName(bestFit.getCharacteristics()));
+
+		Set<GroupAddress> changed = fillInMissingInformation(groupAddresses, bestFit.getCharacteristics(), timer);
+		if (!changed.isEmpty()) {
+			try (var phase = timer.start("analyze filled in")) {
+				bestFit.analyzeChanged(changed);
+				phase.setCount(changed.size(), "GAs");
+			}
+		}
+		return bestFit;
+	}
+
+	/**
+	 * @return the GAs whose name or DPT was changed
+	 */
+	private static Set<GroupAddress> fillInMissingInformation(List<GroupAddress> groupAddresses,
+			KnxProjectCharacteristics characteristics, PhaseTimer timer) {
+		Set<GroupAddress> changed = new LinkedHashSet<>();
+		try (var phase = timer.start("fill in")) {
+			for (GroupAddress ga : groupAddresses) {
+				String name = ga.getName();
+				String datapointType = ga.getDatapointType();
+				characteristics.fillInMissingInformation(ga);
+				if (!Objects.equals(name, ga.getName()) || !Objects.equals(datapointType, ga.getDatapointType())) {
+					changed.add(ga);
+				}
+			}
+			phase.setCount(groupAddresses.size(), "GAs");
+		}
+		return changed;
+	}
+
+	private static String getName(KnxProjectCharacteristics characteristics) {
+		String name = characteristics.getClass().getSimpleName();
+		return name.isEmpty() ? characteristics.getClass().getName() : name;
+	}
+
 	private final KnxProjectFile knxProjectFile;
 	private final KnxProjectCharacteristics characteristics;
 	private final List<Light> lights = new ArrayList<>();
+	private boolean analyzed;
+	private final Set<Integer> analyzedAddresses = new HashSet<>();
+	private final Set<Integer> classifiedAddresses = new HashSet<>();
+	private final Set<Integer> primaryLightAddresses = new HashSet<>();
+	private Path stateFile;
+	private PhaseTimer timer = PhaseTimer.EVENTS_ONLY;
+	private AnalysisBudget budget = AnalysisBudget.UNLIMITED;
 
 	public KnxProjectAnalyzer(KnxProjectFile knxProjectFile, KnxProjectCharacteristics characteristics) {
 		this.knxProjectFile = knxProjectFile;
@@ -30,62 +222,379 @@ public class KnxProjectAnalyzer {
 			throw new IllegalStateException("The project does not contain any Group Address.");
 		}
 
-		// fill in missing information
-		groupAddresses.forEach(characteristics::fillInMissingInformation);
+		analyze(groupAddresses, characteristics);
+	}
+
+	private void analyze(List<GroupAddress> groupAddresses, KnxProjectCharacteristics fillInCharacteristics) {
+		try (var analyzePhase = timer.start("analyze")) {
+			// fill in missing information
+			if (fillInCharacteristics != null) {
+				fillInMissingInformation(groupAddresses, fillInCharacteristics, timer);
+			}
+
+			// sanity check
+			Diagnostics diagnostics = characteristics.getDiagnostics();
+			if (((float) diagnostics.getProjectDataIssueCount() / (float) groupAddresses.size()) > 0.10F) {
+				LOG.warn("The project data generated a lot of warnings. Please consider improving the ETS data.");
+			}
+
+			// index all GAs (unless learned state of an unchanged project is available)
+			String snapshotHash = stateFile != null ? ProjectSnapshot.hash(groupAddresses) : null;
+			if ((stateFile == null) || !restoreState(groupAddresses, snapshotHash)) {
+				try (var phase = timer.start("learn")) {
+					characteristics.learn(groupAddresses);
+					phase.setCount(groupAddresses.size(), "GAs");
+				}
+				if ((stateFile != null) && !budget.isExhausted()) {
+					// never persist partial results
+					saveState(snapshotHash);
+				}
+			}
+
+			// find lights
+			List<GroupAddress> primaryLightGroupAddresses;
+			try (var phase = timer.start("classify lights")) {
+				List<GroupAddress> lightGroupAddresses = groupAddresses.parallelStream()
+						.filter(characteristics::isLight).collect(toList());
+
+				// group light GAs based on primaries
+				primaryLightGroupAddresses = lightGroupAddresses.parallelStream()
+						.filter(characteristics::isPrimarySwitch).collect(toList());
+				phase.setCount(lightGroupAddresses.size(), "GAs");
+			}
+			analyzedAddresses.clear();
+			groupAddresses.forEach((ga) -> analyzedAddresses.add(ga.getAddressInt()));
+			classifiedAddresses.clear();
+			classifiedAddresses.addAll(groupAddresses.parallelStream()
+					.filter((ga) -> !characteristics.getCategories(ga).isEmpty()).map(GroupAddress::getAddressInt)
+					.collect(toSet()));
+			primaryLightAddresses.clear();
+			primaryLightAddresses
+					.addAll(primaryLightGroupAddresses.stream().map(GroupAddress::getAddressInt).collect(toSet()));
+
+			// build potential lights
+			lights.clear();
+			try (var phase = timer.start("assemble lights")) {
+				lights.addAll(assembleLights(primaryLightGroupAddresses).values());
+				phase.setCount(lights.size(), "lights");
+			}
+			analyzed = true;
+			analyzePhase.setCount(groupAddresses.size(), "GAs");
+		}
+
+		if (budget.isExhausted()) {
+			LOG.warn("Analysis budget exhausted. Results are partial; {} GAs were not fully resolved.",
+					characteristics.getUnresolvedGroupAddresses().size());
+		}
 
-		// sanity check
-		if (((float) characteristics.getWarnings() / (float) groupAddresses.size()) > 0.10F) {
-			LOG.warn("The project data generated a lot of warnings. Please consider improving the ETS data.");
+		Diagnostics diagnostics = characteristics.getDiagnostics();
+		if (diagnostics.getTotalCount() > 0) {
+			LOG.info("Found {} issues during analysis:{}{}", diagnostics.getTotalCount(), System.lineSeparator(),
+					diagnostics.getSummary());
 		}
 
-		// index all GAs
-		characteristics.learn(groupAddresses);
+		// find shutters
 
-		// find lights
-		List<GroupAddress> lightGroupAddresses = groupAddresses.parallelStream().filter(characteristics::isLight)
+	}
+
+	/**
+	 * Re-learns the changed GAs (already filled in) and re-builds affected
+	 * lights.
+	 */
+	private void analyzeChanged(Set<GroupAddress> changed) {
+		Set<GroupAddress> affectedPrimaries = new LinkedHashSet<>(characteristics.relearn(changed));
+
+		// lights using a changed GA (compared by address because a GA may have been replaced)
+		Set<Integer> changedAddresses = changed.stream().map(GroupAddress::getAddressInt).collect(toSet());
+		Map<Integer, Light> lightsByPrimaryAddress = new TreeMap<>();
+		for (Light light : lights) {
+			lightsByPrimaryAddress.put(light.getPrimarySwitchGroupAddress().getAddressInt(), light);
+			if (getGroupAddresses(light).stream().map(GroupAddress::getAddressInt)
+					.anyMatch(changedAddresses::contains)) {
+				affectedPrimaries.add(light.getPrimarySwitchGroupAddress());
+			}
+		}
+
+		for (GroupAddress ga : affectedPrimaries) {
+			lightsByPrimaryAddress.remove(ga.getAddressInt());
+		}
+		List<GroupAddress> primaryLightGroupAddresses = affectedPrimaries.stream()
+				.filter((ga) -> characteristics.isLight(ga) && characteristics.isPrimarySwitch(ga))
 				.collect(toList());
 
-		// group light GAs based on primaries
-		List<GroupAddress> primaryLightGroupAddresses = lightGroupAddresses.parallelStream()
-				.filter(characteristics::isPrimarySwitch).collect(toList());
+		// keep the coverage consistent with the re-analyzed GAs
+		Set<GroupAddress> reclassified = new LinkedHashSet<>(changed);
+		reclassified.addAll(affectedPrimaries);
+		for (GroupAddress ga : reclassified) {
+			int address = ga.getAddressInt();
+			analyzedAddresses.add(address);
+			if (!characteristics.getCategories(ga).isEmpty()) {
+				classifiedAddresses.add(address);
+			} else {
+				classifiedAddresses.remove(address);
+			}
+			if (characteristics.isLight(ga) && characteristics.isPrimarySwitch(ga)) {
+				primaryLightAddresses.add(address);
+			} else {
+				primaryLightAddresses.remove(address);
+			}
+		}
+		lightsByPrimaryAddress.putAll(assembleLights(primaryLightGroupAddresses));
+		LOG.debug("Re-analyzed {} of {} lights for {} changed GAs", primaryLightGroupAddresses.size(),
+				lightsByPrimaryAddress.size(), changed.size());
 
-		// build potential lights
-		primaryLightGroupAddresses.forEach(this::analyzeLight);
+		lights.clear();
+		lights.addAll(lightsByPrimaryAddress.values());
+	}
 
-		// find shutters
+	/**
+	 * Re-analyzes the project after a change.
+	 * <p>
+	 * Instead of a full {@link #analyze() analysis} only the changed GAs (and the
+	 * GAs linked to changed communication objects) are submitted to the
+	 * characteristics. Only lights of affected primary GAs are re-built. All other
+	 * lights are kept as is.
+	 * </p>
+	 * <p>
+	 * A changed GA may be a modified instance or a new instance replacing a GA
+	 * with the same address. Removed GAs are not supported and require a full
+	 * analysis. If the project was not analyzed before, a full analysis is
+	 * performed.
+	 * </p>
+	 *
+	 * @param changedGroupAddresses       GAs which were added or modified
+	 * @param changedCommunicationObjects communication objects which were added
+	 *                                    or modified
+	 */
+	public void analyzeIncrementally(Collection<GroupAddress> changedGroupAddresses,
+			Collection<CommunicationObject> changedCommunicationObjects) {
+		if (!analyzed) {
+			analyze();
+			return;
+		}
+
+		Set<GroupAddress> changed = new LinkedHashSet<>(changedGroupAddresses);
+		for (CommunicationObject co : changedCommunicationObjects) {
+			if (co.getSendGroupAddress() != null) {
+				changed.add(co.getSendGroupAddress());
+			}
+			changed.addAll(co.getListenGroupAddresses());
+		}
+		if (changed.isEmpty()) {
+			return;
+		}
 
+		try (var phase = timer.start("analyze incrementally")) {
+			changed.forEach(characteristics::fillInMissingInformation);
+			analyzeChanged(changed);
+			phase.setCount(changed.size(), "GAs");
+		}
 	}
 
-	private void analyzeLight(GroupAddress ga) {
+	private LightGroupAddresses analyzeLight(GroupAddress ga) {
 		GroupAddress statusGa = characteristics.findMatchingStatusGroupAddress(ga);
 		if (statusGa == null) {
 			LOG.debug("Unable to find matching status GA for GA {} ({})", ga, ga.getName());
-			return;
+			return null;
 		}
 
 		GroupAddress dimGa = characteristics.findMatchingDimGroupAddress(ga);
 		GroupAddress brightnessGa = characteristics.findMatchingBrightnessGroupAddress(ga);
 		GroupAddress brightnessStatusGa = characteristics.findMatchingBrightnessStatusGroupAddress(ga);
-		if ((dimGa != null) && (brightnessGa != null) && (brightnessStatusGa != null)) {
-			// use dimmable light
-			String name = characteristics.findName(ga, statusGa, dimGa, brightnessGa, brightnessStatusGa);
-			lights.add(new DimmableLight(name, ga, statusGa, dimGa, brightnessGa, brightnessStatusGa));
-		} else {
-			// go with simple light
-			String name = characteristics.findName(ga, statusGa);
-			lights.add(new Light(name, ga, statusGa));
+		return new LightGroupAddresses(ga, statusGa, dimGa, brightnessGa, brightnessStatusGa);
+	}
+
+	/**
+	 * Builds lights for the specified primary GAs.
+	 *
+	 * @return the lights sorted by primary address
+	 */
+	private Map<Integer, Light> assembleLights(Collection<GroupAddress> primaryLightGroupAddresses) {
+		// in parallel but sorted by primary address for reproducible results
+		Map<Integer, LightGroupAddresses> lightsByPrimaryAddress = primaryLightGroupAddresses.parallelStream()
+				.map(this::analyzeLight).filter(Objects::nonNull).collect(toConcurrentMap(
+						(light) -> light.ga.getAddressInt(), identity(), (a, b) -> a, ConcurrentSkipListMap::new));
+
+		// resolve names of all lights in one batch
+		Map<GroupAddress, List<GroupAddress>> additionalGroupAddressesByPrimary = new LinkedHashMap<>();
+		for (LightGroupAddresses light : lightsByPrimaryAddress.values()) {
+			additionalGroupAddressesByPrimary.put(light.ga, light.getAdditionalGroupAddresses());
+		}
+		Map<GroupAddress, String> names = characteristics.findNames(additionalGroupAddressesByPrimary);
+
+		Map<Integer, Light> result = new TreeMap<>();
+		for (LightGroupAddresses light : lightsByPrimaryAddress.values()) {
+			result.put(light.ga.getAddressInt(), light.toLight(names.get(light.ga)));
 		}
+		return result;
 	}
 
 	public KnxProjectCharacteristics getCharacteristics() {
 		return characteristics;
 	}
 
+	/**
+	 * Returns how well the characteristics fit the analyzed project.
+	 * <p>
+	 * The coverage is the average of the fraction of GAs classified into at
+	 * least one {@link DeviceCategory category} and the fraction of primary light
+	 * GAs for which a complete light (including status) was found.
+	 * </p>
+	 *
+	 * @return the coverage (<code>0.0</code> to <code>1.0</code>,
+	 *         <code>0.0</code> if not analyzed)
+	 */
+	public float getCoverage() {
+		if (!analyzed || analyzedAddresses.isEmpty()) {
+			return 0F;
+		}
+		float classifiedFraction = (float) classifiedAddresses.size() / (float) analyzedAddresses.size();
+		float completeLightFraction = !primaryLightAddresses.isEmpty()
+				? (float) lights.size() / (float) primaryLightAddresses.size()
+				: 0F;
+		return (classifiedFraction + completeLightFraction) / 2F;
+	}
+
+	private List<GroupAddress> getGroupAddresses(Light light) {
+		List<GroupAddress> groupAddresses = new ArrayList<>(List.of(light.getPrimarySwitchGroupAddress(),
+				light.getStatusGroupAddress()));
+		if (light instanceof DimmableLight) {
+			DimmableLight dimmableLight = (DimmableLight) light;
+			groupAddresses.add(dimmableLight.getDimGa());
+			groupAddresses.add(dimmableLight.getBrightnessGa());
+			groupAddresses.add(dimmableLight.getBrightnessStatusGa());
+		}
+		return groupAddresses;
+	}
+
 	public KnxProjectFile getKnxProjectFile() {
 		return knxProjectFile;
 	}
 
+	/**
+	 * @return the lights found by {@link #analyze()} sorted by the address of
+	 *         their primary GA
+	 */
 	public List<Light> getLights() {
 		return lights;
 	}
+
+	/**
+	 * Returns GAs which were not fully analyzed because the
+	 * {@link #setBudget(AnalysisBudget) budget} was exhausted.
+	 * <p>
+	 * Lights are only built from what could be resolved within the budget, i.e.
+	 * lights of these GAs may be missing or incomplete.
+	 * </p>
+	 *
+	 * @return the GAs (maybe empty but never <code>null</code>)
+	 */
+	public Set<GroupAddress> getUnresolvedGroupAddresses() {
+		return characteristics.getUnresolvedGroupAddresses();
+	}
+
+	/**
+	 * Restores the learned state of the characteristics.
+	 *
+	 * @return <code>true</code> if the state was restored
+	 */
+	private boolean restoreState(List<GroupAddress> groupAddresses, String snapshotHash) {
+		if (!Files.isReadable(stateFile)) {
+			return false;
+		}
+
+		try (var phase = timer.start("restore state");
+				DataInputStream in = new DataInputStream(
+						new BufferedInputStream(new GZIPInputStream(Files.newInputStream(stateFile))))) {
+			if ((in.readInt() != STATE_MAGIC) || (in.readInt() != STATE_VERSION)
+					|| !characteristics.getClass().getName().equals(in.readUTF())
+					|| !snapshotHash.equals(in.readUTF())) {
+				LOG.debug("Ignoring outdated state in {}", stateFile);
+				return false;
+			}
+			if (characteristics.restoreState(in, groupAddresses)) {
+				phase.setCount(groupAddresses.size(), "GAs");
+				LOG.info("Restored learned state from {}", stateFile);
+				return true;
+			}
+		} catch (IOException e) {
+			LOG.warn("Unable to read state from {}. Will learn again.", stateFile, e);
+		}
+		return false;
+	}
+
+	private void saveState(String snapshotHash) {
+		Path tempFile = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+		try {
+			boolean saved;
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+				out.writeInt(STATE_MAGIC);
+				out.writeInt(STATE_VERSION);
+				out.writeUTF(characteristics.getClass().getName());
+				out.writeUTF(snapshotHash);
+				saved = characteristics.saveState(out);
+			}
+			if (saved) {
+				Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				LOG.debug("Saved learned state to {}", stateFile);
+			} else {
+				LOG.debug("Characteristics {} do not support saving state", characteristics);
+			}
+		} catch (IOException e) {
+			LOG.warn("Unable to save state to {}", stateFile, e);
+		} finally {
+			try {
+				Files.deleteIfExists(tempFile);
+			} catch (IOException e) {
+				LOG.debug("Unable to delete {}", tempFile, e);
+			}
+		}
+	}
+
+	/**
+	 * Sets a budget limiting the analysis.
+	 * <p>
+	 * Cheap strategies are always applied. Expensive ones (eg., text analysis
+	 * and similarity matching) are skipped once the budget is exhausted. The
+	 * budget is also set on the characteristics. Results of an analysis which
+	 * exhausted its budget are never persisted to the
+	 * {@link #setStateFile(Path) state file}.
+	 * </p>
+	 *
+	 * @param budget the budget (must not be <code>null</code>)
+	 */
+	public void setBudget(AnalysisBudget budget) {
+		this.budget = budget;
+		characteristics.setBudget(budget);
+	}
+
+	/**
+	 * Enables persisting the learned state of the characteristics.
+	 * <p>
+	 * If the file contains state for the same {@link ProjectSnapshot project
+	 * snapshot}, {@link #analyze()} restores it and skips
+	 * {@link KnxProjectCharacteristics#learn(List) learning} entirely. Otherwise
+	 * the state is written to the file after learning.
+	 * </p>
+	 *
+	 * @param stateFile the file (maybe <code>null</code> to disable)
+	 */
+	public void setStateFile(Path stateFile) {
+		this.stateFile = stateFile;
+	}
+
+	/**
+	 * Sets the timer for recording phases of the analysis.
+	 * <p>
+	 * The timer is also set on the characteristics so that their phases (eg.,
+	 * learning) are recorded as nested phases.
+	 * </p>
+	 *
+	 * @param timer the timer (must not be <code>null</code>)
+	 */
+	public void setTimer(PhaseTimer timer) {
+		this.timer = timer;
+		characteristics.setTimer(timer);
+	}
 }
@@ -1,6 +1,17 @@
 package io.guw.knxutils.semanticanalyzer;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,6 +19,7 @@ import org.slf4j.LoggerFactory;
 import io.guw.knxutils.knxprojectparser.CommunicationObject;
 import io.guw.knxutils.knxprojectparser.DatapointType;
 import io.guw.knxutils.knxprojectparser.GroupAddress;
+import io.guw.knxutils.knxprojectparser.PhaseTimer;
 
 /**
  * The characteristics of a KNX project.
@@ -23,7 +35,9 @@ import io.guw.knxutils.knxprojectparser.GroupAddress;
 public abstract class KnxProjectCharacteristics {
 
 	private static final Logger LOG = LoggerFactory.getLogger(KnxProjectCharacteristics.class);
-	private int warnings;
+	private final Diagnostics diagnostics = new Diagnostics();
+	private PhaseTimer timer = PhaseTimer.EVENTS_ONLY;
+	private AnalysisBudget budget = AnalysisBudget.UNLIMITED;
 
 	/**
 	 * Fills in missing information based on data available from the GA itself or
@@ -44,13 +58,13 @@ public abstract class KnxProjectCharacteristics {
 					LOG.debug("Update DPT to {} based on CO {} for GA {}", co.getDatapointType(), co, ga);
 					ga.setDatapointType(co.getDatapointType());
 				} else if (!ga.getDatapointType().equals(co.getDatapointType())) {
-					LOG.warn("Found communication object with DPT {} which differs from expected {}\n  {}\n  GA {}",
-							co.getDatapointType(), ga.getDatapointType(), co, ga);
-					warnings++;
+					LOG.debug("Found communication object {} with DPT {} which differs from expected {} for GA {}", co,
+							co.getDatapointType(), ga.getDatapointType(), ga);
+					diagnostics.report(IssueCode.DatapointTypeMismatch, ga, co);
 				}
 			} else {
-				LOG.warn("Found communication object without DPT\n  {}\n  GA {}", co, ga);
-				warnings++;
+				LOG.debug("Found communication object {} without DPT for GA {}", co, ga);
+				diagnostics.report(IssueCode.CommunicationObjectWithoutDatapointType, ga, co);
 			}
 		}
 
@@ -155,8 +169,84 @@ public abstract class KnxProjectCharacteristics {
 	 */
 	public abstract String findName(GroupAddress primaryGroupAddress, GroupAddress... additionalGroupAddresses);
 
-	int getWarnings() {
-		return warnings;
+	/**
+	 * Returns the names of many groups of GAs in one batch.
+	 * <p>
+	 * The default implementation calls
+	 * {@link #findName(GroupAddress, GroupAddress...)} for each group. Subclasses
+	 * may override and provide a more efficient implementation.
+	 * </p>
+	 *
+	 * @param additionalGroupAddressesByPrimary additional GAs to verify against
+	 *                                          by primary GA
+	 * @return the names by primary GA
+	 * @see #findName(GroupAddress, GroupAddress...)
+	 */
+	public Map<GroupAddress, String> findNames(
+			Map<GroupAddress, ? extends Collection<GroupAddress>> additionalGroupAddressesByPrimary) {
+		Map<GroupAddress, String> names = new HashMap<>();
+		additionalGroupAddressesByPrimary.forEach((primary, additional) -> names.put(primary,
+				findName(primary, additional.toArray(new GroupAddress[additional.size()]))));
+		return names;
+	}
+
+	/**
+	 * Returns the device categories a GA is related to.
+	 * <p>
+	 * The default implementation only knows about {@link DeviceCategory#Light}
+	 * (as determined by {@link #isLight(GroupAddress)}). Subclasses should
+	 * override and provide a more complete implementation.
+	 * </p>
+	 *
+	 * @param ga a group address
+	 * @return the set of categories (maybe empty but never <code>null</code>)
+	 */
+	public Set<DeviceCategory> getCategories(GroupAddress ga) {
+		return isLight(ga) ? EnumSet.of(DeviceCategory.Light) : Collections.emptySet();
+	}
+
+	/**
+	 * @return the budget for {@link #learn(List) learning} (never
+	 *         <code>null</code>)
+	 */
+	protected AnalysisBudget getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Returns the diagnostics collecting issues found by the characteristics.
+	 * <p>
+	 * Issues concerning a single GA are reported to the diagnostics instead of
+	 * being logged. Callers should check and report them after analysis.
+	 * </p>
+	 *
+	 * @return the diagnostics (never <code>null</code>)
+	 */
+	public Diagnostics getDiagnostics() {
+		return diagnostics;
+	}
+
+	/**
+	 * @return the timer for recording phases of learning (never
+	 *         <code>null</code>)
+	 */
+	protected PhaseTimer getTimer() {
+		return timer;
+	}
+
+	/**
+	 * Returns GAs which were not fully analyzed because the
+	 * {@link #setBudget(AnalysisBudget) budget} was exhausted.
+	 * <p>
+	 * Results for those GAs are based on cheap strategies only and may be
+	 * incomplete. The default implementation does not support budgets and
+	 * returns an empty set.
+	 * </p>
+	 *
+	 * @return the GAs (maybe empty but never <code>null</code>)
+	 */
+	public Set<GroupAddress> getUnresolvedGroupAddresses() {
+		return Collections.emptySet();
 	}
 
 	/**
@@ -216,4 +306,84 @@ public abstract class KnxProjectCharacteristics {
 	 * @param groupAddresses list of addresses to learn
 	 */
 	public abstract void learn(List<GroupAddress> groupAddresses);
+
+	/**
+	 * Submits changed GAs to the characteristics after all GAs were
+	 * {@link #learn(List) learned}.
+	 * <p>
+	 * Changed GAs are GAs which were added or modified (eg., name, DPT or links to
+	 * communication objects). This allows updating only the affected parts of an
+	 * index instead of learning everything again.
+	 * </p>
+	 * <p>
+	 * The default implementation simply learns the changed GAs again and returns
+	 * them. Subclasses which relate GAs to each other should override and return
+	 * all primary GAs affected by the change.
+	 * </p>
+	 *
+	 * @param changedGroupAddresses the changed GAs
+	 * @return the potential primary GAs whose related GAs may have changed
+	 */
+	public Set<GroupAddress> relearn(Collection<GroupAddress> changedGroupAddresses) {
+		learn(new ArrayList<>(changedGroupAddresses));
+		return new HashSet<>(changedGroupAddresses);
+	}
+
+	/**
+	 * Restores learned state previously written by {@link #saveState(DataOutput)}.
+	 * <p>
+	 * This allows skipping {@link #learn(List)} for an unchanged project. Callers
+	 * are responsible for verifying that the state belongs to the same project
+	 * snapshot (eg., using {@link ProjectSnapshot}). The default implementation
+	 * does not support persisted state.
+	 * </p>
+	 *
+	 * @param in             the input to read from
+	 * @param groupAddresses all GAs of the project
+	 * @return <code>true</code> if the state was restored, <code>false</code>
+	 *         if {@link #learn(List)} must be called
+	 * @throws IOException in case of errors reading the state
+	 */
+	public boolean restoreState(DataInput in, List<GroupAddress> groupAddresses) throws IOException {
+		return false;
+	}
+
+	/**
+	 * Writes the learned state so that a later run can
+	 * {@link #restoreState(DataInput, List) restore} it instead of learning
+	 * again.
+	 * <p>
+	 * The default implementation does not support persisted state.
+	 * </p>
+	 *
+	 * @param out the output to write to
+	 * @return <code>true</code> if the state was written
+	 * @throws IOException in case of errors writing the state
+	 */
+	public boolean saveState(DataOutput out) throws IOException {
+		return false;
+	}
+
+	/**
+	 * Sets the budget for {@link #learn(List) learning}.
+	 * <p>
+	 * Implementations supporting budgets fall back to cheap strategies once the
+	 * budget is exhausted and report affected GAs as
+	 * {@link #getUnresolvedGroupAddresses() unresolved}.
+	 * </p>
+	 *
+	 * @param budget the budget (must not be <code>null</code>)
+	 */
+	public void setBudget(AnalysisBudget budget) {
+		this.budget = budget;
+	}
+
+	/**
+	 * Sets the timer for recording phases of {@link #learn(List) learning}.
+	 *
+	 * @param timer the timer (must not be <code>null</code>)
+	 */
+	public void setTimer(PhaseTimer timer) {
+		this.timer = timer;
+	}
 }
@@ -0,0 +1,339 @@
+package io.guw.knxutils.semanticanalyzer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.apache.commons.codec.language.ColognePhonetic;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.de.GermanNormalizationFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+
+/**
+ * Computes similarity of names based on precomputed signatures.
+ * <p>
+ * A {@link Signature} combines phonetic codes (Kölner Phonetik) of all words
+ * with a MinHash of character n-grams. Both are insensitive to the order of
+ * words. Phonetic codes tolerate typical spelling variants (eg.,
+ * <code>Küche</code> vs. <code>Kueche</code>) and n-grams tolerate typos.
+ * Short words and words containing digits are compared literally because they
+ * are significant but indistinguishable by their phonetic codes (eg.,
+ * <code>EG</code> vs. <code>OG</code> or <code>Decke 1</code> vs.
+ * <code>Decke 2</code>). Functional qualifiers (eg., <code>Status</code> or <code>Ein/Aus</code>)
+ * should be ignored so that names of related GAs result in the same signature.
+ * </p>
+ * <p>
+ * Signatures are computed once per name. Comparing two signatures is a
+ * constant time operation. An {@link LshIndex} allows finding candidates with
+ * similar signatures without comparing all pairs.
+ * </p>
+ */
+public class NameSimilarityEngine {
+
+	/**
+	 * An index for finding candidates with similar signatures using locality
+	 * sensitive hashing (banding of MinHash values).
+	 *
+	 * @param <T> the type of indexed values
+	 */
+	public static class LshIndex<T> {
+
+		private final Map<Long, List<T>> buckets = new HashMap<>();
+
+		private long bucketKey(Signature signature, int band) {
+			long key = band;
+			for (int row = 0; row < LSH_ROWS; row++) {
+				key = (key * 0x9E3779B97F4A7C15L) + signature.minHashes[(band * LSH_ROWS) + row];
+			}
+			return key;
+		}
+
+		/**
+		 * Returns all values which share at least one band with the specified
+		 * signature.
+		 *
+		 * @param signature the signature
+		 * @return the candidates (in insertion order, without duplicates)
+		 */
+		public Set<T> findCandidates(Signature signature) {
+			Set<T> candidates = new LinkedHashSet<>();
+			if (signature.isEmpty()) {
+				return candidates;
+			}
+			for (int band = 0; band < LSH_BANDS; band++) {
+				List<T> bucket = buckets.get(bucketKey(signature, band));
+				if (bucket != null) {
+					candidates.addAll(bucket);
+				}
+			}
+			return candidates;
+		}
+
+		public void put(Signature signature, T value) {
+			if (signature.isEmpty()) {
+				return;
+			}
+			for (int band = 0; band < LSH_BANDS; band++) {
+				buckets.computeIfAbsent(bucketKey(signature, band), (k) -> new ArrayList<>(2)).add(value);
+			}
+		}
+
+		/**
+		 * Removes a value which was previously {@link #put(Signature, Object) put}
+		 * with the specified signature.
+		 *
+		 * @param signature the signature used when putting the value
+		 * @param value     the value
+		 */
+		public void remove(Signature signature, T value) {
+			if (signature.isEmpty()) {
+				return;
+			}
+			for (int band = 0; band < LSH_BANDS; band++) {
+				long key = bucketKey(signature, band);
+				List<T> bucket = buckets.get(key);
+				if ((bucket != null) && bucket.remove(value) && bucket.isEmpty()) {
+					buckets.remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The precomputed signature of a name.
+	 */
+	public static class Signature {
+
+		/**
+		 * Reads a signature previously written using {@link #write(DataOutput)}.
+		 */
+		static Signature read(DataInput in) throws IOException {
+			int[] minHashes = new int[MIN_HASHES];
+			for (int h = 0; h < MIN_HASHES; h++) {
+				minHashes[h] = in.readInt();
+			}
+			String[] phoneticCodes = new String[in.readUnsignedByte()];
+			for (int i = 0; i < phoneticCodes.length; i++) {
+				phoneticCodes[i] = in.readUTF();
+			}
+			return new Signature(minHashes, phoneticCodes);
+		}
+
+		private final int[] minHashes;
+		private final String[] phoneticCodes;
+
+		Signature(int[] minHashes, String[] phoneticCodes) {
+			this.minHashes = minHashes;
+			this.phoneticCodes = phoneticCodes;
+		}
+
+		/**
+		 * @return <code>true</code> if the name did not contain any significant
+		 *         word
+		 */
+		public boolean isEmpty() {
+			return phoneticCodes.length == 0;
+		}
+
+		@Override
+		public String toString() {
+			return "Signature " + Arrays.toString(phoneticCodes);
+		}
+
+		void write(DataOutput out) throws IOException {
+			for (int h = 0; h < MIN_HASHES; h++) {
+				out.writeInt(minHashes[h]);
+			}
+			// capped when created
+			out.writeByte(phoneticCodes.length);
+			for (String phoneticCode : phoneticCodes) {
+				out.writeUTF(phoneticCode);
+			}
+		}
+	}
+
+	private static final int NGRAM_SIZE = 3;
+	/** words up to this length are compared literally */
+	private static final int MAX_LITERAL_LENGTH = 2;
+	/** prefix of literal words (distinguishes them from phonetic codes) */
+	private static final char LITERAL_PREFIX = '=';
+	/**
+	 * the maximum number of distinct phonetic codes of a signature (further words
+	 * are ignored so that a restored signature equals the computed one)
+	 */
+	static final int MAX_PHONETIC_CODES = 0xFF;
+	private static final int MIN_HASHES = 64;
+	private static final int LSH_ROWS = 4;
+	private static final int LSH_BANDS = MIN_HASHES / LSH_ROWS;
+
+	/** seeds of the MinHash functions (fixed for reproducible signatures) */
+	private static final long[] MIN_HASH_SEEDS = new SplittableRandom(0x4B4E58L).longs(MIN_HASHES).toArray();
+
+	private static boolean containsDigit(String word) {
+		for (int i = 0; i < word.length(); i++) {
+			if (Character.isDigit(word.charAt(i))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int hashNgram(char[] word, int offset, int length) {
+		int hash = 0x811C9DC5;
+		for (int i = offset; i < (offset + length); i++) {
+			hash = (hash ^ word[i]) * 0x01000193;
+		}
+		return hash;
+	}
+
+	private static int intersectionSize(String[] a, String[] b) {
+		// both arrays are sorted
+		int i = 0, j = 0, intersection = 0;
+		while ((i < a.length) && (j < b.length)) {
+			int c = a[i].compareTo(b[j]);
+			if (c == 0) {
+				intersection++;
+				i++;
+				j++;
+			} else if (c < 0) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+		return intersection;
+	}
+
+	private static int mix(long value) {
+		// variant of the SplitMix64 finalizer
+		value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+		value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+		return (int) (value ^ (value >>> 31));
+	}
+
+	private final Analyzer wordAnalyzer;
+	private final ColognePhonetic phoneticEncoder = new ColognePhonetic();
+
+	/**
+	 * Creates a new engine.
+	 *
+	 * @param ignoredWords words to ignore (lower case, normalized), typically
+	 *                     functional qualifiers such as <code>status</code>
+	 */
+	public NameSimilarityEngine(Collection<String> ignoredWords) {
+		CharArraySet stopWords = CharArraySet.unmodifiableSet(new CharArraySet(ignoredWords, true));
+		wordAnalyzer = new Analyzer() {
+			@Override
+			protected TokenStreamComponents createComponents(String fieldName) {
+				Tokenizer source = new StandardTokenizer();
+				TokenStream result = new LowerCaseFilter(source);
+				result = new GermanNormalizationFilter(result);
+				result = new StopFilter(result, stopWords);
+				return new TokenStreamComponents(source, result);
+			}
+		};
+	}
+
+	/**
+	 * Computes the signature of a name.
+	 *
+	 * @param name the name (maybe <code>null</code>)
+	 * @return the signature (never <code>null</code>)
+	 */
+	public Signature createSignature(String name) {
+		int[] minHashes = new int[MIN_HASHES];
+		Arrays.fill(minHashes, Integer.MAX_VALUE);
+		Set<String> phoneticCodes = new LinkedHashSet<>();
+		if (name != null) {
+			try (TokenStream ts = wordAnalyzer.tokenStream("", name)) {
+				CharTermAttribute charTermAttribute = ts.addAttribute(CharTermAttribute.class);
+				ts.reset();
+				char[] word = new char[32];
+				while ((phoneticCodes.size() < MAX_PHONETIC_CODES) && ts.incrementToken()) {
+					// pad word with boundaries so that short words produce n-grams as well
+					int length = charTermAttribute.length() + 2;
+					if (word.length < length) {
+						word = new char[length];
+					}
+					word[0] = ' ';
+					System.arraycopy(charTermAttribute.buffer(), 0, word, 1, charTermAttribute.length());
+					word[length - 1] = ' ';
+					for (int i = 0; (i + NGRAM_SIZE) <= length; i++) {
+						int ngram = hashNgram(word, i, NGRAM_SIZE);
+						for (int h = 0; h < MIN_HASHES; h++) {
+							minHashes[h] = Math.min(minHashes[h], mix(ngram ^ MIN_HASH_SEEDS[h]));
+						}
+					}
+
+					phoneticCodes.add(encode(charTermAttribute.toString()));
+				}
+				ts.end();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		String[] sortedPhoneticCodes = phoneticCodes.toArray(new String[0]);
+		Arrays.sort(sortedPhoneticCodes);
+		return new Signature(minHashes, sortedPhoneticCodes);
+	}
+
+	private String encode(String word) {
+		// phonetic codes ignore digits and hardly differ for short words (eg., EG vs. OG)
+		if ((word.length() <= MAX_LITERAL_LENGTH) || containsDigit(word)) {
+			return LITERAL_PREFIX + word;
+		}
+
+		String code = phoneticEncoder.encode(word);
+		return code.isEmpty() ? LITERAL_PREFIX + word : code;
+	}
+
+	/**
+	 * Calculates the similarity of two signatures.
+	 * <p>
+	 * The similarity is the lower value of the estimated Jaccard similarity of
+	 * the n-gram sets and the Jaccard similarity of the phonetic codes, i.e. both
+	 * must agree. N-grams alone would consider names differing in a single short
+	 * word (eg., <code>Ost</code> vs. <code>West</code>) similar.
+	 * </p>
+	 *
+	 * @param a a signature
+	 * @param b another signature
+	 * @return the similarity (<code>0.0</code> to <code>1.0</code>)
+	 */
+	public float similarity(Signature a, Signature b) {
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0F;
+		}
+
+		int equalMinHashes = 0;
+		for (int h = 0; h < MIN_HASHES; h++) {
+			if (a.minHashes[h] == b.minHashes[h]) {
+				equalMinHashes++;
+			}
+		}
+		float ngramSimilarity = (float) equalMinHashes / (float) MIN_HASHES;
+
+		int intersection = intersectionSize(a.phoneticCodes, b.phoneticCodes);
+		float phoneticSimilarity = (float) intersection
+				/ (float) ((a.phoneticCodes.length + b.phoneticCodes.length) - intersection);
+
+		return Math.min(ngramSimilarity, phoneticSimilarity);
+	}
+}
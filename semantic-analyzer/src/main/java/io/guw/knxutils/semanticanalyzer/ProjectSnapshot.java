@@ -0,0 +1,131 @@
+package io.guw.knxutils.semanticanalyzer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Comparator.comparingInt;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.guw.knxutils.knxprojectparser.CommunicationObject;
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+import io.guw.knxutils.knxprojectparser.GroupAddressRange;
+
+/**
+ * Computes a hash over all data of a project which is relevant for analysis.
+ * <p>
+ * The hash covers GAs (address, id, name, description, DPT), their ranges and
+ * the links to communication objects. Two projects with the same snapshot hash
+ * will produce the same analysis results. This allows re-using persisted
+ * analysis data across runs.
+ * </p>
+ */
+public final class ProjectSnapshot {
+
+	private static final char SEPARATOR = '\u001F';
+
+	private static void append(StringBuilder record, Object value) {
+		if (value != null) {
+			record.append(value);
+		}
+		record.append(SEPARATOR);
+	}
+
+	private static void appendRecord(StringBuilder record, GroupAddress ga) {
+		append(record, ga.getAddressInt());
+		append(record, ga.getId());
+		append(record, ga.getName());
+		append(record, ga.getDescription());
+		append(record, ga.getDatapointType());
+		for (GroupAddressRange range = ga.getGroupAddressRange(); range != null; range = range.getParent()) {
+			append(record, range.getId());
+			append(record, range.getStartInt());
+			append(record, range.getEndInt());
+			append(record, range.getName());
+		}
+		// link order follows the order of devices in the project file which may change on export
+		List<String> links = new ArrayList<>();
+		for (CommunicationObject co : ga.getWritingCommunicationObjects()) {
+			links.add(formatCommunicationObject('W', co));
+		}
+		for (CommunicationObject co : ga.getListeningCommunicationObjects()) {
+			links.add(formatCommunicationObject('L', co));
+		}
+		links.sort(null);
+		links.forEach(record::append);
+	}
+
+	/**
+	 * Describes each of the specified GAs with the same data the
+	 * {@link #hash(Collection) hash} covers.
+	 * <p>
+	 * Comparing the descriptions of two versions of a project yields the GAs
+	 * which were added or modified. Note, the descriptions must be taken before
+	 * the analysis fills in missing information.
+	 * </p>
+	 *
+	 * @param groupAddresses the GAs of a project
+	 * @return the descriptions by address
+	 */
+	public static Map<Integer, String> describe(Collection<GroupAddress> groupAddresses) {
+		Map<Integer, String> descriptions = new HashMap<>();
+		StringBuilder record = new StringBuilder();
+		for (GroupAddress ga : groupAddresses) {
+			record.setLength(0);
+			appendRecord(record, ga);
+			descriptions.put(ga.getAddressInt(), record.toString());
+		}
+		return descriptions;
+	}
+
+	private static String formatCommunicationObject(char kind, CommunicationObject co) {
+		StringBuilder record = new StringBuilder();
+		record.append(kind);
+		append(record, co.getDevice() != null ? co.getDevice().getId() : null);
+		append(record, co.getRefId());
+		append(record, co.getDatapointType());
+		append(record, co.getDescription());
+		append(record, co.isReadFlag());
+		return record.toString();
+	}
+
+	/**
+	 * Computes the snapshot hash of the specified GAs.
+	 *
+	 * @param groupAddresses the GAs of a project
+	 * @return the hash (hex encoded SHA-256)
+	 */
+	public static String hash(Collection<GroupAddress> groupAddresses) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+
+		List<GroupAddress> sorted = new ArrayList<>(groupAddresses);
+		sorted.sort(comparingInt(GroupAddress::getAddressInt));
+
+		StringBuilder record = new StringBuilder();
+		for (GroupAddress ga : sorted) {
+			record.setLength(0);
+			appendRecord(record, ga);
+			record.append('\n');
+			digest.update(record.toString().getBytes(UTF_8));
+		}
+
+		StringBuilder hex = new StringBuilder();
+		for (byte b : digest.digest()) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+	private ProjectSnapshot() {
+		// empty
+	}
+}
@@ -0,0 +1,46 @@
+package io.guw.knxutils.semanticanalyzer;
+
+import java.util.Comparator;
+
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+
+/**
+ * A candidate GA for a role within a {@link GroupAddressBlock} together with
+ * its score.
+ * <p>
+ * The score is a sum of weighted features (eg., block position, DPT, name
+ * similarity). Higher is better. Scores are only comparable among candidates
+ * of the same primary GA.
+ * </p>
+ */
+public class ScoredCandidate {
+
+	/**
+	 * Orders by score (highest first) and address (lowest first) for
+	 * reproducible results.
+	 */
+	public static final Comparator<ScoredCandidate> BEST_FIRST = Comparator
+			.comparingDouble((ScoredCandidate c) -> -c.getScore())
+			.thenComparingInt((c) -> c.getGroupAddress().getAddressInt());
+
+	private final GroupAddress groupAddress;
+	private final float score;
+
+	public ScoredCandidate(GroupAddress groupAddress, float score) {
+		this.groupAddress = groupAddress;
+		this.score = score;
+	}
+
+	public GroupAddress getGroupAddress() {
+		return groupAddress;
+	}
+
+	public float getScore() {
+		return score;
+	}
+
+	@Override
+	public String toString() {
+		return "ScoredCandidate [" + groupAddress + ", score=" + score + "]";
+	}
+}
@@ -0,0 +1,177 @@
+package io.guw.knxutils.semanticanalyzer;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.guw.knxutils.knxprojectparser.CommunicationObject;
+import io.guw.knxutils.knxprojectparser.DatapointType;
+import io.guw.knxutils.knxprojectparser.Device;
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+
+/**
+ * Classifies GAs based on the structure of a project only (i.e. without looking
+ * at names).
+ * <p>
+ * Structure means DPTs, links to {@link CommunicationObject communication
+ * objects} and their read flags. A GA with DPT 1.001 linked to a switching CO,
+ * followed by a GA with DPT 3.007 linked to the same device and a readable
+ * 5.001 GA within the block, is almost certainly the primary GA of a dimmable
+ * light. The related GAs of such a block are classified as control (3.007 or
+ * 5.001) or status (1.011 or readable 5.001) GAs if their DPT fits a secondary
+ * role. A 1.001 GA is never classified as secondary because it may be the next
+ * channel of a multi-channel actuator.
+ * </p>
+ * <p>
+ * Everything else is considered ambiguous and left for text analysis.
+ * </p>
+ */
+final class StructuralClassifier {
+
+	enum Classification {
+		LightPrimary, LightControl, LightStatus
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(StructuralClassifier.class);
+
+	/** the highest possible address of a three-level GA (31/7/255) */
+	private static final int MAX_ADDRESS = 0xFFFF;
+
+	private static final int BLOCK_LENGTH = GroupAddressBlock.BLOCK_LENGTH;
+
+	/**
+	 * @return the secondary classification (maybe <code>null</code> if the DPT
+	 *         does not fit a secondary role)
+	 */
+	private static Classification classifySecondary(GroupAddress ga) {
+		DatapointType dpt = dpt(ga);
+		if (dpt == DatapointType.State) {
+			return Classification.LightStatus;
+		}
+		if (dpt == DatapointType.ControlDimming) {
+			return Classification.LightControl;
+		}
+		if (dpt == DatapointType.Scaling) {
+			return hasReadableCommunicationObject(ga) ? Classification.LightStatus : Classification.LightControl;
+		}
+		return null;
+	}
+
+	private static DatapointType dpt(GroupAddress ga) {
+		return DatapointType.findByKnxProjectValue(ga.getDatapointType());
+	}
+
+	private static Set<Device> getDevices(GroupAddress ga) {
+		Set<Device> devices = new HashSet<>();
+		for (CommunicationObject co : ga.getWritingCommunicationObjects()) {
+			devices.add(co.getDevice());
+		}
+		for (CommunicationObject co : ga.getListeningCommunicationObjects()) {
+			devices.add(co.getDevice());
+		}
+		return devices;
+	}
+
+	private static boolean hasCommunicationObject(GroupAddress ga, DatapointType dpt) {
+		for (CommunicationObject co : ga.getWritingCommunicationObjects()) {
+			if (DatapointType.findByKnxProjectValue(co.getDatapointType()) == dpt) {
+				return true;
+			}
+		}
+		for (CommunicationObject co : ga.getListeningCommunicationObjects()) {
+			if (DatapointType.findByKnxProjectValue(co.getDatapointType()) == dpt) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean hasReadableCommunicationObject(GroupAddress ga) {
+		for (CommunicationObject co : ga.getWritingCommunicationObjects()) {
+			if (co.isReadFlag()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean sharesDevice(Set<Device> devices, GroupAddress ga) {
+		for (CommunicationObject co : ga.getWritingCommunicationObjects()) {
+			if (devices.contains(co.getDevice())) {
+				return true;
+			}
+		}
+		for (CommunicationObject co : ga.getListeningCommunicationObjects()) {
+			if (devices.contains(co.getDevice())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Classifies the specified GAs.
+	 *
+	 * @param groupAddresses      the GAs to classify
+	 * @param knownGroupAddresses all GAs of the project (used for looking up
+	 *                            neighbours within a block)
+	 * @return the classification of all GAs which could be classified
+	 *         structurally (GAs not contained in the map are ambiguous)
+	 */
+	Map<GroupAddress, Classification> classify(Collection<GroupAddress> groupAddresses,
+			Collection<GroupAddress> knownGroupAddresses) {
+		GroupAddress[] groupAddressByAddressInt = new GroupAddress[MAX_ADDRESS + 1];
+		for (GroupAddress ga : knownGroupAddresses) {
+			groupAddressByAddressInt[ga.getAddressInt()] = ga;
+		}
+		for (GroupAddress ga : groupAddresses) {
+			groupAddressByAddressInt[ga.getAddressInt()] = ga;
+		}
+
+		Map<GroupAddress, Classification> result = new HashMap<>();
+		for (GroupAddress ga : groupAddresses) {
+			if ((dpt(ga) != DatapointType.Switch) || !hasCommunicationObject(ga, DatapointType.Switch)) {
+				continue;
+			}
+
+			Set<Device> devices = getDevices(ga);
+			GroupAddress[] block = new GroupAddress[BLOCK_LENGTH];
+			for (int i = 1; i < BLOCK_LENGTH; i++) {
+				int address = ga.getAddressInt() + i;
+				if ((address <= MAX_ADDRESS) && (groupAddressByAddressInt[address] != null)
+						&& sharesDevice(devices, groupAddressByAddressInt[address])) {
+					block[i] = groupAddressByAddressInt[address];
+				}
+			}
+
+			boolean dimming = (block[1] != null) && (dpt(block[1]) == DatapointType.ControlDimming);
+			boolean brightnessStatus = false;
+			for (int i = 2; (i < BLOCK_LENGTH) && !brightnessStatus; i++) {
+				brightnessStatus = (block[i] != null) && (dpt(block[i]) == DatapointType.Scaling)
+						&& hasReadableCommunicationObject(block[i]);
+			}
+			if (!dimming || !brightnessStatus) {
+				continue;
+			}
+
+			LOG.debug("Structurally identified dimmable light for GA {}", ga);
+			result.put(ga, Classification.LightPrimary);
+			for (int i = 1; i < BLOCK_LENGTH; i++) {
+				// secondary DPTs never overlap with block heads (1.001); thus, the result is independent of the order
+				Classification secondary = block[i] != null ? classifySecondary(block[i]) : null;
+				if (secondary != null) {
+					result.putIfAbsent(block[i], secondary);
+				}
+			}
+		}
+
+		// only report GAs which were requested
+		result.keySet().retainAll(new HashSet<>(groupAddresses));
+		return result;
+	}
+}
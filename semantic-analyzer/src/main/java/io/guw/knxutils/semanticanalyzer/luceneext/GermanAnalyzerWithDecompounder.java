@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
 
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.CharArraySet;
@@ -32,10 +33,14 @@ import org.apache.lucene.analysis.WordlistLoader;
 import org.apache.lucene.analysis.compound.CompoundWordTokenFilterBase;
 import org.apache.lucene.analysis.compound.HyphenationCompoundWordTokenFilter;
 import org.apache.lucene.analysis.compound.hyphenation.HyphenationTree;
+import org.apache.lucene.analysis.core.FlattenGraphFilter;
 import org.apache.lucene.analysis.de.GermanLightStemFilter;
 import org.apache.lucene.analysis.de.GermanNormalizationFilter;
 import org.apache.lucene.analysis.miscellaneous.SetKeywordMarkerFilter;
 import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.synonym.SolrSynonymParser;
+import org.apache.lucene.analysis.synonym.SynonymGraphFilter;
+import org.apache.lucene.analysis.synonym.SynonymMap;
 import org.apache.lucene.util.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,6 +69,7 @@ public final class GermanAnalyzerWithDecompounder extends StopwordAnalyzerBase {
 				+ NEWLINE + NEWLINE + NEWLINE;
 
 		private static final CharArraySet DEFAULT_STOPWORD_SET;
+		private static final SynonymMap DEFAULT_SYNONYM_MAP;
 		private static CharArraySet compoundDictionary;
 		private static HyphenationTree hyphenator;
 		static {
@@ -76,6 +82,24 @@ public final class GermanAnalyzerWithDecompounder extends StopwordAnalyzerBase {
 				throw new RuntimeException("Unable to load default stopword set", ex);
 			}
 
+			// synonyms are matched on lower case tokens (before stop word removal and stemming)
+			try (Analyzer synonymAnalyzer = new Analyzer() {
+				@Override
+				protected TokenStreamComponents createComponents(String fieldName) {
+					Tokenizer source = new StandardTokenizer();
+					return new TokenStreamComponents(source, new LowerCaseFilter(source));
+				}
+			}) {
+				SolrSynonymParser parser = new SolrSynonymParser(true, false, synonymAnalyzer);
+				parser.parse(IOUtils.getDecodingReader(GermanAnalyzerWithDecompounder.class, DEFAULT_SYNONYM_FILE,
+						StandardCharsets.UTF_8));
+				DEFAULT_SYNONYM_MAP = parser.build();
+			} catch (IOException | ParseException ex) {
+				// default synonyms should always be present as they are part of the
+				// distribution (JAR)
+				throw new RuntimeException("Unable to load default synonyms", ex);
+			}
+
 			try (InputStream stream = GermanAnalyzerWithDecompounder.class
 					.getResourceAsStream(DEFAULT_DICTIONARY_FILE)) {
 				if (stream != null) {
@@ -113,6 +137,9 @@ public final class GermanAnalyzerWithDecompounder extends StopwordAnalyzerBase {
 	/** File containing default German stopwords. */
 	public final static String DEFAULT_STOPWORD_FILE = "german_stop-modified.txt";
 
+	/** File containing default synonyms/abbreviations of KNX naming conventions. */
+	public final static String DEFAULT_SYNONYM_FILE = "knx_synonyms.txt";
+
 	/** File containing default German hyphenator. */
 	public final static String DEFAULT_HYPHENATOR_FILE = "de_DR.xml";
 
@@ -128,6 +155,16 @@ public final class GermanAnalyzerWithDecompounder extends StopwordAnalyzerBase {
 		return DefaultSetHolder.DEFAULT_STOPWORD_SET;
 	}
 
+	/**
+	 * Returns the default synonyms (abbreviations commonly used in KNX projects
+	 * mapped to canonical terms)
+	 *
+	 * @return the default synonyms
+	 */
+	public static SynonymMap getDefaultSynonymMap() {
+		return DefaultSetHolder.DEFAULT_SYNONYM_MAP;
+	}
+
 	/**
 	 * Contains the stopwords used with the {@link StopFilter}.
 	 */
@@ -141,6 +178,8 @@ public final class GermanAnalyzerWithDecompounder extends StopwordAnalyzerBase {
 
 	private final CharArraySet dictionary;
 
+	private final SynonymMap synonyms;
+
 	/**
 	 * Builds an analyzer with the default stop words:
 	 * {@link #getDefaultStopSet()}.
@@ -172,6 +211,7 @@ public final class GermanAnalyzerWithDecompounder extends StopwordAnalyzerBase {
 		exclusionSet = CharArraySet.unmodifiableSet(CharArraySet.copy(stemExclusionSet));
 		hyphenator = DefaultSetHolder.hyphenator;
 		dictionary = DefaultSetHolder.compoundDictionary;
+		synonyms = DefaultSetHolder.DEFAULT_SYNONYM_MAP;
 	}
 
 	/**
@@ -181,7 +221,8 @@ public final class GermanAnalyzerWithDecompounder extends StopwordAnalyzerBase {
 	 *
 	 * @return {@link org.apache.lucene.analysis.Analyzer.TokenStreamComponents}
 	 *         built from a {@link StandardTokenizer} filtered with
-	 *         {@link LowerCaseFilter}, {@link StopFilter}
+	 *         {@link LowerCaseFilter}, {@link SynonymGraphFilter},
+	 *         {@link StopFilter}
 	 *         , {@link SetKeywordMarkerFilter} if a stem exclusion set is
 	 *         provided, {@link GermanNormalizationFilter} and
 	 *         {@link GermanLightStemFilter}
@@ -190,6 +231,8 @@ public final class GermanAnalyzerWithDecompounder extends StopwordAnalyzerBase {
 	protected TokenStreamComponents createComponents(String fieldName) {
 		final Tokenizer source = new StandardTokenizer();
 		TokenStream result = new LowerCaseFilter(source);
+		result = new SynonymGraphFilter(result, synonyms, true);
+		result = new FlattenGraphFilter(result);
 		result = new StopFilter(result, stopwords);
 		result = new SetKeywordMarkerFilter(result, exclusionSet);
 		if ((DefaultSetHolder.hyphenator != null) && (DefaultSetHolder.compoundDictionary != null)) {
@@ -1,24 +1,40 @@
 package io.guw.knxutils.semanticanalyzer;
 
+import static io.guw.knxutils.knxprojectparser.DatapointType.ControlDimming;
+import static io.guw.knxutils.knxprojectparser.DatapointType.Scaling;
 import static io.guw.knxutils.knxprojectparser.DatapointType.State;
 import static io.guw.knxutils.knxprojectparser.DatapointType.Switch;
 import static io.guw.knxutils.knxprojectparser.GroupAddress.getCombindedAddress;
+import static io.guw.knxutils.semanticanalyzer.DeviceCategory.Heating;
+import static io.guw.knxutils.semanticanalyzer.DeviceCategory.Light;
+import static io.guw.knxutils.semanticanalyzer.DeviceCategory.Shutter;
 import static java.lang.String.format;
 import static java.util.stream.Collectors.joining;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import io.guw.knxutils.knxprojectparser.CommunicationObject;
+import io.guw.knxutils.knxprojectparser.Device;
 import io.guw.knxutils.knxprojectparser.GroupAddress;
 import io.guw.knxutils.knxprojectparser.GroupAddressRange;
+import io.guw.knxutils.semanticanalyzer.GroupAddressBlock.Role;
 
 public class GenericGermanyKnxProjectCharacteristicsTest {
 
@@ -48,6 +64,101 @@ public class GenericGermanyKnxProjectCharacteristicsTest {
 				0.6F <= characteristics.calculatePrefixMatchRatio("Licht Küche Status Ein/Aus", "Licht Küche Ein/Aus"));
 	}
 
+	@Test
+	public void getCategories() throws Exception {
+		assertEquals(Set.of(Light), characteristics.getCategories(gaWithName("Licht Küche")));
+		assertEquals(Set.of(Shutter), characteristics.getCategories(gaWithName("Rollo Küche")));
+		assertEquals(Set.of(Shutter), characteristics.getCategories(gaWithName("R_EG01_01")));
+		assertEquals(Set.of(Heating), characteristics.getCategories(gaWithName("Heizung Bad")));
+		assertEquals(Set.of(Heating), characteristics.getCategories(gaWithNameAndDescription("XYZ", "[Heizung]")));
+		assertEquals(Set.of(Light, Shutter),
+				characteristics.getCategories(gaWithNameAndDescription("Licht Küche", "[Rollo]")));
+		assertEquals(Set.of(), characteristics.getCategories(gaWithName("Steckdose Küche")));
+
+		// prefixes must only match at the start of the name
+		assertEquals(Set.of(), characteristics.getCategories(gaWithName("XL_EG01_01")));
+		assertEquals(Set.of(), characteristics.getCategories(gaWithName("EG01 H_01")));
+	}
+
+	@Test
+	public void fillInMissingInformation_diagnostics() throws Exception {
+		Device actuator = new Device(null, "D-1", "1", "Schaltaktor", null);
+		for (int i = 0; i < 10; i++) {
+			GroupAddress ga = gaWithCommunicationObject(actuator, 1, 0, i, "Licht " + i, Switch.getValue(), false);
+			ga.getWritingCommunicationObjects()
+					.add(new CommunicationObject(actuator, "O-X" + i, Scaling.getValue(), "Wert", false));
+			characteristics.fillInMissingInformation(ga);
+		}
+
+		Diagnostics diagnostics = characteristics.getDiagnostics();
+		assertEquals(10, diagnostics.getCount(IssueCode.DatapointTypeMismatch));
+		assertEquals(10, diagnostics.getProjectDataIssueCount());
+		assertEquals(Diagnostics.DEFAULT_MAX_SAMPLES, diagnostics.getSamples(IssueCode.DatapointTypeMismatch).size());
+		assertEquals(List.of(), diagnostics.getSamples(IssueCode.BlankName));
+		assertTrue(diagnostics.getSummary().startsWith(IssueCode.DatapointTypeMismatch.name()));
+	}
+
+	@Test
+	public void findBlock_dimmableLight() throws Exception {
+		GroupAddress primary = ga(1, 0, 0, "Licht Küche Ein/Aus", Switch.getValue());
+		GroupAddress dim = ga(1, 0, 1, "Licht Küche Dimmen", ControlDimming.getValue());
+		GroupAddress value = ga(1, 0, 2, "Licht Küche Wert", Scaling.getValue());
+		GroupAddress status = ga(1, 0, 3, "Licht Küche Status", State.getValue());
+		GroupAddress statusValue = ga(1, 0, 4, "Licht Küche Status Wert", Scaling.getValue());
+		ga(1, 0, 5, "Licht Bad Ein/Aus", Switch.getValue());
+
+		GroupAddressBlock block = characteristics.findBlock(primary);
+		assertEquals(primary, block.getPrimaryGroupAddress());
+		assertEquals(dim, block.get(Role.Dim));
+		assertEquals(value, block.get(Role.Value));
+		assertEquals(status, block.get(Role.StatusOnOff));
+		assertEquals(statusValue, block.get(Role.StatusValue));
+
+		assertEquals(dim, characteristics.findMatchingDimGroupAddress(primary));
+		assertEquals(value, characteristics.findMatchingBrightnessGroupAddress(primary));
+		assertEquals(status, characteristics.findMatchingStatusGroupAddress(primary));
+		assertEquals(statusValue, characteristics.findMatchingBrightnessStatusGroupAddress(primary));
+	}
+
+	@Test
+	public void findBlock_rankedCandidates() throws Exception {
+		GroupAddress primary = ga(1, 0, 0, "Licht Küche Ein/Aus", Switch.getValue());
+		GroupAddress misplacedStatus = ga(1, 0, 1, "Licht Küche Status", State.getValue());
+		GroupAddress status = ga(1, 0, 3, "Licht Küche Status", State.getValue());
+
+		// ambiguous by block pattern and name but resolved by ranking
+		GroupAddressBlock block = characteristics.findBlock(primary);
+		List<ScoredCandidate> candidates = block.getCandidates(Role.StatusOnOff);
+		assertEquals(2, candidates.size());
+		assertEquals(status, candidates.get(0).getGroupAddress());
+		assertEquals(misplacedStatus, candidates.get(1).getGroupAddress());
+		assertTrue(candidates.get(0).getScore() > candidates.get(1).getScore());
+		assertEquals(status, characteristics.findMatchingStatusGroupAddress(primary));
+
+		// wrong DPT does not qualify
+		assertEquals(List.of(), block.getCandidates(Role.Dim));
+	}
+
+	@Test
+	public void findBlock_roleFromRanking() throws Exception {
+		GroupAddressRange lightsRange = new GroupAddressRange(null, null, 2048, 4095, "Lichter", null);
+		GroupAddressRange statusRange = new GroupAddressRange(null, null, 20480, 22527, "Status", null);
+
+		// brightness status without a brightness GA in the block
+		GroupAddress primary = ga(lightsRange, 1, 0, 0, "Licht Küche Ein/Aus", Switch.getValue());
+		GroupAddress statusValue = ga(lightsRange, 1, 0, 4, "Licht Küche Helligkeit RM", Scaling.getValue());
+		GroupAddressBlock block = characteristics.findBlock(primary);
+		assertEquals(null, block.get(Role.Value));
+		assertEquals(statusValue, block.get(Role.StatusValue));
+
+		// brightness status in a status range is not a brightness GA
+		GroupAddress primaryBath = ga(lightsRange, 1, 0, 10, "Licht Bad Ein/Aus", Switch.getValue());
+		GroupAddress statusValueBath = ga(statusRange, 10, 0, 10, "Licht Bad Helligkeit", Scaling.getValue());
+		block = characteristics.findBlock(primaryBath);
+		assertEquals(null, block.get(Role.Value));
+		assertEquals(statusValueBath, block.get(Role.StatusValue));
+	}
+
 	@Test
 	public void findMatchingStatusGroupAddress_pattern_block() throws Exception {
 		GroupAddress primary = ga(1, 0, 1, "Licht Küche Ein/Aus", Switch.getValue());
@@ -66,6 +177,61 @@ public class GenericGermanyKnxProjectCharacteristicsTest {
 		assertEquals(status, characteristics.findMatchingStatusGroupAddress(primary));
 	}
 
+	@Test
+	public void findMatchingStatusGroupAddress_pattern_similarName() throws Exception {
+		GroupAddressRange lightsRange = new GroupAddressRange(null, null, 2048, 4095, "Lichter", null);
+		GroupAddressRange statusRange = new GroupAddressRange(null, null, 20480, 22527, "Status", null);
+
+		// typo and re-ordered words in status range
+		GroupAddress primary = ga(lightsRange, 1, 0, 1, "Licht Küche Ein/Aus", Switch.getValue());
+		GroupAddress status = ga(statusRange, 10, 0, 1, "Status Kueche Licht", State.getValue());
+		assertEquals(status, characteristics.findMatchingStatusGroupAddress(primary));
+
+		// status at an unrelated address
+		GroupAddress primaryBath = ga(lightsRange, 1, 0, 20, "Licht Bad Spiegel Ein/Aus", Switch.getValue());
+		ga(lightsRange, 1, 0, 21, "Steckdose Bad", Switch.getValue());
+		GroupAddress statusBath = ga(lightsRange, 1, 7, 99, "Licht Bad Spiegel RM", State.getValue());
+		assertEquals(statusBath, characteristics.findMatchingStatusGroupAddress(primaryBath));
+
+		// same name in another main group (eg., another building)
+		GroupAddress primaryGuest = ga(lightsRange, 1, 0, 40, "Licht Gäste WC Ein/Aus", Switch.getValue());
+		ga(4, 3, 10, "Licht Gäste WC Status", State.getValue());
+		assertEquals(null, characteristics.findMatchingStatusGroupAddress(primaryGuest));
+	}
+
+	@Test
+	public void findName() throws Exception {
+		GroupAddress primary = ga(1, 0, 0, "Licht Küche Ein/Aus", Switch.getValue());
+		GroupAddress dim = ga(1, 0, 1, "Licht Küche Dimmen", ControlDimming.getValue());
+		GroupAddress value = ga(1, 0, 2, "Licht Kueche Wert", Scaling.getValue());
+		GroupAddress status = ga(1, 0, 3, "Licht Küche - Status", State.getValue());
+		GroupAddress statusValue = ga(1, 0, 4, "LK Status Wert", Scaling.getValue());
+
+		assertEquals("Licht Küche", characteristics.findName(primary, status));
+		assertEquals("Licht Küche Ein/Aus", characteristics.findName(primary));
+
+		// majority wins
+		assertEquals("Licht Küche", characteristics.findName(primary, status, dim, value, statusValue));
+		assertEquals(Map.of(primary, "Licht Küche"),
+				characteristics.findNames(Map.of(primary, List.of(status, dim, value, statusValue))));
+
+		// no common name
+		assertEquals("Licht Küche Ein/Aus", characteristics.findName(primary, statusValue));
+
+		// groups of a batch share the trie but not their counts
+		GroupAddress primaryIsland = ga(1, 0, 10, "Licht Küche Insel Ein/Aus", Switch.getValue());
+		GroupAddress statusIsland = ga(1, 0, 13, "LK Insel Status", State.getValue());
+		Map<GroupAddress, List<GroupAddress>> batch = new LinkedHashMap<>();
+		batch.put(primary, List.of(status, dim, value, statusValue));
+		batch.put(primaryIsland, List.of(statusIsland));
+		assertEquals(Map.of(primary, "Licht Küche", primaryIsland, "Licht Küche Insel Ein/Aus"),
+				characteristics.findNames(batch));
+
+		// token boundaries
+		assertEquals("LD_EG01_01", characteristics.findName(ga(1, 1, 0, "LD_EG01_01_EA", Switch.getValue()),
+				ga(1, 1, 3, "LD_EG01_01_RM", State.getValue())));
+	}
+
 	private GroupAddress ga(GroupAddressRange range, int part1, int part2, int part3, String name, String dpt) {
 		return ga(range, part1, part2, part3, name, null, dpt);
 	}
@@ -82,6 +248,16 @@ public class GenericGermanyKnxProjectCharacteristicsTest {
 		return ga(null, part1, part2, part3, name, null, dpt);
 	}
 
+	private GroupAddress gaWithCommunicationObject(Device device, int part1, int part2, int part3, String name,
+			String dpt, boolean readFlag) {
+		GroupAddress groupAddress = new GroupAddress(null, null, getCombindedAddress(part1, part2, part3), name, null,
+				dpt);
+		CommunicationObject co = new CommunicationObject(device, "O-" + part3, dpt, name, readFlag);
+		device.getCommunicationObjects().add(co);
+		groupAddress.getWritingCommunicationObjects().add(co);
+		return groupAddress;
+	}
+
 	private GroupAddress gaWithName(String name) {
 		return gaWithNameAndDpt(name, Switch.getValue());
 	}
@@ -118,13 +294,25 @@ public class GenericGermanyKnxProjectCharacteristicsTest {
 
 		assertTrue(characteristics.getTerms("Beleuchtung").contains("beleuchtung"));
 
-		assertTerms("Licht Küche Status Ein/Aus", "status", "licht", "kuch");
+		assertTerms("Licht Küche Status Ein/Aus", "status", "licht", "kuch", "schalt");
 
 		assertTerms("Rückmeldungen Schalten", "schalt", "ruckmeldung", "ruck");
 
 		assertTerms("Rückmelde-/Statusobjekte", "ruckmeld", "ruck", "statusobjekt", "objekt", "status", "meld");
 	}
 
+	@Test
+	public void getTerms_synonyms() throws Exception {
+		assertTerms("Licht Küche E/A", "licht", "kuch", "schalt");
+		assertTerms("Licht Küche Ein/Aus", "licht", "kuch", "schalt");
+		assertTerms("Licht Küche DIM", "licht", "kuch", "dimm");
+		assertTerms("Licht Küche Hell/Dunkel", "licht", "kuch", "dimm");
+		assertTerms("Licht Küche RM", "licht", "kuch", "status");
+		assertTerms("Licht Küche RM WERT", "licht", "kuch", "status", "wert");
+
+		assertFalse(characteristics.isPrimarySwitch(gaWithName("Licht Küche RM")));
+	}
+
 	@Test
 	public void isLight() throws Exception {
 		assertTrue(characteristics.isLight(gaWithName("Licht")));
@@ -155,11 +343,98 @@ public class GenericGermanyKnxProjectCharacteristicsTest {
 		assertTrue(characteristics.isLight(gaWithNameAndDescription("XYZ", "blah ... [Licht]...")));
 	}
 
+	@Test
+	public void isLight_structural() throws Exception {
+		// names without any light related terms
+		Device actuator = new Device(null, "D-1", "1", "Dimmaktor", null);
+		GroupAddress primary = gaWithCommunicationObject(actuator, 1, 0, 0, "Küche Decke", Switch.getValue(), false);
+		GroupAddress dim = gaWithCommunicationObject(actuator, 1, 0, 1, "Küche Decke Dimmen",
+				ControlDimming.getValue(), false);
+		GroupAddress status = gaWithCommunicationObject(actuator, 1, 0, 3, "Küche Decke RM", State.getValue(), true);
+		GroupAddress statusValue = gaWithCommunicationObject(actuator, 1, 0, 4, "Küche Decke RM Wert",
+				Scaling.getValue(), true);
+		characteristics.learn(List.of(primary, dim, status, statusValue));
+
+		assertEquals(4, characteristics.getStructurallyClassifiedCount());
+		assertTrue(characteristics.isLight(primary));
+		assertTrue(characteristics.isPrimarySwitch(primary));
+		assertTrue(characteristics.isLight(status));
+		assertFalse(characteristics.isPrimarySwitch(status));
+		assertEquals(status, characteristics.findMatchingStatusGroupAddress(primary));
+
+		// the classified role counts for ranking although the name has no status term
+		GroupAddressBlock block = characteristics.findBlock(primary);
+		float statusValueScore = block.getCandidates(Role.StatusValue).get(0).getScore();
+		float valueScore = block.getCandidates(Role.Value).stream().filter((c) -> c.getGroupAddress() == statusValue)
+				.findFirst().get().getScore();
+		assertEquals(statusValue, block.getCandidates(Role.StatusValue).get(0).getGroupAddress());
+		// block position (2 vs. 0.5) and status role (1 vs. -1)
+		assertEquals(3.5F, statusValueScore - valueScore, 0.001F);
+
+		// a switching GA without dimming is ambiguous
+		Device switchActuator = new Device(null, "D-2", "2", "Schaltaktor", null);
+		GroupAddress socket = gaWithCommunicationObject(switchActuator, 2, 0, 0, "Steckdose Küche", Switch.getValue(),
+				false);
+		characteristics.learn(List.of(socket));
+		assertEquals(4, characteristics.getStructurallyClassifiedCount());
+		assertFalse(characteristics.isLight(socket));
+	}
+
+	@Test
+	public void isLight_structural_adjacentChannels() throws Exception {
+		// dimming channel followed by a switching channel of the same actuator
+		Device actuator = new Device(null, "D-1", "1", "Dimmaktor", null);
+		GroupAddress primary = gaWithCommunicationObject(actuator, 1, 0, 0, "Licht Küche Ein/Aus", Switch.getValue(),
+				false);
+		GroupAddress dim = gaWithCommunicationObject(actuator, 1, 0, 1, "Licht Küche Dimmen",
+				ControlDimming.getValue(), false);
+		GroupAddress statusValue = gaWithCommunicationObject(actuator, 1, 0, 2, "Licht Küche RM Wert",
+				Scaling.getValue(), true);
+		GroupAddress nextChannel = gaWithCommunicationObject(actuator, 1, 0, 3, "Licht Flur Ein/Aus",
+				Switch.getValue(), false);
+		GroupAddress nextChannelStatus = gaWithCommunicationObject(actuator, 1, 0, 4, "Licht Flur RM",
+				State.getValue(), true);
+		characteristics.learn(List.of(nextChannelStatus, nextChannel, statusValue, dim, primary));
+
+		// the switching channel is not demoted to a secondary GA of the dimming channel
+		assertEquals(4, characteristics.getStructurallyClassifiedCount());
+		assertTrue(characteristics.isPrimarySwitch(primary));
+		assertTrue(characteristics.isPrimarySwitch(nextChannel));
+		assertTrue(characteristics.isLight(nextChannel));
+	}
+
 	@Test
 	public void isMatchOnName() throws Exception {
 		assertTrue(characteristics.isMatchOnName(gaWithName("Licht Küche Status"), gaWithName("Licht Küche Ein/Aus")));
 	}
 
+	@Test
+	public void isSimilarName() throws Exception {
+		GroupAddress primary = gaWithName("Licht Küche Ein/Aus");
+		assertTrue(characteristics.isSimilarName(ga(1, 0, 2, "Licht Kueche Status", State.getValue()), primary));
+		assertTrue(characteristics.isSimilarName(ga(1, 0, 3, "Küche Licht RM", State.getValue()), primary));
+		assertFalse(characteristics.isSimilarName(ga(1, 0, 4, "Licht Bad Status", State.getValue()), primary));
+		assertFalse(characteristics.isSimilarName(ga(1, 0, 5, "Licht Küche Insel Status", State.getValue()), primary));
+	}
+
+	@Test
+	public void isSimilarName_significantWords() throws Exception {
+		// short words and numbers are compared literally
+		assertFalse(characteristics.isSimilarName(ga(1, 0, 1, "Licht OG Flur Status", State.getValue()),
+				ga(1, 0, 0, "Licht EG Flur", Switch.getValue())));
+		assertFalse(characteristics.isSimilarName(ga(1, 0, 3, "Licht Wohnzimmer Decke 2 Status", State.getValue()),
+				ga(1, 0, 2, "Licht Wohnzimmer Decke 1", Switch.getValue())));
+		assertFalse(characteristics.isSimilarName(ga(1, 0, 9, "Licht Raum2 Status", State.getValue()),
+				ga(1, 0, 8, "Licht Raum1", Switch.getValue())));
+
+		// n-grams alone are not sufficient
+		assertFalse(characteristics.isSimilarName(ga(1, 0, 5, "Kinderzimmer West Status", State.getValue()),
+				ga(1, 0, 4, "Kinderzimmer Ost", Switch.getValue())));
+
+		assertTrue(characteristics.isSimilarName(ga(1, 0, 7, "Licht EG Flur Status", State.getValue()),
+				ga(1, 0, 6, "Licht EG Flur", Switch.getValue())));
+	}
+
 	@Test
 	public void isPrimarySwitch() throws Exception {
 		assertTrue(characteristics.isPrimarySwitch(gaWithName("Licht Küche Ein/Aus")));
@@ -167,6 +442,155 @@ public class GenericGermanyKnxProjectCharacteristicsTest {
 		assertFalse(characteristics.isPrimarySwitch(gaWithName("Rückmeldungen Schalten Licht")));
 	}
 
+	@Test
+	public void learn_budgetExhausted() throws Exception {
+		GroupAddress primary = new GroupAddress(null, null, getCombindedAddress(1, 0, 0), "Licht Küche Ein/Aus", null,
+				Switch.getValue());
+		GroupAddress status = new GroupAddress(null, null, getCombindedAddress(1, 0, 3), "Licht Küche Status", null,
+				State.getValue());
+		GroupAddress otherPrimary = new GroupAddress(null, null, getCombindedAddress(2, 0, 0), "Licht Bad Ein/Aus",
+				null, Switch.getValue());
+		GroupAddress otherStatus = new GroupAddress(null, null, getCombindedAddress(3, 0, 0), "Licht Bad Status",
+				null, State.getValue());
+
+		// budget is exhausted after first GA
+		characteristics.setBudget(AnalysisBudget.ofWork(1));
+		characteristics.learn(List.of(primary, status, otherPrimary, otherStatus));
+
+		// block structure is still used
+		assertEquals(status, characteristics.findMatchingStatusGroupAddress(primary));
+
+		// but no similarity matching
+		assertEquals(null, characteristics.findMatchingStatusGroupAddress(otherPrimary));
+		Set<GroupAddress> unresolved = characteristics.getUnresolvedGroupAddresses();
+		assertTrue(unresolved.contains(otherPrimary));
+		assertTrue(unresolved.contains(otherStatus));
+
+		// resolved later without budget
+		characteristics.setBudget(AnalysisBudget.UNLIMITED);
+		characteristics.relearn(List.of(otherPrimary, otherStatus));
+		assertEquals(otherStatus, characteristics.findMatchingStatusGroupAddress(otherPrimary));
+		unresolved = characteristics.getUnresolvedGroupAddresses();
+		assertFalse(unresolved.contains(otherPrimary));
+		assertFalse(unresolved.contains(otherStatus));
+	}
+
+	@Test
+	public void learn_budgetExhausted_status() throws Exception {
+		GroupAddress primary = new GroupAddress(null, null, getCombindedAddress(1, 0, 0), "L_Küche", null,
+				Switch.getValue());
+		GroupAddress status = new GroupAddress(null, null, getCombindedAddress(1, 0, 1), "L_Küche Status", null,
+				Switch.getValue());
+		GroupAddress feedback = new GroupAddress(null, null, getCombindedAddress(1, 0, 2), "L_Küche RM", null,
+				Switch.getValue());
+
+		// nothing is analyzed but categories still match by prefix
+		characteristics.setBudget(AnalysisBudget.ofWork(0));
+		characteristics.learn(List.of(primary, status, feedback));
+		assertTrue(characteristics.getUnresolvedGroupAddresses().contains(status));
+		assertTrue(characteristics.isLight(status));
+
+		// partial results must not contain status GAs as lights
+		assertTrue(characteristics.isPrimarySwitch(primary));
+		assertFalse(characteristics.isPrimarySwitch(status));
+		assertFalse(characteristics.isPrimarySwitch(feedback));
+	}
+
+	@Test
+	public void learn_searchIndex(@TempDir Path directory) throws Exception {
+		List<GroupAddress> groupAddresses = List.of(
+				new GroupAddress(null, "GA-1", getCombindedAddress(1, 0, 0), "Licht Küche Ein/Aus", null,
+						Switch.getValue()),
+				new GroupAddress(null, "GA-2", getCombindedAddress(1, 0, 3), "Licht Küche Status", null,
+						State.getValue()),
+				new GroupAddress(null, "GA-3", getCombindedAddress(2, 0, 0), "Rollladen Küche", null,
+						Switch.getValue()));
+
+		characteristics.setSearchIndexDirectory(directory);
+		characteristics.learn(groupAddresses);
+		characteristics.close();
+		assertTrue(characteristics.getTokenCount() > 0);
+
+		// terms and categories are read from the persisted index
+		try (GenericGermanyKnxProjectCharacteristics reopened = new GenericGermanyKnxProjectCharacteristics()) {
+			reopened.setSearchIndexDirectory(directory);
+			reopened.learn(groupAddresses);
+			assertEquals(0, reopened.getTokenCount());
+			for (GroupAddress ga : groupAddresses) {
+				assertEquals(characteristics.getCategories(ga), reopened.getCategories(ga));
+				assertEquals(characteristics.isPrimarySwitch(ga), reopened.isPrimarySwitch(ga));
+			}
+			assertEquals(groupAddresses.get(1), reopened.findMatchingStatusGroupAddress(groupAddresses.get(0)));
+		}
+	}
+
+	@Test
+	public void relearn() throws Exception {
+		GroupAddress primary = ga(1, 0, 0, "Licht Küche Ein/Aus", Switch.getValue());
+		GroupAddress status = ga(1, 0, 3, "Licht Küche Status", State.getValue());
+		GroupAddress otherPrimary = ga(2, 0, 0, "Licht Bad Ein/Aus", Switch.getValue());
+		assertEquals(status, characteristics.findMatchingStatusGroupAddress(primary));
+		assertEquals(null, characteristics.findMatchingDimGroupAddress(primary));
+
+		// add a dim GA
+		GroupAddress dim = new GroupAddress(null, null, getCombindedAddress(1, 0, 1), "Licht Küche Dimmen", null,
+				ControlDimming.getValue());
+		Set<GroupAddress> affectedPrimaries = characteristics.relearn(List.of(dim));
+		assertTrue(affectedPrimaries.contains(primary));
+		assertFalse(affectedPrimaries.contains(otherPrimary));
+		assertEquals(dim, characteristics.findMatchingDimGroupAddress(primary));
+
+		// replace status with a new instance (different DPT)
+		GroupAddress changedStatus = new GroupAddress(null, null, status.getAddressInt(), status.getName(), null,
+				Scaling.getValue());
+		affectedPrimaries = characteristics.relearn(List.of(changedStatus));
+		assertTrue(affectedPrimaries.contains(primary));
+		assertEquals(null, characteristics.findMatchingStatusGroupAddress(primary));
+	}
+
+	@Test
+	public void saveState_restoreState() throws Exception {
+		GroupAddress primary = ga(1, 0, 0, "Licht Küche Ein/Aus", Switch.getValue());
+		GroupAddress dim = ga(1, 0, 1, "Licht Küche Dimmen", ControlDimming.getValue());
+		GroupAddress status = ga(1, 0, 3, "Licht Küche Status", State.getValue());
+		GroupAddress shutter = ga(2, 0, 0, "Rollladen Küche", Switch.getValue());
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			assertTrue(characteristics.saveState(out));
+		}
+
+		GenericGermanyKnxProjectCharacteristics restored = new GenericGermanyKnxProjectCharacteristics();
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertTrue(restored.restoreState(in, List.of(primary, dim, status, shutter)));
+		}
+		assertEquals(status, restored.findMatchingStatusGroupAddress(primary));
+		assertEquals(dim, restored.findMatchingDimGroupAddress(primary));
+		assertEquals(characteristics.getCategories(primary), restored.getCategories(primary));
+		assertEquals(characteristics.getCategories(shutter), restored.getCategories(shutter));
+		assertEquals(characteristics.isPrimarySwitch(shutter), restored.isPrimarySwitch(shutter));
+		assertEquals(characteristics.findBlock(primary).getCandidates(Role.StatusOnOff).size(),
+				restored.findBlock(primary).getCandidates(Role.StatusOnOff).size());
+
+		// state of other GAs is rejected
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertFalse(new GenericGermanyKnxProjectCharacteristics().restoreState(in, List.of(primary, dim)));
+		}
+
+		// stale block referencing an unknown GA
+		bytes.reset();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(0); // structurally classified
+			out.writeInt(0); // ranges
+			out.writeInt(0); // GAs
+			out.writeInt(1); // blocks
+			out.writeShort(primary.getAddressInt());
+		}
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertFalse(new GenericGermanyKnxProjectCharacteristics().restoreState(in, List.of(dim)));
+		}
+	}
+
 	@BeforeEach
 	public void setup() {
 		characteristics = new GenericGermanyKnxProjectCharacteristics();
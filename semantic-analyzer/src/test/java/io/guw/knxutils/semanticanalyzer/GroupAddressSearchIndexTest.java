@@ -0,0 +1,140 @@
+package io.guw.knxutils.semanticanalyzer;
+
+import static io.guw.knxutils.knxprojectparser.DatapointType.Switch;
+import static io.guw.knxutils.knxprojectparser.GroupAddress.getCombindedAddress;
+import static io.guw.knxutils.semanticanalyzer.DeviceCategory.Light;
+import static io.guw.knxutils.semanticanalyzer.DeviceCategory.Shutter;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+import io.guw.knxutils.knxprojectparser.GroupAddressRange;
+import io.guw.knxutils.semanticanalyzer.GenericGermanyKnxProjectCharacteristics.GroupAddressDocument;
+import io.guw.knxutils.semanticanalyzer.luceneext.GermanAnalyzerWithDecompounder;
+
+public class GroupAddressSearchIndexTest {
+
+	private static Query categoryQuery(DeviceCategory category) {
+		return new TermQuery(new Term(GroupAddressSearchIndex.FIELD_CATEGORY, category.name()));
+	}
+
+	private static GroupAddressDocument document(Set<DeviceCategory> categories, String... terms) {
+		GroupAddressDocument doc = new GroupAddressDocument();
+		doc.nameTerms = new LinkedHashSet<>(List.of(terms));
+		doc.categories = categories;
+		return doc;
+	}
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void rebuild_reopen() throws Exception {
+		GroupAddressRange range = new GroupAddressRange(null, "R-1", getCombindedAddress(1, 0, 0),
+				getCombindedAddress(1, 7, 255), "Beleuchtung", null);
+		GroupAddress kitchen = new GroupAddress(range, "GA-1", getCombindedAddress(1, 0, 0), "Licht Küche", null,
+				Switch.getValue());
+		GroupAddress bath = new GroupAddress(range, "GA-2", getCombindedAddress(1, 0, 1), "Licht Bad", null,
+				Switch.getValue());
+		GroupAddress shutter = new GroupAddress(null, "GA-3", getCombindedAddress(2, 0, 0), "Rollladen Küche", null,
+				Switch.getValue());
+		List<GroupAddress> groupAddresses = List.of(kitchen, bath, shutter);
+		GroupAddressDocument kitchenDocument = document(EnumSet.of(Light), "licht", "kuch");
+		kitchenDocument.primarySwitch = Boolean.TRUE;
+		kitchenDocument.status = Boolean.FALSE;
+		Map<GroupAddress, GroupAddressDocument> documents = Map.of(kitchen, kitchenDocument, bath,
+				document(EnumSet.of(Light), "licht", "bad"), shutter, document(EnumSet.of(Shutter)));
+		String snapshotHash = ProjectSnapshot.hash(groupAddresses);
+
+		try (GroupAddressSearchIndex index = GroupAddressSearchIndex.open(directory,
+				new GermanAnalyzerWithDecompounder())) {
+			assertFalse(index.isCurrent(snapshotHash));
+			assertEquals(Map.of(), index.readAnalyzedGroupAddresses());
+			index.rebuild(groupAddresses, documents::get, snapshotHash);
+			assertTrue(index.isCurrent(snapshotHash));
+		}
+
+		// persisted index is re-used without re-indexing
+		try (GroupAddressSearchIndex index = GroupAddressSearchIndex.open(directory,
+				new GermanAnalyzerWithDecompounder())) {
+			assertTrue(index.isCurrent(snapshotHash));
+			assertFalse(index.isCurrent(ProjectSnapshot.hash(List.of(kitchen))));
+
+			Map<String, GroupAddressDocument> analyzed = index.readAnalyzedGroupAddresses();
+			// GAs without terms were not analyzed
+			assertEquals(Set.of("1/0/0", "1/0/1"), analyzed.keySet());
+			assertEquals(List.of("licht", "kuch"), List.copyOf(analyzed.get("1/0/0").nameTerms));
+			assertEquals(Set.of(Light), analyzed.get("1/0/0").categories);
+			assertEquals(Boolean.TRUE, analyzed.get("1/0/0").primarySwitch);
+			assertEquals(Boolean.FALSE, analyzed.get("1/0/0").status);
+			assertEquals(null, analyzed.get("1/0/1").primarySwitch);
+		}
+
+		// fields are queryable with Lucene
+		assertEquals(List.of("1/0/0", "1/0/1"), search(categoryQuery(Light)));
+		assertEquals(List.of("2/0/0"), search(categoryQuery(Shutter)));
+		assertEquals(List.of("1/0/0", "2/0/0"),
+				search(new TermQuery(new Term(GroupAddressSearchIndex.FIELD_NAME, "kuch"))));
+	}
+
+	private List<String> search(Query query) throws Exception {
+		try (DirectoryReader reader = DirectoryReader.open(FSDirectory.open(directory))) {
+			IndexSearcher searcher = new IndexSearcher(reader);
+			List<String> addresses = new ArrayList<>();
+			for (ScoreDoc scoreDoc : searcher.search(query, 10).scoreDocs) {
+				addresses.add(searcher.doc(scoreDoc.doc).get(GroupAddressSearchIndex.FIELD_ADDRESS));
+			}
+			addresses.sort(null);
+			return addresses;
+		}
+	}
+
+	@Test
+	public void update_keepsRanges() throws Exception {
+		// a main group and its first middle group share the start address
+		GroupAddressRange mainGroup = new GroupAddressRange(null, "R-1", getCombindedAddress(1, 0, 0),
+				getCombindedAddress(1, 7, 255), "Beleuchtung", null);
+		GroupAddressRange middleGroup = new GroupAddressRange(mainGroup, "R-2", getCombindedAddress(1, 0, 0),
+				getCombindedAddress(1, 0, 255), "Erdgeschoss", null);
+		GroupAddress kitchen = new GroupAddress(middleGroup, "GA-1", getCombindedAddress(1, 0, 0), "Licht Küche",
+				null, Switch.getValue());
+		Map<GroupAddress, GroupAddressDocument> documents = Map.of(kitchen,
+				document(EnumSet.of(Light), "licht", "kuch"));
+		Query rangeQuery = new TermQuery(
+				new Term(GroupAddressSearchIndex.FIELD_TYPE, GroupAddressSearchIndex.TYPE_RANGE));
+
+		try (GroupAddressSearchIndex index = GroupAddressSearchIndex.open(directory,
+				new GermanAnalyzerWithDecompounder())) {
+			index.rebuild(List.of(kitchen), documents::get, ProjectSnapshot.hash(List.of(kitchen)));
+			assertEquals(2, search(rangeQuery).size());
+
+			GroupAddress changed = new GroupAddress(middleGroup, "GA-1", getCombindedAddress(1, 0, 0),
+					"Licht Küche Decke", null, Switch.getValue());
+			index.update(List.of(changed), (ga) -> document(EnumSet.of(Light), "licht", "kuch", "deck"),
+					ProjectSnapshot.hash(List.of(changed)));
+			assertEquals(2, search(rangeQuery).size());
+			assertEquals(List.of("1/0/0"), search(categoryQuery(Light)));
+			assertEquals(List.of("licht", "kuch", "deck"),
+					List.copyOf(index.readAnalyzedGroupAddresses().get("1/0/0").nameTerms));
+		}
+	}
+}
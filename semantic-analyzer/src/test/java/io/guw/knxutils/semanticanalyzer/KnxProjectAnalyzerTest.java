@@ -0,0 +1,163 @@
+package io.guw.knxutils.semanticanalyzer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.guw.knxutils.knxprojectparser.GroupAddress;
+import io.guw.knxutils.knxprojectparser.KnxProjectFile;
+import io.guw.knxutils.knxprojectparser.PhaseTimer;
+
+public class KnxProjectAnalyzerTest {
+
+	/**
+	 * Finds lights by a name prefix and their status GAs by the suffix
+	 * <code>Status</code>.
+	 */
+	private static final class PrefixCharacteristics extends KnxProjectCharacteristics {
+
+		final String prefix;
+		final Map<String, GroupAddress> groupAddressByName = new ConcurrentHashMap<>();
+		final AtomicInteger fillInCount = new AtomicInteger();
+
+		PrefixCharacteristics(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public void fillInMissingInformation(GroupAddress ga) {
+			fillInCount.incrementAndGet();
+			super.fillInMissingInformation(ga);
+		}
+
+		@Override
+		public GroupAddress findMatchingBrightnessGroupAddress(GroupAddress primarySwitchGroupAddress) {
+			return null;
+		}
+
+		@Override
+		public GroupAddress findMatchingBrightnessStatusGroupAddress(GroupAddress primarySwitchGroupAddress) {
+			return null;
+		}
+
+		@Override
+		public GroupAddress findMatchingDimGroupAddress(GroupAddress primarySwitchGroupAddress) {
+			return null;
+		}
+
+		@Override
+		public GroupAddress findMatchingStatusGroupAddress(GroupAddress primarySwitchGroupAddress) {
+			return groupAddressByName.get(primarySwitchGroupAddress.getName() + " Status");
+		}
+
+		@Override
+		public String findName(GroupAddress primaryGroupAddress, GroupAddress... additionalGroupAddresses) {
+			return primaryGroupAddress.getName();
+		}
+
+		@Override
+		public boolean isLight(GroupAddress ga) {
+			return (ga.getName() != null) && ga.getName().startsWith(prefix);
+		}
+
+		@Override
+		public void learn(List<GroupAddress> groupAddresses) {
+			for (GroupAddress ga : groupAddresses) {
+				if (ga.getName() != null) {
+					groupAddressByName.put(ga.getName(), ga);
+				}
+			}
+		}
+	}
+
+	private static String groupAddress(int address, String name, String description, String datapointType) {
+		return "<GroupAddress Id=\"P-0001-0_GA-" + address + "\" Address=\"" + address + "\" Name=\"" + name
+				+ "\" Description=\"" + description + "\" DatapointType=\"" + datapointType + "\"/>";
+	}
+
+	private static void writeEntry(ZipOutputStream zip, String name, String content) throws IOException {
+		zip.putNextEntry(new ZipEntry(name));
+		zip.write(content.getBytes(UTF_8));
+		zip.closeEntry();
+	}
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void analyzeBestFit() throws Exception {
+		KnxProjectFile knxProjectFile = openProject( //
+				groupAddress(2048, "Licht Küche", "", "DPST-1-1"),
+				groupAddress(2049, "Licht Küche Status", "", "DPST-1-11"),
+				// name is filled in from the description
+				groupAddress(2050, "", "Licht Bad", "DPST-1-1"),
+				groupAddress(2051, "Licht Bad Status", "", "DPST-1-11"));
+		PrefixCharacteristics shutters = new PrefixCharacteristics("Rollladen");
+		PrefixCharacteristics lights = new PrefixCharacteristics("Licht");
+
+		KnxProjectAnalyzer analyzer = KnxProjectAnalyzer.analyzeBestFit(knxProjectFile, List.of(shutters, lights),
+				PhaseTimer.EVENTS_ONLY);
+
+		// selected on the data as exported (3 of 4 GAs classified, 1 of 1 light complete)
+		assertSame(lights, analyzer.getCharacteristics());
+		// only the selected characteristics fill in, the changed GA is re-analyzed
+		assertEquals(0, shutters.fillInCount.get());
+		assertEquals(4, lights.fillInCount.get());
+		assertEquals(List.of("Licht Küche", "Licht Bad"),
+				analyzer.getLights().stream().map(Light::getName).collect(toList()));
+		assertEquals(1F, analyzer.getCoverage());
+	}
+
+	@Test
+	public void analyze_stableLightOrder() throws Exception {
+		// written in reverse order, lights are assembled in parallel
+		List<String> groupAddresses = new ArrayList<>();
+		List<String> expectedAddresses = new ArrayList<>();
+		for (int i = 99; i >= 0; i--) {
+			groupAddresses.add(groupAddress(2048 + (2 * i), "Licht " + i, "", "DPST-1-1"));
+			groupAddresses.add(groupAddress(2049 + (2 * i), "Licht " + i + " Status", "", "DPST-1-11"));
+			expectedAddresses.add(0, GroupAddress.formatAsThreePartAddress(2048 + (2 * i)));
+		}
+		KnxProjectFile knxProjectFile = openProject(groupAddresses.toArray(new String[0]));
+
+		for (int run = 0; run < 5; run++) {
+			KnxProjectAnalyzer analyzer = new KnxProjectAnalyzer(knxProjectFile, new PrefixCharacteristics("Licht"));
+			analyzer.analyze();
+			assertEquals(expectedAddresses, analyzer.getLights().stream()
+					.map((light) -> light.getPrimarySwitchGroupAddress().getAddress()).collect(toList()));
+		}
+	}
+
+	private KnxProjectFile openProject(String... groupAddresses) throws Exception {
+		String projectData = "<KNX><Project Id=\"P-0001\"><Installations><Installation><Topology/>"
+				+ "<GroupAddresses><GroupRanges>"
+				+ "<GroupRange Id=\"P-0001-0_GR-1\" RangeStart=\"2048\" RangeEnd=\"4095\" Name=\"Beleuchtung\">"
+				+ String.join("", groupAddresses) + "</GroupRange>"
+				+ "</GroupRanges></GroupAddresses></Installation></Installations></Project></KNX>";
+		String projectInfo = "<KNX><Project Id=\"P-0001\"><ProjectInformation Name=\"Test\"/></Project></KNX>";
+
+		Path file = Files.createTempFile(directory, "project", ".knxproj");
+		try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+			writeEntry(zip, "P-0001/project.xml", projectInfo);
+			writeEntry(zip, "P-0001/0.xml", projectData);
+		}
+		KnxProjectFile knxProjectFile = new KnxProjectFile(file.toFile());
+		knxProjectFile.open();
+		return knxProjectFile;
+	}
+}
@@ -0,0 +1,43 @@
+package io.guw.knxutils.semanticanalyzer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.guw.knxutils.semanticanalyzer.NameSimilarityEngine.Signature;
+
+public class NameSimilarityEngineTest {
+
+	@Test
+	public void signature_writeRead_longName() throws Exception {
+		NameSimilarityEngine engine = new NameSimilarityEngine(Set.of());
+		StringBuilder name = new StringBuilder();
+		for (int i = 0; i < (NameSimilarityEngine.MAX_PHONETIC_CODES + 45); i++) {
+			name.append("Kanal").append(i).append(' ');
+		}
+		Signature signature = engine.createSignature(name.toString());
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			signature.write(out);
+		}
+		Signature restored;
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			restored = Signature.read(in);
+		}
+
+		// restored signature compares the same as the computed one
+		assertEquals(signature.toString(), restored.toString());
+		assertEquals(1F, engine.similarity(signature, restored));
+		for (Signature other : List.of(engine.createSignature("Kanal1 Kanal2"), engine.createSignature(name + "x"))) {
+			assertEquals(engine.similarity(signature, other), engine.similarity(restored, other));
+		}
+	}
+}